@@ -0,0 +1,40 @@
+package com.biddergod.user_service.activity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records last-seen for every request carrying a verified token, whether or not
+ * the handler resolves the local user. Runs inside the security filter chain's
+ * context and only touches memory: the sub is mapped to an ID through UserIdCache.
+ */
+public class LastSeenFilter extends OncePerRequestFilter {
+
+    private final LastSeenTracker tracker;
+
+    public LastSeenFilter(LastSeenTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // After the handler, so a user provisioned by this request is already cached
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication instanceof AbstractOAuth2TokenAuthenticationToken<?> token && token.isAuthenticated()) {
+                tracker.recordSub(token.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.biddergod.user_service.activity;
+
+import com.biddergod.user_service.config.LastSeenConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.service.UserIdCache;
+import com.biddergod.user_service.sharding.ShardContext;
+import com.biddergod.user_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind accumulator for users.last_seen_at
+ * Request threads only merge a timestamp into a concurrent map; a scheduled
+ * flush writes the latest value per user in batched UPDATEs. Observations within
+ * the configured granularity of the last written value are dropped.
+ * Subs missing from UserIdCache are parked and mapped to IDs in one query per flush.
+ */
+@Component
+@ConditionalOnProperty(name = "users.last-seen.enabled", havingValue = "true", matchIfMissing = true)
+public class LastSeenTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LastSeenTracker.class);
+
+    // Never moves last_seen_at backwards if another node wrote a newer value
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_seen_at = ? WHERE id = ? AND (last_seen_at IS NULL OR last_seen_at < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LastSeenConfig config;
+
+    // Present when the users table is sharded
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserIdCache userIdCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Clock clock = Clock.systemDefaultZone();
+
+    // userId -> newest unflushed observation (epoch millis)
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    // sub -> newest observation for tokens whose user ID wasn't cached yet
+    private final Map<String, Long> pendingSubs = new ConcurrentHashMap<>();
+    // userId -> last value written by this node, used for granularity filtering
+    private final Map<Long, Long> lastWritten = new ConcurrentHashMap<>();
+    // Oldest observation still waiting for a flush, 0 when none
+    private final AtomicLong oldestPending = new AtomicLong();
+
+    private Counter coalesced;
+    private Counter written;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        coalesced = Counter.builder("users.last_seen.coalesced")
+                .description("Observations dropped within the write granularity")
+                .register(meterRegistry);
+        written = Counter.builder("users.last_seen.written")
+                .description("last_seen_at rows updated")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("users.last_seen.flush")
+                .description("Duration of a batched last_seen_at flush")
+                .register(meterRegistry);
+        Gauge.builder("users.last_seen.flush.lag", this, LastSeenTracker::flushLagSeconds)
+                .description("Age of the oldest unflushed observation")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("users.last_seen.pending", this, tracker -> tracker.pending.size() + tracker.pendingSubs.size())
+                .description("Users with an unflushed observation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record that a user was seen now. Never touches the database.
+     */
+    public void record(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = clock.millis();
+        Long lastValue = lastWritten.get(userId);
+        if (lastValue != null && now - lastValue < config.getGranularity().toMillis()) {
+            coalesced.increment();
+            return;
+        }
+        pending.merge(userId, now, Math::max);
+        oldestPending.compareAndSet(0, now);
+    }
+
+    /**
+     * Record that the owner of a token was seen now. Never touches the database:
+     * a sub without a cached user ID is resolved by the next flush.
+     */
+    public void recordSub(String sub) {
+        if (sub == null) {
+            return;
+        }
+        Long userId = userIdCache.get(sub);
+        if (userId != null) {
+            record(userId);
+            return;
+        }
+        if (pendingSubs.size() >= config.getMaxPendingSubs()) {
+            return;
+        }
+        long now = clock.millis();
+        pendingSubs.merge(sub, now, Math::max);
+        oldestPending.compareAndSet(0, now);
+    }
+
+    @Scheduled(fixedDelayString = "${users.last-seen.flush-interval:PT30S}")
+    public void flush() {
+        pruneLastWritten();
+        if (pending.isEmpty() && pendingSubs.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> {
+            resolvePendingSubs();
+            flushPending();
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty() || !pendingSubs.isEmpty()) {
+            log.info("Flushing {} pending last-seen updates on shutdown", pending.size() + pendingSubs.size());
+            resolvePendingSubs();
+            flushPending();
+        }
+    }
+
+    /**
+     * Map parked subs to user IDs in batches and move them to the pending IDs
+     * Unknown and deactivated subs are dropped; on failure they wait for the next flush
+     */
+    private void resolvePendingSubs() {
+        List<String> subs = new ArrayList<>(pendingSubs.keySet());
+        for (int from = 0; from < subs.size(); from += config.getBatchSize()) {
+            List<String> chunk = subs.subList(from, Math.min(from + config.getBatchSize(), subs.size()));
+            List<User> users;
+            try {
+                users = userRepository.findByUsernameIn(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Failed to resolve {} last-seen subs: {}", chunk.size(), e.getMessage());
+                return;
+            }
+            for (User user : users) {
+                Long seenAt = pendingSubs.get(user.getUsername());
+                if (seenAt != null && user.getDeactivatedAt() == null) {
+                    userIdCache.put(user.getUsername(), user.getId());
+                    pending.merge(user.getId(), seenAt, Math::max);
+                }
+            }
+            chunk.forEach(pendingSubs::remove);
+        }
+    }
+
+    private void flushPending() {
+        // Subs that failed to resolve keep their age
+        oldestPending.set(pendingSubs.values().stream().mapToLong(Long::longValue).min().orElse(0));
+        List<Object[]> batch = new ArrayList<>(config.getBatchSize());
+        for (Long userId : pending.keySet()) {
+            Long seenAt = pending.remove(userId);
+            if (seenAt == null) {
+                continue;
+            }
+            Timestamp timestamp = toTimestamp(seenAt);
+            batch.add(new Object[]{timestamp, userId, timestamp});
+            if (batch.size() >= config.getBatchSize()) {
+                writeBatch(batch);
+                batch = new ArrayList<>(config.getBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Object[]> batch) {
+        try {
+            if (shardRouter == null) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            } else {
+                // IDs don't reliably name their shard; the UPDATE is a no-op where the row is absent.
+                // Resharding copies are updated too, like every other write
+                for (int shard : shardRouter.writeShardIds()) {
+                    ShardContext.runOn(shard, () -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+                }
+            }
+            for (Object[] row : batch) {
+                lastWritten.put((Long) row[1], ((Timestamp) row[0]).getTime());
+            }
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Put the observations back so the next flush retries them
+            log.warn("Failed to flush {} last-seen updates: {}", batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                long seenAt = ((Timestamp) row[0]).getTime();
+                pending.merge((Long) row[1], seenAt, Math::max);
+                oldestPending.compareAndSet(0, seenAt);
+            }
+        }
+    }
+
+    /**
+     * Entries older than the granularity no longer filter anything
+     */
+    private void pruneLastWritten() {
+        long cutoff = clock.millis() - config.getGranularity().toMillis();
+        lastWritten.values().removeIf(value -> value < cutoff);
+    }
+
+    private static Timestamp toTimestamp(long epochMillis) {
+        // Same zone handling as the LocalDateTime audit columns
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    double flushLagSeconds() {
+        long oldest = oldestPending.get();
+        return oldest == 0 ? 0.0 : (clock.millis() - oldest) / 1000.0;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    int pendingSubCount() {
+        return pendingSubs.size();
+    }
+}
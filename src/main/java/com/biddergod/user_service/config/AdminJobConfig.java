@@ -0,0 +1,38 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.jobs")
+public class AdminJobConfig {
+
+    // Users locked and changed per transaction
+    private int chunkSize = 200;
+    // Upper bound on users changed per second by one job
+    private int maxRowsPerSecond = 1_000;
+    // Statement timeout for one chunk; a chunk stuck behind request-path locks fails instead of piling up
+    private Duration chunkTimeout = Duration.ofSeconds(5);
+    // A RUNNING job whose progress is older than this was orphaned by a stopped replica and may be resumed
+    private Duration staleAfter = Duration.ofMinutes(5);
+    // Largest ID list a deactivation job accepts
+    private int maxUserIds = 50_000;
+
+    // Getters and Setters
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxRowsPerSecond() { return maxRowsPerSecond; }
+    public void setMaxRowsPerSecond(int maxRowsPerSecond) { this.maxRowsPerSecond = maxRowsPerSecond; }
+
+    public Duration getChunkTimeout() { return chunkTimeout; }
+    public void setChunkTimeout(Duration chunkTimeout) { this.chunkTimeout = chunkTimeout; }
+
+    public Duration getStaleAfter() { return staleAfter; }
+    public void setStaleAfter(Duration staleAfter) { this.staleAfter = staleAfter; }
+
+    public int getMaxUserIds() { return maxUserIds; }
+    public void setMaxUserIds(int maxUserIds) { this.maxUserIds = maxUserIds; }
+}
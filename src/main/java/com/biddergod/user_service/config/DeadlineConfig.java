@@ -0,0 +1,38 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.deadline")
+public class DeadlineConfig {
+
+    private boolean enabled = true;
+    // Remaining client budget in milliseconds
+    private String header = "X-Request-Timeout";
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    // Upper bound on what a client may ask for through the header
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    // Per-endpoint defaults keyed by Ant path pattern, first match wins
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getHeader() { return header; }
+    public void setHeader(String header) { this.header = header; }
+
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Duration getMaxTimeout() { return maxTimeout; }
+    public void setMaxTimeout(Duration maxTimeout) { this.maxTimeout = maxTimeout; }
+
+    public Map<String, Duration> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Duration> endpoints) { this.endpoints = endpoints; }
+}
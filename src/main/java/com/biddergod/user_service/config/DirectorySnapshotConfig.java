@@ -0,0 +1,39 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.snapshot")
+public class DirectorySnapshotConfig {
+
+    private boolean enabled = false;
+    // Shared with consumers (e.g. a mounted volume); one writer per directory
+    private String directory = "snapshots";
+    private Duration fullInterval = Duration.ofHours(1);
+    private Duration deltaInterval = Duration.ofMinutes(1);
+    // Full generations kept on disk, with their deltas, so readers of the previous one can finish
+    private int retainGenerations = 2;
+    private int deltaChunkSize = 500;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+
+    public Duration getFullInterval() { return fullInterval; }
+    public void setFullInterval(Duration fullInterval) { this.fullInterval = fullInterval; }
+
+    public Duration getDeltaInterval() { return deltaInterval; }
+    public void setDeltaInterval(Duration deltaInterval) { this.deltaInterval = deltaInterval; }
+
+    public int getRetainGenerations() { return retainGenerations; }
+    public void setRetainGenerations(int retainGenerations) { this.retainGenerations = retainGenerations; }
+
+    public int getDeltaChunkSize() { return deltaChunkSize; }
+    public void setDeltaChunkSize(int deltaChunkSize) { this.deltaChunkSize = deltaChunkSize; }
+}
@@ -0,0 +1,41 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.existence-filter")
+public class ExistenceFilterConfig {
+
+    private boolean enabled = true;
+    // Initial sizing; the filter is rebuilt larger once the table outgrows it
+    private long expectedUsers = 1_000_000;
+    // Per filter (usernames, emails); 0.01 is about 9.6 bits per user each
+    private double falsePositiveRate = 0.01;
+    // Headroom over the current row count when rebuilding
+    private double growthFactor = 1.5;
+    private Duration rebuildCheckInterval = Duration.ofMinutes(1);
+    // Full rebuild at least this often, so adds lost with a missed invalidation don't stick
+    private Duration maxAge = Duration.ofHours(1);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getExpectedUsers() { return expectedUsers; }
+    public void setExpectedUsers(long expectedUsers) { this.expectedUsers = expectedUsers; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+    public double getGrowthFactor() { return growthFactor; }
+    public void setGrowthFactor(double growthFactor) { this.growthFactor = growthFactor; }
+
+    public Duration getRebuildCheckInterval() { return rebuildCheckInterval; }
+    public void setRebuildCheckInterval(Duration rebuildCheckInterval) { this.rebuildCheckInterval = rebuildCheckInterval; }
+
+    public Duration getMaxAge() { return maxAge; }
+    public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+}
@@ -0,0 +1,33 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.feedback")
+public class FeedbackConfig {
+
+    // Submissions waiting for the writer; POST /api/internal/feedback answers 503 when full
+    private int queueCapacity = 50_000;
+    // Submissions the writer takes from the queue per transaction
+    private int maxBatchSize = 1_000;
+    // Rows per multi-row INSERT (6 bind parameters each)
+    private int rowsPerStatement = 100;
+    // Pause before retrying a batch after a database error
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    // Getters and Setters
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+
+    public int getRowsPerStatement() { return rowsPerStatement; }
+    public void setRowsPerStatement(int rowsPerStatement) { this.rowsPerStatement = rowsPerStatement; }
+
+    public Duration getRetryBackoff() { return retryBackoff; }
+    public void setRetryBackoff(Duration retryBackoff) { this.retryBackoff = retryBackoff; }
+}
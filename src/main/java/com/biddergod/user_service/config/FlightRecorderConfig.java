@@ -0,0 +1,32 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.jfr")
+public class FlightRecorderConfig {
+
+    private boolean enabled = true;
+    // JDK settings profile: "default" is the low-overhead continuous profile
+    private String settings = "default";
+    // Ring buffer bounds, whichever is hit first
+    private Duration maxAge = Duration.ofMinutes(30);
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getSettings() { return settings; }
+    public void setSettings(String settings) { this.settings = settings; }
+
+    public Duration getMaxAge() { return maxAge; }
+    public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+
+    public DataSize getMaxSize() { return maxSize; }
+    public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+}
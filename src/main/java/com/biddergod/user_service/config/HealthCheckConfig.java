@@ -0,0 +1,28 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.health")
+public class HealthCheckConfig {
+
+    // How often the background checks run; probes only read the last result
+    private Duration refreshInterval = Duration.ofSeconds(10);
+    // Per-check timeout (connection validation, JWKS fetch)
+    private Duration timeout = Duration.ofSeconds(2);
+    // A snapshot older than this is reported DOWN (the refresher is stuck)
+    private Duration staleAfter = Duration.ofSeconds(60);
+
+    // Getters and Setters
+    public Duration getRefreshInterval() { return refreshInterval; }
+    public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+    public Duration getStaleAfter() { return staleAfter; }
+    public void setStaleAfter(Duration staleAfter) { this.staleAfter = staleAfter; }
+}
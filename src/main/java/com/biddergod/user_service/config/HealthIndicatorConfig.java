@@ -0,0 +1,29 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.health.DependencyHealthMonitor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Health indicators backed by DependencyHealthMonitor's cached results
+ * Indicator names (bean name minus "HealthIndicator") are used by the probe groups
+ */
+@Configuration
+public class HealthIndicatorConfig {
+
+    @Bean
+    public HealthIndicator databaseHealthIndicator(DependencyHealthMonitor monitor) {
+        return monitor::database;
+    }
+
+    @Bean
+    public HealthIndicator connectionPoolHealthIndicator(DependencyHealthMonitor monitor) {
+        return monitor::connectionPool;
+    }
+
+    @Bean
+    public HealthIndicator jwksHealthIndicator(DependencyHealthMonitor monitor) {
+        return monitor::jwks;
+    }
+}
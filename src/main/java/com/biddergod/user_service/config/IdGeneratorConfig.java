@@ -0,0 +1,29 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.id.SnowflakeIdAllocator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.id")
+public class IdGeneratorConfig {
+
+    // 0-255, unique per running replica; required
+    private Integer nodeId;
+    private Instant epoch = SnowflakeIdAllocator.DEFAULT_EPOCH;
+    // How far the wall clock may fall behind the last issued ID before allocation fails
+    private Duration maxClockSkew = Duration.ofSeconds(1);
+
+    // Getters and Setters
+    public Integer getNodeId() { return nodeId; }
+    public void setNodeId(Integer nodeId) { this.nodeId = nodeId; }
+
+    public Instant getEpoch() { return epoch; }
+    public void setEpoch(Instant epoch) { this.epoch = epoch; }
+
+    public Duration getMaxClockSkew() { return maxClockSkew; }
+    public void setMaxClockSkew(Duration maxClockSkew) { this.maxClockSkew = maxClockSkew; }
+}
@@ -0,0 +1,36 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.invalidation")
+public class InvalidationConfig {
+
+    // memory (single JVM, tests) or postgres (LISTEN/NOTIFY)
+    private String bus = "memory";
+    private String channel = "users_invalidation";
+    // Identifies this replica so it ignores its own notifications
+    private String nodeId = UUID.randomUUID().toString();
+    private Duration batchWindow = Duration.ofMillis(100);
+    private int maxBatchSize = 500;
+
+    // Getters and Setters
+    public String getBus() { return bus; }
+    public void setBus(String bus) { this.bus = bus; }
+
+    public String getChannel() { return channel; }
+    public void setChannel(String channel) { this.channel = channel; }
+
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public Duration getBatchWindow() { return batchWindow; }
+    public void setBatchWindow(Duration batchWindow) { this.batchWindow = batchWindow; }
+
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+}
@@ -0,0 +1,62 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.dto.CurrentUserResponse;
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.dto.FeedbackResponse;
+import com.biddergod.user_service.dto.LeaderboardResponse;
+import com.biddergod.user_service.dto.ProfileUpdateResponse;
+import com.biddergod.user_service.dto.ReputationResponse;
+import com.biddergod.user_service.dto.ServiceHealthResponse;
+import com.biddergod.user_service.dto.TokenInfoResponse;
+import com.biddergod.user_service.dto.TokenResolutionResponse;
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.dto.UsersByIdsResponse;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Response types on the hot user endpoints
+     */
+    public static final List<Class<?>> RESPONSE_TYPES = List.of(
+            CurrentUserResponse.class,
+            TokenInfoResponse.class,
+            UsersByIdsResponse.class,
+            UserDetailsResponse.class,
+            ProfileUpdateResponse.class,
+            ErrorResponse.class,
+            ServiceHealthResponse.class,
+            TokenResolutionResponse.class,
+            ReputationResponse.class,
+            FeedbackResponse.class,
+            LeaderboardResponse.class
+    );
+
+    /**
+     * Optional bytecode-generated property accessors (replaces reflection)
+     * Spring Boot registers every Module bean with the shared ObjectMapper
+     */
+    @Bean
+    @ConditionalOnProperty(name = "users.json.blackbird.enabled", havingValue = "true")
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Build and cache the serializers for the response types at startup
+     * so the first requests don't pay for introspection
+     */
+    @Bean
+    public SmartInitializingSingleton responseSerializerPrimer(ObjectMapper objectMapper) {
+        return () -> RESPONSE_TYPES.forEach(objectMapper::canSerialize);
+    }
+}
@@ -0,0 +1,31 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.last-seen")
+public class LastSeenConfig {
+
+    // Observations closer than this to the last written value are dropped
+    private Duration granularity = Duration.ofMinutes(5);
+    private Duration flushInterval = Duration.ofSeconds(30);
+    private int batchSize = 500;
+    // Tokens whose user ID isn't cached yet, waiting for the next flush to resolve them
+    private int maxPendingSubs = 100_000;
+
+    // Getters and Setters
+    public Duration getGranularity() { return granularity; }
+    public void setGranularity(Duration granularity) { this.granularity = granularity; }
+
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxPendingSubs() { return maxPendingSubs; }
+    public void setMaxPendingSubs(int maxPendingSubs) { this.maxPendingSubs = maxPendingSubs; }
+}
@@ -0,0 +1,25 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.activity.LastSeenFilter;
+import com.biddergod.user_service.activity.LastSeenTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Last-seen is recorded per authenticated request, not per user resolution
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.last-seen.enabled", havingValue = "true", matchIfMissing = true)
+public class LastSeenFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<LastSeenFilter> lastSeenFilter(LastSeenTracker tracker) {
+        FilterRegistrationBean<LastSeenFilter> registration = new FilterRegistrationBean<>(new LastSeenFilter(tracker));
+        // Behind the security filter chain so the verified token is in the SecurityContext
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
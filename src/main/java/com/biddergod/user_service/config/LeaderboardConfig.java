@@ -0,0 +1,22 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.leaderboard")
+public class LeaderboardConfig {
+
+    // How often changed scores are moved to their new rank
+    private Duration applyInterval = Duration.ofMillis(500);
+    private int maxPageSize = 100;
+
+    // Getters and Setters
+    public Duration getApplyInterval() { return applyInterval; }
+    public void setApplyInterval(Duration applyInterval) { this.applyInterval = applyInterval; }
+
+    public int getMaxPageSize() { return maxPageSize; }
+    public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+}
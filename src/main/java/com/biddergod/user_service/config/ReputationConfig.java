@@ -0,0 +1,37 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.reputation")
+public class ReputationConfig {
+
+    // How often accumulated increments are written to user_reputation
+    private Duration flushInterval = Duration.ofSeconds(5);
+    // How often rows written by other replicas are re-read
+    private Duration refreshInterval = Duration.ofSeconds(5);
+    // Re-read rows this far behind the last refresh, covers clock skew between replicas
+    private Duration refreshOverlap = Duration.ofSeconds(5);
+    // Reads are flagged stale once the last successful sync is older than this
+    private Duration maxStaleness = Duration.ofSeconds(30);
+    private int batchSize = 500;
+
+    // Getters and Setters
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+
+    public Duration getRefreshInterval() { return refreshInterval; }
+    public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+
+    public Duration getRefreshOverlap() { return refreshOverlap; }
+    public void setRefreshOverlap(Duration refreshOverlap) { this.refreshOverlap = refreshOverlap; }
+
+    public Duration getMaxStaleness() { return maxStaleness; }
+    public void setMaxStaleness(Duration maxStaleness) { this.maxStaleness = maxStaleness; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+}
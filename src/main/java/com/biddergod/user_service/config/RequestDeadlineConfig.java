@@ -0,0 +1,38 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.deadline.DeadlineAwareJpaTransactionManager;
+import com.biddergod.user_service.deadline.DeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Request deadlines: X-Request-Timeout or a per-endpoint default caps every transaction
+ * Disable with users.deadline.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineConfig config, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DeadlineFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineFilter(config, meterRegistry));
+        // Right after Server-Timing, ahead of the security filter chain
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Replaces Boot's JpaTransactionManager (it backs off when one is defined)
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new DeadlineAwareJpaTransactionManager(entityManagerFactory);
+    }
+}
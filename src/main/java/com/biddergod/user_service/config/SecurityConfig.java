@@ -1,8 +1,13 @@
 package com.biddergod.user_service.config;
 
+import com.biddergod.user_service.observability.TimedJwtDecoder;
+import com.biddergod.user_service.security.CachingJwtDecoder;
+import com.biddergod.user_service.security.CognitoJwtAuthenticationConverter;
+import com.biddergod.user_service.security.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -17,11 +22,18 @@ import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
     @Autowired
     private CognitoConfig cognitoConfig;
 
+    @Autowired
+    private TokenResolutionConfig tokenResolutionConfig;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -42,12 +54,16 @@ public class SecurityConfig {
                 // Protected endpoints - require authentication
                 .requestMatchers("/api/users/**").authenticated()
 
+                // Service-to-service endpoints - require the internal scope
+                .requestMatchers("/api/internal/**").hasAuthority(tokenResolutionConfig.getInternalAuthority())
+
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
                     .decoder(jwtDecoder())
+                    .jwtAuthenticationConverter(new CognitoJwtAuthenticationConverter())
                 )
             )
             .headers(headers -> headers.frameOptions().sameOrigin()); // For H2 console
@@ -59,7 +75,8 @@ public class SecurityConfig {
     public JwtDecoder jwtDecoder() {
         // Production mode: Use AWS Cognito JWT validation
         String issuerUri = cognitoConfig.getIssuerUri();
-        return NimbusJwtDecoder.withIssuerLocation(issuerUri).build();
+        return new TimedJwtDecoder(new CachingJwtDecoder(
+            NimbusJwtDecoder.withIssuerLocation(issuerUri).build(), verifiedTokenCache));
 
         // For local/Docker development without Cognito connection, use this mock decoder instead:
         // return token -> {
@@ -74,10 +91,10 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
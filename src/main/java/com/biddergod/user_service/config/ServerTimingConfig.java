@@ -0,0 +1,67 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.observability.QueryCountingStatementInspector;
+import com.biddergod.user_service.observability.RepositoryTimingInterceptor;
+import com.biddergod.user_service.observability.ServerTimingFilter;
+import com.biddergod.user_service.observability.TimedJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Server-Timing header: auth, resolve, db (with query count) and ser phases per request
+ * Disable with users.server-timing.enabled=false
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        // Ahead of the security filter chain so token decode is inside the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Replaces Boot's default Jackson converter (it backs off when one is defined)
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter timedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    /**
+     * Adds the timing interceptor to every Spring Data repository proxy
+     * Must run before the factory bean creates the repository
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        RepositoryTimingInterceptor interceptor = new RepositoryTimingInterceptor();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(interceptor)));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.sharding")
+public class ShardingConfig {
+
+    private boolean enabled = false;
+    // Shard DataSources in shard-number order; shard 0 is the original database
+    private List<Shard> shards = new ArrayList<>();
+    // Shards that own users; the rest are resharding targets. Defaults to all
+    private Integer activeShards;
+    // Shard count of the other layout while resharding: every write is copied to it too
+    private Integer mirrorShards;
+    private int fanOutThreads = 16;
+    private int poolSize = 10;
+    private int reshardChunkSize = 500;
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+
+    public Integer getActiveShards() { return activeShards; }
+    public void setActiveShards(Integer activeShards) { this.activeShards = activeShards; }
+
+    public Integer getMirrorShards() { return mirrorShards; }
+    public void setMirrorShards(Integer mirrorShards) { this.mirrorShards = mirrorShards; }
+
+    public int getFanOutThreads() { return fanOutThreads; }
+    public void setFanOutThreads(int fanOutThreads) { this.fanOutThreads = fanOutThreads; }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getReshardChunkSize() { return reshardChunkSize; }
+    public void setReshardChunkSize(int reshardChunkSize) { this.reshardChunkSize = reshardChunkSize; }
+}
@@ -0,0 +1,104 @@
+package com.biddergod.user_service.config;
+
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.sharding.ShardRouter;
+import com.biddergod.user_service.sharding.ShardRoutingDataSource;
+import com.biddergod.user_service.sharding.ShardRoutingInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash-sharded users table (users.sharding.enabled=true)
+ * Replaces the auto-configured DataSource with a router over users.sharding.shards
+ * and puts a routing interceptor in front of UserRepository
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingConfig config) {
+        int configured = config.getShards().size();
+        if (configured == 0) {
+            throw new IllegalStateException("users.sharding.shards must list at least one shard");
+        }
+        int active = config.getActiveShards() != null ? config.getActiveShards() : configured;
+        return new ShardRouter(active, configured, config.getMirrorShards());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingConfig config) {
+        List<ShardingConfig.Shard> shards = config.getShards();
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingConfig.Shard shard = shards.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("users-shard-" + i);
+            dataSource.setMaximumPoolSize(config.getPoolSize());
+            targets.put(i, dataSource);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService shardFanOutExecutor(ShardingConfig config) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(config.getFanOutThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds the routing interceptor to the UserRepository proxy
+     * Collaborators are looked up on first use: post-processors are created too early to inject them
+     */
+    @Bean
+    public static BeanPostProcessor shardRoutingPostProcessor(BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                        && UserRepository.class.equals(factoryBean.getObjectType())) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new ShardRoutingInterceptor(
+                                () -> beanFactory.getBean(ShardRouter.class),
+                                () -> beanFactory.getBean(PlatformTransactionManager.class),
+                                () -> beanFactory.getBean(DataSource.class),
+                                () -> beanFactory.getBean("shardFanOutExecutor", ExecutorService.class)))));
+                }
+                return bean;
+            }
+        };
+    }
+}
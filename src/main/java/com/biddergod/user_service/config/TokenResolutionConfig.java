@@ -0,0 +1,51 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.tokens")
+public class TokenResolutionConfig {
+
+    // Authority callers of /api/internal/** must hold (client-credentials scope)
+    private String internalAuthority = "SCOPE_users/internal";
+    // Tokens plus subs accepted in one resolve request
+    private int maxBatchSize = 100;
+    // Threads verifying token signatures in parallel
+    private int verifyThreads = 8;
+    // Longest wait for signature checks when the caller set no request deadline
+    private Duration verifyTimeout = Duration.ofSeconds(5);
+    // Verified-token cache; entries never outlive the token's exp
+    private int cacheMaxEntries = 100_000;
+    private Duration cacheMaxTtl = Duration.ofMinutes(5);
+    // sub -> user id cache (least recently used entries go first)
+    private int userIdCacheMaxEntries = 200_000;
+    private Duration userIdCacheTtl = Duration.ofMinutes(10);
+
+    // Getters and Setters
+    public String getInternalAuthority() { return internalAuthority; }
+    public void setInternalAuthority(String internalAuthority) { this.internalAuthority = internalAuthority; }
+
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+
+    public int getVerifyThreads() { return verifyThreads; }
+    public void setVerifyThreads(int verifyThreads) { this.verifyThreads = verifyThreads; }
+
+    public Duration getVerifyTimeout() { return verifyTimeout; }
+    public void setVerifyTimeout(Duration verifyTimeout) { this.verifyTimeout = verifyTimeout; }
+
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+
+    public Duration getCacheMaxTtl() { return cacheMaxTtl; }
+    public void setCacheMaxTtl(Duration cacheMaxTtl) { this.cacheMaxTtl = cacheMaxTtl; }
+
+    public int getUserIdCacheMaxEntries() { return userIdCacheMaxEntries; }
+    public void setUserIdCacheMaxEntries(int userIdCacheMaxEntries) { this.userIdCacheMaxEntries = userIdCacheMaxEntries; }
+
+    public Duration getUserIdCacheTtl() { return userIdCacheTtl; }
+    public void setUserIdCacheTtl(Duration userIdCacheTtl) { this.userIdCacheTtl = userIdCacheTtl; }
+}
@@ -0,0 +1,39 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.replica")
+public class UserReplicaConfig {
+
+    // Serve GET /api/users?id= from a full in-memory copy of the public fields
+    private boolean enabled = false;
+    // Initial sizing only; the tables grow as needed
+    private int expectedUsers = 100_000;
+    // Compact the string heap once this fraction of it belongs to overwritten values
+    private double compactGarbageRatio = 0.5;
+    // Re-read the users updated since the last reload, for changes whose invalidation was lost
+    private Duration deltaInterval = Duration.ofMinutes(1);
+    // How far each delta reload looks back before the previous one started
+    // (covers clock skew between replicas and transactions committing late)
+    private Duration deltaOverlap = Duration.ofMinutes(1);
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getExpectedUsers() { return expectedUsers; }
+    public void setExpectedUsers(int expectedUsers) { this.expectedUsers = expectedUsers; }
+
+    public double getCompactGarbageRatio() { return compactGarbageRatio; }
+    public void setCompactGarbageRatio(double compactGarbageRatio) { this.compactGarbageRatio = compactGarbageRatio; }
+
+    public Duration getDeltaInterval() { return deltaInterval; }
+    public void setDeltaInterval(Duration deltaInterval) { this.deltaInterval = deltaInterval; }
+
+    public Duration getDeltaOverlap() { return deltaOverlap; }
+    public void setDeltaOverlap(Duration deltaOverlap) { this.deltaOverlap = deltaOverlap; }
+}
@@ -0,0 +1,50 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.resolution")
+public class UserResolutionConfig {
+
+    // Longest a request waits for findOrCreateUser before degrading
+    private Duration timeout = Duration.ofMillis(500);
+
+    // Bulkhead: worker threads and queued calls for the user-resolution DB path
+    private int maxConcurrentCalls = 16;
+    private int queueCapacity = 32;
+
+    // Circuit breaker
+    private float failureRateThreshold = 50;
+    private int slidingWindowSize = 20;
+    private int minimumNumberOfCalls = 10;
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    private int permittedCallsInHalfOpenState = 3;
+
+    // Getters and Setters
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public float getFailureRateThreshold() { return failureRateThreshold; }
+    public void setFailureRateThreshold(float failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+
+    public int getSlidingWindowSize() { return slidingWindowSize; }
+    public void setSlidingWindowSize(int slidingWindowSize) { this.slidingWindowSize = slidingWindowSize; }
+
+    public int getMinimumNumberOfCalls() { return minimumNumberOfCalls; }
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) { this.minimumNumberOfCalls = minimumNumberOfCalls; }
+
+    public Duration getWaitDurationInOpenState() { return waitDurationInOpenState; }
+    public void setWaitDurationInOpenState(Duration waitDurationInOpenState) { this.waitDurationInOpenState = waitDurationInOpenState; }
+
+    public int getPermittedCallsInHalfOpenState() { return permittedCallsInHalfOpenState; }
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) { this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState; }
+}
@@ -0,0 +1,32 @@
+package com.biddergod.user_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "users.warmup")
+public class WarmupConfig {
+
+    private boolean enabled = true;
+    // Readiness is reported after warm-up finishes or this budget runs out
+    private Duration budget = Duration.ofSeconds(30);
+    // Synthetic invocations per hot path
+    private int iterations = 500;
+    // Connections to open per pool; defaults to the pool's minimum idle
+    private Integer connections;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getBudget() { return budget; }
+    public void setBudget(Duration budget) { this.budget = budget; }
+
+    public int getIterations() { return iterations; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+
+    public Integer getConnections() { return connections; }
+    public void setConnections(Integer connections) { this.connections = connections; }
+}
@@ -0,0 +1,232 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.dto.DeactivateUsersRequest;
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.job.AdminJobService;
+import com.biddergod.user_service.job.AdminJobState;
+import com.biddergod.user_service.job.AdminJobStatus;
+import com.biddergod.user_service.observability.FlightRecorderService;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import com.biddergod.user_service.service.JwtService;
+import com.biddergod.user_service.sharding.ReshardingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Administration", description = "Operational endpoints, requires the ADMIN Cognito group")
+public class AdminController {
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Autowired
+    private AdminJobService adminJobService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    // Only present when users.sharding.enabled=true
+    @Autowired(required = false)
+    private ReshardingService reshardingService;
+
+    /**
+     * Download the continuous JFR recording
+     * GET /api/admin/jfr
+     * Requires: Authorization: Bearer <token of an ADMIN group member>
+     */
+    @Operation(summary = "Dump JFR recording", description = "Download the continuous flight recording ring buffer")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/jfr")
+    public ResponseEntity<?> dumpFlightRecording() {
+        if (!flightRecorderService.isRecording()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Continuous recording is not running");
+        }
+        try {
+            Path file = flightRecorderService.dump();
+            // The temporary dump is removed once the response has been written
+            InputStreamResource body = new InputStreamResource(
+                Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"users-service-" + System.currentTimeMillis() + ".jfr\"")
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error dumping flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copy users onto their owners under a new shard count (repeatable; writes must be mirrored to it)
+     * POST /api/admin/shards/copy?targetShards=3[&modifiedSince=2026-01-01T00:00:00]
+     */
+    @Operation(summary = "Reshard: copy", description = "Copy users to their owner shard under a new shard count")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/shards/copy")
+    public ResponseEntity<?> copyShards(
+        @RequestParam int targetShards,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime modifiedSince) {
+        if (reshardingService == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Sharding is not enabled"));
+        }
+        try {
+            return ResponseEntity.ok(reshardingService.copy(targetShards, modifiedSince));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid shard count", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Writes not mirrored", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error copying shards", e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete users from shards that no longer own them, after cut-over
+     * POST /api/admin/shards/prune?shards=3
+     */
+    @Operation(summary = "Reshard: prune", description = "Delete rows from shards that no longer own them")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/shards/prune")
+    public ResponseEntity<?> pruneShards(@RequestParam int shards) {
+        if (reshardingService == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Sharding is not enabled"));
+        }
+        try {
+            return ResponseEntity.ok(reshardingService.prune(shards));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Not cut over yet", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error pruning shards", e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete users still on the placeholder email that never completed sign-up
+     * POST /api/admin/jobs/purge-placeholder-users?olderThanDays=30
+     */
+    @Operation(summary = "Job: purge placeholder users", description = "Delete <sub>@cognito.local users created and last seen more than N days ago")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/jobs/purge-placeholder-users")
+    public ResponseEntity<?> purgePlaceholderUsers(@RequestParam int olderThanDays) {
+        try {
+            AdminJobStatus job = adminJobService.startPlaceholderPurge(Duration.ofDays(olderThanDays), requestedBy());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid age", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Cannot start job", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error starting job", e.getMessage()));
+        }
+    }
+
+    /**
+     * Deactivate users by ID
+     * POST /api/admin/jobs/deactivate-users
+     * Body: {"userIds": [1, 2, 3]}
+     */
+    @Operation(summary = "Job: deactivate users", description = "Mark users deactivated so their tokens no longer resolve")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/jobs/deactivate-users")
+    public ResponseEntity<?> deactivateUsers(@Valid @RequestBody DeactivateUsersRequest request) {
+        try {
+            AdminJobStatus job = adminJobService.startDeactivation(request.userIds(), requestedBy());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid user IDs", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Cannot start job", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error starting job", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recently started jobs, newest first
+     * GET /api/admin/jobs?limit=20
+     */
+    @Operation(summary = "List jobs", description = "Progress of recently started admin jobs")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/jobs")
+    public ResponseEntity<?> listJobs(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(adminJobService.recent(Math.max(1, Math.min(limit, 100))));
+    }
+
+    /**
+     * GET /api/admin/jobs/{jobId}
+     */
+    @Operation(summary = "Job progress", description = "State, counters and error of one admin job")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable long jobId) {
+        return adminJobService.get(jobId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Job not found")));
+    }
+
+    /**
+     * Stop a job before its next chunk
+     * POST /api/admin/jobs/{jobId}/cancel
+     */
+    @Operation(summary = "Cancel job", description = "Stop a running job; chunks already done stay done")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelJob(@PathVariable long jobId) {
+        Optional<AdminJobStatus> job = adminJobService.cancel(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Job not found"));
+        }
+        if (job.get().state() != AdminJobState.CANCELLED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("Job already finished", job.get().state().name()));
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    /**
+     * Continue a failed job, or one orphaned by a stopped replica, from its last chunk
+     * POST /api/admin/jobs/{jobId}/resume
+     */
+    @Operation(summary = "Resume job", description = "Continue a failed or orphaned job from its saved cursor")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable long jobId) {
+        try {
+            return adminJobService.resume(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Job not found")));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Job not resumable", e.getMessage()));
+        }
+    }
+
+    private String requestedBy() {
+        return jwtService.getCurrentCognitoUserDetails().map(CognitoUserDetails::getCognitoSub).orElse(null);
+    }
+}
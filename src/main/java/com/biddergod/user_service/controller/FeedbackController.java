@@ -0,0 +1,73 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.dto.FeedbackRequest;
+import com.biddergod.user_service.dto.FeedbackResponse;
+import com.biddergod.user_service.feedback.FeedbackIngestor;
+import com.biddergod.user_service.feedback.FeedbackSubmission;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/internal/feedback")
+@Tag(name = "Feedback", description = "Feedback buyers and sellers leave for each other after an auction, "
+        + "submitted by auction-service; requires the internal client scope")
+public class FeedbackController {
+
+    @Autowired
+    private FeedbackIngestor feedbackIngestor;
+
+    /**
+     * Record feedback one party of an auction left for the other
+     * POST /api/internal/feedback
+     * Requires: Authorization: Bearer <client-credentials token with the internal scope>
+     * Body: {"auctionId": 1, "raterId": 2, "ratedUserId": 3, "rating": "POSITIVE", "comment": "..."}
+     * Only auction-service knows an auction's buyer and seller, so users submit feedback
+     * through it and it forwards the pair it has checked. Answers 202 once queued;
+     * one feedback per auction and rater, repeats are ignored
+     */
+    @Operation(summary = "Record feedback", description = "Queue feedback between the two parties of an auction")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Feedback queued"),
+        @ApiResponse(responseCode = "400", description = "Invalid body or feedback for yourself"),
+        @ApiResponse(responseCode = "503", description = "Too much feedback queued, retry after the Retry-After delay")
+    })
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping
+    public ResponseEntity<?> submitFeedback(@Valid @RequestBody FeedbackRequest request) {
+        try {
+            if (request.raterId().equals(request.ratedUserId())) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Users cannot leave feedback for themselves"));
+            }
+
+            boolean queued = feedbackIngestor.submit(new FeedbackSubmission(
+                request.auctionId(),
+                request.raterId(),
+                request.ratedUserId(),
+                request.rating(),
+                request.comment(),
+                Instant.now()
+            ));
+            if (!queued) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse("Feedback queue is full", "Retry shortly"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(FeedbackResponse.accepted(request));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error submitting feedback", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.dto.ReputationResponse;
+import com.biddergod.user_service.dto.TokenResolutionRequest;
+import com.biddergod.user_service.reputation.ReputationStore;
+import com.biddergod.user_service.service.TokenResolutionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/internal")
+@Tag(name = "Internal", description = "Service-to-service endpoints, requires the internal client scope")
+public class InternalController {
+
+    @Autowired
+    private TokenResolutionService tokenResolutionService;
+
+    @Autowired
+    private ReputationStore reputationStore;
+
+    /**
+     * Verify tokens and resolve subs to local users in one call
+     * POST /api/internal/tokens/resolve
+     * Body: {"tokens": ["eyJ..."], "subs": ["..."]}
+     * Requires: Authorization: Bearer <client-credentials token with the internal scope>
+     */
+    @Operation(summary = "Resolve tokens", description = "Verify user tokens in parallel and return user ID, groups and expiry for each")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/tokens/resolve")
+    public ResponseEntity<?> resolveTokens(@RequestBody TokenResolutionRequest request) {
+        try {
+            return ResponseEntity.ok(tokenResolutionService.resolve(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid batch", e.getMessage()));
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorResponse("Request deadline exceeded", "Retry with a larger X-Request-Timeout"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error resolving tokens", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reputation scores for one or more users, served from memory
+     * GET /api/internal/reputation?id=1,2,3
+     * Called by auction-service on every bid; never queries the database
+     */
+    @Operation(summary = "Get reputation", description = "Reputation score and feedback counts per user, in request order")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/reputation")
+    public ResponseEntity<?> getReputation(@RequestParam List<Long> id) {
+        if (id == null || id.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("No user IDs provided"));
+        }
+        return ResponseEntity.ok(new ReputationResponse(
+            reputationStore.get(id), reputationStore.syncedAt(), !reputationStore.isFresh()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.dto.LeaderboardResponse;
+import com.biddergod.user_service.leaderboard.LeaderboardEntry;
+import com.biddergod.user_service.leaderboard.ReputationLeaderboard;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/users/leaderboard")
+@CrossOrigin(origins = "*")
+@Tag(name = "Leaderboard", description = "Users ranked by reputation score")
+public class LeaderboardController {
+
+    @Autowired
+    private ReputationLeaderboard leaderboard;
+
+    /**
+     * Top-rated users, one page at a time
+     * GET /api/users/leaderboard?page=0&size=20
+     * Served from memory; never queries the database
+     */
+    @Operation(summary = "Top-rated users", description = "Users ordered by reputation score, best first")
+    @GetMapping
+    public ResponseEntity<?> getLeaderboard(
+        @Parameter(description = "0-based page number")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Page size (capped by the server)")
+        @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Page must be >= 0 and size >= 1"));
+        }
+        int pageSize = Math.min(size, leaderboard.maxPageSize());
+        List<LeaderboardEntry> entries = leaderboard.page(page, pageSize);
+        return ResponseEntity.ok(new LeaderboardResponse(entries, page, pageSize, leaderboard.size()));
+    }
+
+    /**
+     * A user's position on the board
+     * GET /api/users/leaderboard/{userId}
+     */
+    @Operation(summary = "User rank", description = "Rank and score of one user")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rank found"),
+        @ApiResponse(responseCode = "404", description = "User has no reputation yet")
+    })
+    @GetMapping("/{userId}")
+    public ResponseEntity<?> getRank(@PathVariable Long userId) {
+        Optional<LeaderboardEntry> entry = leaderboard.rank(userId);
+        if (entry.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("User has no reputation yet"));
+        }
+        return ResponseEntity.ok(entry.get());
+    }
+}
@@ -1,5 +1,10 @@
 package com.biddergod.user_service.controller;
 
+import com.biddergod.user_service.dto.ServiceHealthResponse;
+import com.biddergod.user_service.health.DependencyHealthMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,17 +16,23 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class SystemController {
 
+    private static final String SERVICE_NAME = "users-service";
+
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
+
     /**
      * Health check endpoint
      * GET /api/health
+     * Reads the cached database check; 503 while the user store is down
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> healthStatus = new HashMap<>();
-        healthStatus.put("status", "OK");
-        healthStatus.put("service", "users-service");
-        healthStatus.put("timestamp", System.currentTimeMillis());
-        return ResponseEntity.ok(healthStatus);
+    public ResponseEntity<ServiceHealthResponse> health() {
+        if (Status.DOWN.equals(healthMonitor.database().getStatus())) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ServiceHealthResponse("UNAVAILABLE", SERVICE_NAME, System.currentTimeMillis()));
+        }
+        return ResponseEntity.ok(new ServiceHealthResponse("OK", SERVICE_NAME, System.currentTimeMillis()));
     }
 
     /**
@@ -31,7 +42,7 @@ public class SystemController {
     @GetMapping("/info")
     public ResponseEntity<Map<String, Object>> info() {
         Map<String, Object> serviceInfo = new HashMap<>();
-        serviceInfo.put("serviceName", "users-service");
+        serviceInfo.put("serviceName", SERVICE_NAME);
         serviceInfo.put("version", "1.0.0");
         serviceInfo.put("features", new String[]{"reputation-system", "feedback-tracking", "cognito-auth"});
         return ResponseEntity.ok(serviceInfo);
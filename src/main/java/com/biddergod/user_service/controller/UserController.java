@@ -1,8 +1,19 @@
 package com.biddergod.user_service.controller;
 
+import com.biddergod.user_service.dto.CurrentUserResponse;
+import com.biddergod.user_service.dto.ErrorResponse;
+import com.biddergod.user_service.dto.ProfileUpdateResponse;
+import com.biddergod.user_service.dto.TokenInfoResponse;
 import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.dto.UserProfilePatchRequest;
 import com.biddergod.user_service.dto.UserProfileUpdateRequest;
+import com.biddergod.user_service.dto.UserSearchResponse;
+import com.biddergod.user_service.dto.UsersByIdsResponse;
 import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.observability.ProfileUpdateEvent;
+import com.biddergod.user_service.replica.UserDirectoryReplica;
+import com.biddergod.user_service.resilience.UserResolutionUnavailableException;
+import com.biddergod.user_service.search.UserSearchService;
 import com.biddergod.user_service.security.CognitoUserDetails;
 import com.biddergod.user_service.service.IdTokenService;
 import com.biddergod.user_service.service.JwtService;
@@ -15,15 +26,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -40,6 +52,13 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserSearchService userSearchService;
+
+    // Only present when users.replica.enabled=true
+    @Autowired(required = false)
+    private UserDirectoryReplica userDirectoryReplica;
+
     /**
      * Get current user information with optional enhancement
      * GET /api/users/me?idToken=<optional_id_token>
@@ -69,7 +88,13 @@ public class UserController {
 
     private ResponseEntity<?> getUserInfo(String idToken) {
         try {
-            Optional<User> userOpt = jwtService.getCurrentUser();
+            Optional<User> userOpt;
+            try {
+                userOpt = jwtService.getCurrentUser();
+            } catch (UserResolutionUnavailableException e) {
+                // User store is slow or down: answer from the access token instead of timing out
+                return getDegradedUserInfo();
+            }
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("User not found or invalid token");
@@ -77,24 +102,22 @@ public class UserController {
 
             User user = userOpt.get();
 
-            // Build base response with user info
-            Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("id", user.getId());
-            userInfo.put("username", user.getUsername());
-            userInfo.put("email", user.getEmail());
-            userInfo.put("firstName", user.getFirstName());
-            userInfo.put("lastName", user.getLastName());
-
             // Add access token information
+            String cognitoSub = null;
+            String cognitoUsername = null;
+            List<String> groups = null;
             Optional<CognitoUserDetails> accessTokenDetails = jwtService.getCurrentCognitoUserDetails();
             if (accessTokenDetails.isPresent()) {
                 CognitoUserDetails details = accessTokenDetails.get();
-                userInfo.put("cognitoSub", details.getCognitoSub());
-                userInfo.put("cognitoUsername", details.getCognitoUsername());
-                userInfo.put("groups", jwtService.getUserGroups());
+                cognitoSub = details.getCognitoSub();
+                cognitoUsername = details.getCognitoUsername();
+                groups = jwtService.getUserGroups();
             }
 
             // If idToken is provided, add enhanced information
+            CurrentUserResponse.EnhancedProfile enhancedProfile = null;
+            Boolean profileUpdated = null;
+            String idTokenError = null;
             if (idToken != null && !idToken.trim().isEmpty()) {
                 Optional<CognitoUserDetails> idTokenDetails = idTokenService.parseIdToken(idToken);
 
@@ -102,14 +125,14 @@ public class UserController {
                     IdTokenService.UserProfile idProfile = idTokenService.extractUserProfile(idTokenDetails.get());
 
                     // Add enhanced ID token information
-                    Map<String, Object> enhancedInfo = new HashMap<>();
-                    enhancedInfo.put("email", idProfile.getEmail());
-                    enhancedInfo.put("email_verified", idProfile.getEmailVerified());
-                    enhancedInfo.put("given_name", idProfile.getGivenName());
-                    enhancedInfo.put("family_name", idProfile.getFamilyName());
-                    enhancedInfo.put("name", idProfile.getName());
-                    enhancedInfo.put("token_use", "id");
-                    userInfo.put("enhancedProfile", enhancedInfo);
+                    enhancedProfile = new CurrentUserResponse.EnhancedProfile(
+                        idProfile.getEmail(),
+                        idProfile.getEmailVerified(),
+                        idProfile.getGivenName(),
+                        idProfile.getFamilyName(),
+                        idProfile.getName(),
+                        "id"
+                    );
 
                     // Update user profile if ID token has better info
                     boolean updated = false;
@@ -127,24 +150,104 @@ public class UserController {
                     }
 
                     if (updated) {
-                        userInfo.put("profileUpdated", true);
-                        // Update the response with new values
-                        userInfo.put("firstName", user.getFirstName());
-                        userInfo.put("lastName", user.getLastName());
-                        userInfo.put("email", user.getEmail());
+                        profileUpdated = true;
                     }
                 } else {
-                    userInfo.put("idTokenError", "Invalid or malformed ID token");
+                    idTokenError = "Invalid or malformed ID token";
                 }
             }
 
-            return ResponseEntity.ok(userInfo);
+            // Built after any ID token updates so the response carries the new values
+            return ResponseEntity.ok(new CurrentUserResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                cognitoSub,
+                cognitoUsername,
+                groups,
+                enhancedProfile,
+                profileUpdated,
+                idTokenError,
+                null
+            ));
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error retrieving user information: " + e.getMessage());
         }
     }
 
+    /**
+     * Token-derived /me response used while user resolution is unavailable
+     * ID token enhancement is skipped since it would update the stored profile
+     */
+    private ResponseEntity<?> getDegradedUserInfo() {
+        Optional<CognitoUserDetails> accessTokenDetails = jwtService.getCurrentCognitoUserDetails();
+        if (accessTokenDetails.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("User not found or invalid token");
+        }
+
+        CognitoUserDetails details = accessTokenDetails.get();
+        return ResponseEntity.ok(CurrentUserResponse.fromToken(
+            details.getCognitoSub(),
+            details.getCognitoUsername(),
+            details.getEmail(),
+            details.getGroups()
+        ));
+    }
+
+    private ResponseEntity<?> userStoreUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .body("User store temporarily unavailable");
+    }
+
+    /**
+     * The request deadline passed while its queries were running
+     */
+    private ResponseEntity<?> deadlineExceeded() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+            .body(new ErrorResponse("Request deadline exceeded", "Retry with a larger X-Request-Timeout"));
+    }
+
+    private ResponseEntity<?> profileConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(new ErrorResponse("Profile was modified concurrently", "Reload the profile and retry with its ETag"));
+    }
+
+    /**
+     * Profile version as a strong ETag, e.g. "3"
+     */
+    private static String etag(User user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    /**
+     * @return the version named by If-Match, or null when absent or "*"
+     * @throws IllegalArgumentException if the header is not a version ETag
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be the profile ETag");
+        }
+    }
+
     /**
      * Get current user's profile (User entity only)
      * GET /api/users/profile
@@ -159,7 +262,13 @@ public class UserController {
                     .body("User not found or invalid token");
             }
 
-            return ResponseEntity.ok(userOpt.get());
+            return ResponseEntity.ok()
+                .eTag(etag(userOpt.get()))
+                .body(new UserDetailsResponse(userOpt.get()));
+        } catch (UserResolutionUnavailableException e) {
+            return userStoreUnavailable();
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error retrieving user profile: " + e.getMessage());
@@ -202,19 +311,17 @@ public class UserController {
             }
 
             CognitoUserDetails details = cognitoDetails.get();
-            Map<String, Object> tokenInfo = new HashMap<>();
-            tokenInfo.put("subject", details.getCognitoSub());
-            tokenInfo.put("username", details.getCognitoUsername());
-            tokenInfo.put("email", details.getEmail());
-            tokenInfo.put("groups", jwtService.getUserGroups());
-
-            // Add some common JWT claims
-            tokenInfo.put("issuer", details.getClaim("iss"));
-            tokenInfo.put("audience", details.getClaim("aud"));
-            tokenInfo.put("tokenUse", details.getClaim("token_use"));
-            tokenInfo.put("clientId", details.getClaim("client_id"));
-
-            return ResponseEntity.ok(tokenInfo);
+            return ResponseEntity.ok(new TokenInfoResponse(
+                details.getCognitoSub(),
+                details.getCognitoUsername(),
+                details.getEmail(),
+                details.getGroups(),
+                // Add some common JWT claims
+                details.getClaim("iss"),
+                details.getClaim("aud"),
+                details.getClaim("token_use"),
+                details.getClaim("client_id")
+            ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error retrieving token information: " + e.getMessage());
@@ -226,10 +333,17 @@ public class UserController {
      * PUT /api/users/profile
      * Requires: Authorization: Bearer <cognito_access_token>
      * Required: ID token in request body for profile update
+     * Optional: If-Match: <ETag from GET /api/users/profile>
      */
     @PutMapping("/profile")
-    public ResponseEntity<?> updateUserProfile(@RequestBody UserProfileUpdateRequest request) {
+    public ResponseEntity<?> updateUserProfile(
+        @RequestBody UserProfileUpdateRequest request,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProfileUpdateEvent event = new ProfileUpdateEvent();
+        event.begin();
         try {
+            Long expectedVersion = parseIfMatch(ifMatch);
+
             // Get user from access token (authorization)
             Optional<User> userOpt = jwtService.getCurrentUser();
             if (userOpt.isEmpty()) {
@@ -238,6 +352,9 @@ public class UserController {
             }
 
             User user = userOpt.get();
+            if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                return profileConflict();
+            }
 
             // Parse ID token for enhanced profile data
             if (request.getIdToken() != null) {
@@ -271,17 +388,81 @@ public class UserController {
 
             // Save updated user to database
             User savedUser = userService.save(user);
-
-            return ResponseEntity.ok(Map.of(
-                "message", "Profile updated successfully",
-                "user", savedUser
-            ));
+            event.userId = savedUser.getId();
+            event.withIdToken = request.getIdToken() != null;
+            event.commit();
+
+            return ResponseEntity.ok()
+                .eTag(etag(savedUser))
+                .body(new ProfileUpdateResponse(
+                    "Profile updated successfully",
+                    new UserDetailsResponse(savedUser)
+                ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid If-Match header", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return profileConflict();
+        } catch (UserResolutionUnavailableException e) {
+            return userStoreUnavailable();
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error updating user profile: " + e.getMessage());
         }
     }
 
+    /**
+     * Change only the given profile fields
+     * PATCH /api/users/profile
+     * Requires: Authorization: Bearer <cognito_access_token>
+     * Optional: If-Match: <ETag from GET /api/users/profile>
+     * Body: {"firstName": "Ann"} - omitted fields are unchanged, "" clears a field
+     */
+    @Operation(summary = "Patch current user profile", description = "Update only the given fields; 409 if the profile changed since the If-Match ETag")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Profile patched (or already up to date)"),
+        @ApiResponse(responseCode = "400", description = "Invalid body or If-Match header"),
+        @ApiResponse(responseCode = "409", description = "Profile was modified concurrently")
+    })
+    @SecurityRequirement(name = "bearer-jwt")
+    @PatchMapping("/profile")
+    public ResponseEntity<?> patchUserProfile(
+        @Valid @RequestBody UserProfilePatchRequest request,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Long expectedVersion = parseIfMatch(ifMatch);
+
+            Optional<Long> userId = jwtService.getCurrentUserId();
+            if (userId.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("User not found or invalid access token");
+            }
+
+            Optional<User> patched = userService.patchProfile(userId.get(), expectedVersion, request);
+            if (patched.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("User not found"));
+            }
+            return ResponseEntity.ok()
+                .eTag(etag(patched.get()))
+                .body(new ProfileUpdateResponse(
+                    "Profile updated successfully",
+                    new UserDetailsResponse(patched.get())
+                ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Invalid If-Match header", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return profileConflict();
+        } catch (UserResolutionUnavailableException e) {
+            return userStoreUnavailable();
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error patching user profile: " + e.getMessage());
+        }
+    }
+
     // ========== Public user apis for payment service ==========
 
     /**
@@ -300,24 +481,54 @@ public class UserController {
     public ResponseEntity<?> getUsersByIds(@RequestParam List<Long> id) {
         try {
             if (id == null || id.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "No user IDs provided"));
+                return ResponseEntity.badRequest().body(new ErrorResponse("No user IDs provided"));
             }
 
-            List<UserDetailsResponse> users = id.stream()
-                .map(userService::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+            List<UserDetailsResponse> users = userDirectoryReplica != null && userDirectoryReplica.isReady()
+                ? userDirectoryReplica.findByIds(id)
+                : userService.findByIds(id).stream()
+                    .map(UserDetailsResponse::new)
+                    .toList();
+
+            return ResponseEntity.ok(new UsersByIdsResponse(users, users.size(), id.size()));
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Error retrieving users", e.getMessage()));
+        }
+    }
+
+    /**
+     * Search users by partial name, username prefix or email
+     * GET /api/users/search?q=jo&limit=20
+     * Used by support tools and auction-service
+     */
+    @Operation(summary = "Search users", description = "Ranked search by partial name, username prefix or email")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search results, best match first"),
+        @ApiResponse(responseCode = "400", description = "Query too short"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(
+        @Parameter(description = "Search text (at least 2 characters)")
+        @RequestParam String q,
+        @Parameter(description = "Maximum number of results (capped by the server)")
+        @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<UserDetailsResponse> users = userSearchService.search(q, limit).stream()
                 .map(UserDetailsResponse::new)
                 .toList();
 
-            return ResponseEntity.ok(Map.of(
-                "users", users,
-                "found", users.size(),
-                "requested", id.size()
-            ));
+            return ResponseEntity.ok(new UserSearchResponse(q, users, users.size()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            return deadlineExceeded();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("error", "Error retrieving users", "message", e.getMessage()));
+                .body(new ErrorResponse("Error searching users", e.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.biddergod.user_service.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+
+/**
+ * Caps every transaction's timeout at the time left before the request deadline
+ * The capped timeout reaches Hibernate's transaction (every statement it prepares gets
+ * the remaining time as its query timeout) and the JDBC connection holder used by
+ * JdbcTemplate, and statements are refused once it has elapsed.
+ * JDBC timeouts have second granularity, so the remaining time is rounded up.
+ * A transaction that would start after the deadline fails straight away.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        int timeout = determineTimeout(definition);
+        if (timeout == definition.getTimeout()) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+        // HibernateJpaDialect reads the timeout from the definition itself
+        super.doBegin(transaction, new DelegatingTransactionDefinition(definition) {
+            @Override
+            public int getTimeout() {
+                return timeout;
+            }
+        });
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        long remainingMillis = deadline.remainingMillis();
+        if (remainingMillis <= 0) {
+            throw deadline.exceeded();
+        }
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
@@ -0,0 +1,15 @@
+package com.biddergod.user_service.deadline;
+
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * The request's deadline passed before its work finished
+ * A TransactionTimedOutException, so it is handled like Spring's own
+ * "transaction timed out" short-circuit on the next statement
+ */
+public class DeadlineExceededException extends TransactionTimedOutException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,81 @@
+package com.biddergod.user_service.deadline;
+
+import com.biddergod.user_service.config.DeadlineConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Binds a RequestDeadline to the request
+ * The budget is the caller's X-Request-Timeout (milliseconds, capped at max-timeout),
+ * else the first users.deadline.endpoints pattern matching the path, else
+ * default-timeout. A caller with no time left gets 504 without any work being done.
+ * Requests that finish past their deadline are counted by endpoint.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineConfig config;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public DeadlineFilter(DeadlineConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long timeoutMillis = timeoutMillis(request);
+        if (timeoutMillis <= 0) {
+            exceeded(request);
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline already passed");
+            return;
+        }
+
+        RequestDeadline deadline = RequestDeadline.begin(timeoutMillis);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.end();
+            if (deadline.isExpired()) {
+                exceeded(request);
+            }
+        }
+    }
+
+    long timeoutMillis(HttpServletRequest request) {
+        String header = request.getHeader(config.getHeader());
+        if (header != null) {
+            try {
+                return Math.min(Long.parseLong(header.trim()), config.getMaxTimeout().toMillis());
+            } catch (NumberFormatException e) {
+                // Fall through to the endpoint default
+            }
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Duration> endpoint : config.getEndpoints().entrySet()) {
+            if (pathMatcher.match(endpoint.getKey(), path)) {
+                return endpoint.getValue().toMillis();
+            }
+        }
+        return config.getDefaultTimeout().toMillis();
+    }
+
+    private void exceeded(HttpServletRequest request) {
+        // The handler's pattern keeps the tag bounded; unmatched paths share one value
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "unmatched");
+        meterRegistry.counter("users.deadline.exceeded", "endpoint", endpoint).increment();
+    }
+}
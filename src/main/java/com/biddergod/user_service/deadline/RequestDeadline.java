@@ -0,0 +1,82 @@
+package com.biddergod.user_service.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * Point in time after which nobody is waiting for the current request any more
+ * Bound to the request thread by DeadlineFilter and carried onto worker threads
+ * with supplyWith; transactions started under it get the remaining time as their
+ * timeout, so every JDBC statement is cancelled once the caller has given up.
+ * Code outside a request (scheduled jobs, startup) runs without a deadline.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final long timeoutMillis;
+
+    RequestDeadline(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000;
+    }
+
+    /**
+     * Deadline of the request running on this thread, or null outside a request
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    static RequestDeadline begin(long timeoutMillis) {
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run a call on another thread under the given request's deadline
+     * (the request thread is blocked waiting for the result)
+     */
+    public static <T> T supplyWith(RequestDeadline deadline, Supplier<T> call) {
+        if (deadline == null) {
+            return call.get();
+        }
+        CURRENT.set(deadline);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @throws DeadlineExceededException if the current request's deadline has passed
+     */
+    public static void check() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadline.exceeded();
+        }
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return remainingNanos() / 1_000_000;
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("Request deadline of " + timeoutMillis + " ms exceeded");
+    }
+}
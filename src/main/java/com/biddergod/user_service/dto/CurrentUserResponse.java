@@ -0,0 +1,47 @@
+package com.biddergod.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response for GET/POST /api/users/me
+ * Token-derived and ID-token sections are omitted when not available.
+ * degraded=true marks a profile built from token claims only (user store unavailable, id is null)
+ */
+public record CurrentUserResponse(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String cognitoSub,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String cognitoUsername,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<String> groups,
+        @JsonInclude(JsonInclude.Include.NON_NULL) EnhancedProfile enhancedProfile,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean profileUpdated,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String idTokenError,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean degraded) {
+
+    /**
+     * Profile derived from access token claims when the local user row can't be read
+     */
+    public static CurrentUserResponse fromToken(String cognitoSub, String cognitoUsername,
+                                                String email, List<String> groups) {
+        return new CurrentUserResponse(null, cognitoSub, email, null, null,
+                cognitoSub, cognitoUsername, groups, null, null, null, true);
+    }
+
+    /**
+     * Profile information taken from a verified ID token
+     */
+    public record EnhancedProfile(
+            String email,
+            @JsonProperty("email_verified") Object emailVerified,
+            @JsonProperty("given_name") Object givenName,
+            @JsonProperty("family_name") Object familyName,
+            Object name,
+            @JsonProperty("token_use") String tokenUse) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.biddergod.user_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Body for POST /api/admin/jobs/deactivate-users
+ */
+public record DeactivateUsersRequest(@NotEmpty List<Long> userIds) {
+}
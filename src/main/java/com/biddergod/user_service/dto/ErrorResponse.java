@@ -0,0 +1,15 @@
+package com.biddergod.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Error body for JSON endpoints
+ */
+public record ErrorResponse(
+        String error,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String message) {
+
+    public ErrorResponse(String error) {
+        this(error, null);
+    }
+}
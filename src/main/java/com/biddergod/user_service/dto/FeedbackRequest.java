@@ -0,0 +1,18 @@
+package com.biddergod.user_service.dto;
+
+import com.biddergod.user_service.feedback.FeedbackRating;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body for POST /api/internal/feedback
+ * Sent by auction-service, which has checked that rater and rated user are the
+ * auction's two parties; resubmitting for the same auction and rater is accepted and ignored
+ */
+public record FeedbackRequest(
+        @NotNull Long auctionId,
+        @NotNull Long raterId,
+        @NotNull Long ratedUserId,
+        @NotNull FeedbackRating rating,
+        @Size(max = 500) String comment) {
+}
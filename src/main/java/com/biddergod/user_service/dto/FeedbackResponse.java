@@ -0,0 +1,15 @@
+package com.biddergod.user_service.dto;
+
+/**
+ * Response for POST /api/internal/feedback
+ * Accepted feedback is written asynchronously, usually within a second
+ */
+public record FeedbackResponse(
+        Long auctionId,
+        Long ratedUserId,
+        String status) {
+
+    public static FeedbackResponse accepted(FeedbackRequest request) {
+        return new FeedbackResponse(request.auctionId(), request.ratedUserId(), "ACCEPTED");
+    }
+}
@@ -0,0 +1,16 @@
+package com.biddergod.user_service.dto;
+
+import com.biddergod.user_service.leaderboard.LeaderboardEntry;
+
+import java.util.List;
+
+/**
+ * Response for GET /api/users/leaderboard
+ * total counts every user with a reputation, for computing the number of pages
+ */
+public record LeaderboardResponse(
+        List<LeaderboardEntry> entries,
+        int page,
+        int size,
+        long total) {
+}
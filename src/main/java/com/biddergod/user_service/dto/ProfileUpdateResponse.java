@@ -0,0 +1,9 @@
+package com.biddergod.user_service.dto;
+
+/**
+ * Response for PUT and PATCH /api/users/profile
+ */
+public record ProfileUpdateResponse(
+        String message,
+        UserDetailsResponse user) {
+}
@@ -0,0 +1,16 @@
+package com.biddergod.user_service.dto;
+
+import com.biddergod.user_service.reputation.Reputation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response for GET /api/internal/reputation
+ * stale is true when this replica hasn't synced with the others within users.reputation.max-staleness
+ */
+public record ReputationResponse(
+        List<Reputation> reputations,
+        Instant syncedAt,
+        boolean stale) {
+}
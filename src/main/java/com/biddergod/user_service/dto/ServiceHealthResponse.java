@@ -0,0 +1,10 @@
+package com.biddergod.user_service.dto;
+
+/**
+ * Body of GET /api/health
+ */
+public record ServiceHealthResponse(
+        String status,
+        String service,
+        long timestamp) {
+}
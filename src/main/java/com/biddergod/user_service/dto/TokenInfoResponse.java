@@ -0,0 +1,17 @@
+package com.biddergod.user_service.dto;
+
+import java.util.List;
+
+/**
+ * Response for GET /api/users/token-info
+ */
+public record TokenInfoResponse(
+        String subject,
+        String username,
+        String email,
+        List<String> groups,
+        Object issuer,
+        Object audience,
+        Object tokenUse,
+        Object clientId) {
+}
@@ -0,0 +1,15 @@
+package com.biddergod.user_service.dto;
+
+import java.util.List;
+
+/**
+ * Request for POST /api/internal/tokens/resolve
+ * Results are indexed tokens first, then subs
+ *
+ * @param tokens raw access or ID tokens to verify and resolve
+ * @param subs Cognito subs to resolve without a token (never provisioned)
+ */
+public record TokenResolutionRequest(
+        List<String> tokens,
+        List<String> subs) {
+}
@@ -0,0 +1,35 @@
+package com.biddergod.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response for POST /api/internal/tokens/resolve
+ * Tokens are never echoed back; callers match results by index
+ */
+public record TokenResolutionResponse(
+        List<Result> results,
+        int resolved,
+        int requested) {
+
+    public enum Status {
+        RESOLVED,
+        UNKNOWN_USER,
+        DEACTIVATED,
+        INVALID_TOKEN,
+        UNAVAILABLE
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(
+            int index,
+            Status status,
+            String sub,
+            Long userId,
+            List<String> groups,
+            Instant expiresAt,
+            String error) {
+    }
+}
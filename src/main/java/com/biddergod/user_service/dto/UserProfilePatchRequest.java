@@ -0,0 +1,12 @@
+package com.biddergod.user_service.dto;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body for PATCH /api/users/profile
+ * Omitted (null) fields are left unchanged; an empty string clears the field
+ */
+public record UserProfilePatchRequest(
+        @Size(max = 100) String firstName,
+        @Size(max = 100) String lastName) {
+}
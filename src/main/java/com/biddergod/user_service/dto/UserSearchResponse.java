@@ -0,0 +1,12 @@
+package com.biddergod.user_service.dto;
+
+import java.util.List;
+
+/**
+ * Response for GET /api/users/search
+ */
+public record UserSearchResponse(
+        String query,
+        List<UserDetailsResponse> users,
+        int count) {
+}
@@ -0,0 +1,12 @@
+package com.biddergod.user_service.dto;
+
+import java.util.List;
+
+/**
+ * Response for GET /api/users?id=...
+ */
+public record UsersByIdsResponse(
+        List<UserDetailsResponse> users,
+        int found,
+        int requested) {
+}
@@ -0,0 +1,114 @@
+package com.biddergod.user_service.entity;
+
+import com.biddergod.user_service.job.AdminJobState;
+import com.biddergod.user_service.job.AdminJobType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk admin job and how far it got
+ * The cursor is saved after every chunk, so a job interrupted by a restart resumes
+ * where it stopped. Written by AdminJobService through JDBC, never through the entity;
+ * mapped so the schema is generated alongside users. Always on the default data source.
+ */
+@Entity
+@Table(name = "admin_jobs")
+public class AdminJob {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AdminJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AdminJobState state;
+
+    // Purge: only users created (and last seen) before this
+    private LocalDateTime cutoff;
+
+    // Deactivation: sorted, comma-separated target IDs
+    @Column(name = "user_ids", length = 1_000_000)
+    private String userIds;
+
+    // Index into the active shards, and last user ID (purge) or list position (deactivation) done there
+    @Column(nullable = false)
+    private int cursorShard;
+
+    @Column(nullable = false)
+    private long cursorPosition;
+
+    private Long total;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long affected;
+
+    @Column(length = 50)
+    private String requestedBy;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public AdminJob() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public AdminJobType getType() { return type; }
+    public void setType(AdminJobType type) { this.type = type; }
+
+    public AdminJobState getState() { return state; }
+    public void setState(AdminJobState state) { this.state = state; }
+
+    public LocalDateTime getCutoff() { return cutoff; }
+    public void setCutoff(LocalDateTime cutoff) { this.cutoff = cutoff; }
+
+    public String getUserIds() { return userIds; }
+    public void setUserIds(String userIds) { this.userIds = userIds; }
+
+    public int getCursorShard() { return cursorShard; }
+    public void setCursorShard(int cursorShard) { this.cursorShard = cursorShard; }
+
+    public long getCursorPosition() { return cursorPosition; }
+    public void setCursorPosition(long cursorPosition) { this.cursorPosition = cursorPosition; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public long getProcessed() { return processed; }
+    public void setProcessed(long processed) { this.processed = processed; }
+
+    public long getAffected() { return affected; }
+    public void setAffected(long affected) { this.affected = affected; }
+
+    public String getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(String requestedBy) { this.requestedBy = requestedBy; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,86 @@
+package com.biddergod.user_service.entity;
+
+import com.biddergod.user_service.feedback.FeedbackRating;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Feedback one auction party left for the other
+ * Keyed by (auction, rater) so a resubmission can never create a second row.
+ * Written in batches by FeedbackIngestor through JDBC, never through the entity;
+ * mapped so the schema is generated alongside users
+ */
+@Entity
+@Table(name = "feedback", indexes = @Index(name = "idx_feedback_rated_user_id", columnList = "rated_user_id"))
+@IdClass(Feedback.Key.class)
+public class Feedback {
+
+    @Id
+    @Column(name = "auction_id")
+    private Long auctionId;
+
+    @Id
+    @Column(name = "rater_id")
+    private Long raterId;
+
+    @Column(name = "rated_user_id", nullable = false)
+    private Long ratedUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private FeedbackRating rating;
+
+    @Size(max = 500)
+    private String comment;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public static class Key implements Serializable {
+        private Long auctionId;
+        private Long raterId;
+
+        public Key() {}
+
+        public Key(Long auctionId, Long raterId) {
+            this.auctionId = auctionId;
+            this.raterId = raterId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(auctionId, key.auctionId) && Objects.equals(raterId, key.raterId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(auctionId, raterId);
+        }
+    }
+
+    // Constructors
+    public Feedback() {}
+
+    // Getters and Setters
+    public Long getAuctionId() { return auctionId; }
+    public void setAuctionId(Long auctionId) { this.auctionId = auctionId; }
+
+    public Long getRaterId() { return raterId; }
+    public void setRaterId(Long raterId) { this.raterId = raterId; }
+
+    public Long getRatedUserId() { return ratedUserId; }
+    public void setRatedUserId(Long ratedUserId) { this.ratedUserId = ratedUserId; }
+
+    public FeedbackRating getRating() { return rating; }
+    public void setRating(FeedbackRating rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
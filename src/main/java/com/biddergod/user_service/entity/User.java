@@ -1,24 +1,40 @@
 package com.biddergod.user_service.entity;
 
+import com.biddergod.user_service.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+/**
+ * UPDATEs only write the columns that changed and are guarded by the version,
+ * so concurrent profile edits conflict instead of overwriting each other.
+ * Rows and sub -> id resolutions are kept in the second-level cache.
+ */
 @Entity
 @Table(name = "users")
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
+    // Cognito sub; mutable because email matches re-key legacy rows to the sub
+    @NaturalId(mutable = true)
     @NotBlank
     @Size(max = 50)
     private String username;
@@ -40,6 +56,18 @@ public class User {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Written in batches by LastSeenTracker, not through the entity
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastSeenAt;
+
+    // Set in bulk by the deactivation job; deactivated users no longer resolve from their token
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deactivatedAt;
+
+    // Bumped on every entity write; exposed to clients as the profile ETag
+    @Version
+    private Long version;
+
     // Constructors
     public User() {}
 
@@ -69,4 +97,13 @@ public class User {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getLastSeenAt() { return lastSeenAt; }
+    public void setLastSeenAt(LocalDateTime lastSeenAt) { this.lastSeenAt = lastSeenAt; }
+
+    public LocalDateTime getDeactivatedAt() { return deactivatedAt; }
+    public void setDeactivatedAt(LocalDateTime deactivatedAt) { this.deactivatedAt = deactivatedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.biddergod.user_service.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted reputation totals, one row per user with any feedback
+ * Written in batches by ReputationStore through JDBC, never through the entity;
+ * mapped so the schema is generated alongside users
+ */
+@Entity
+@Table(name = "user_reputation", indexes = @Index(name = "idx_user_reputation_updated_at", columnList = "updated_at"))
+public class UserReputation {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long score;
+
+    @Column(nullable = false)
+    private long positiveCount;
+
+    @Column(nullable = false)
+    private long negativeCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserReputation() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public long getScore() { return score; }
+    public void setScore(long score) { this.score = score; }
+
+    public long getPositiveCount() { return positiveCount; }
+    public void setPositiveCount(long positiveCount) { this.positiveCount = positiveCount; }
+
+    public long getNegativeCount() { return negativeCount; }
+    public void setNegativeCount(long negativeCount) { this.negativeCount = negativeCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
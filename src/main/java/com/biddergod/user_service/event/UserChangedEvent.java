@@ -0,0 +1,29 @@
+package com.biddergod.user_service.event;
+
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserSummary;
+
+/**
+ * Published whenever a user row is written or deleted locally
+ * Listeners that keep in-process copies of user data should use
+ * {@code @TransactionalEventListener} so they only see committed changes
+ *
+ * @param kind what happened to the row
+ * @param userId the affected user ID
+ * @param user the state after the write, null for deletes
+ */
+public record UserChangedEvent(Kind kind, Long userId, UserSummary user) {
+
+    public enum Kind {
+        SAVED,
+        DELETED
+    }
+
+    public static UserChangedEvent saved(User user) {
+        return new UserChangedEvent(Kind.SAVED, user.getId(), UserSummary.of(user));
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Kind.DELETED, userId, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.biddergod.user_service.existence;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings
+ * Sized from the expected number of keys and the target false-positive rate
+ * (m = -n ln p / ln2^2 bits, k = m/n ln2 probes); 1% costs about 9.6 bits per key.
+ * Probes use double hashing over two independent 64-bit hashes of the key.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int probes;
+
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        long keys = Math.max(expectedKeys, 1);
+        long bits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / keys * LN2));
+    }
+
+    public void add(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @return false if the key was definitely never added
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int probes() {
+        return probes;
+    }
+
+    private static long hash(String key, long seed) {
+        long h = seed ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        // murmur3 fmix64 spreads FNV's weak low bits
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,210 @@
+package com.biddergod.user_service.existence;
+
+import com.biddergod.user_service.config.ExistenceFilterConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.invalidation.UserInvalidationListener;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over usernames and normalized emails, checked before the
+ * existsByUsername / existsByEmail queries so that "no" rarely costs a round trip
+ * Seeded by streaming the table once the application is ready, fed from local
+ * UserChangedEvents and remote invalidations, and rebuilt larger once the table
+ * outgrows it. Old values of updated users stay in the filter (only ever a false
+ * positive). Until the first build completes every probe goes to the database.
+ * Rows inserted by another replica are seen once its invalidation arrives; if the
+ * bus reports invalidations missed, probes go to the database again until the next
+ * rebuild, and the filter is rebuilt at least every users.existence-filter.max-age.
+ */
+@Component
+@ConditionalOnProperty(name = "users.existence-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class UserExistenceFilter implements UserInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    @Autowired
+    private ExistenceFilterConfig config;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // capacity: users the filters were sized for; added: users added since (re-saves count again);
+    // missedBefore: missed-invalidation reports seen when the build started
+    private record Filters(BloomFilter usernames, BloomFilter emails, long capacity, AtomicLong added,
+                           long builtAtNanos, long missedBefore) {
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(normalizeEmail(email));
+            }
+            added.incrementAndGet();
+        }
+    }
+
+    private volatile Filters filters;
+    // Set while a rebuild streams the table, so concurrent writes land in both
+    private volatile Filters building;
+    // Bumped when invalidations were missed: a "no" from older filters can't be trusted
+    private final AtomicLong missed = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("users.existence.filter.bits", this, f -> f.filters == null ? 0
+                        : f.filters.usernames().bitCount() + f.filters.emails().bitCount())
+                .description("Bits held by the username and email Bloom filters")
+                .register(meterRegistry);
+        Gauge.builder("users.existence.filter.keys", this, f -> f.filters == null ? 0 : f.filters.added().get())
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        Filters current = filters;
+        return current != null && !isStale(current);
+    }
+
+    /**
+     * @return false only if no user has this username
+     */
+    public boolean mightExistByUsername(String username) {
+        Filters current = filters;
+        if (current == null || isStale(current) || username == null) {
+            return true;
+        }
+        return probed("username", current.usernames().mightContain(username));
+    }
+
+    /**
+     * @return false only if no user has this email (compared case-insensitively)
+     */
+    public boolean mightExistByEmail(String email) {
+        Filters current = filters;
+        if (current == null || isStale(current) || email == null) {
+            return true;
+        }
+        return probed("email", current.emails().mightContain(normalizeEmail(email)));
+    }
+
+    /**
+     * The filter said maybe, the database said no
+     */
+    public void recordFalsePositive(String kind) {
+        meterRegistry.counter("users.existence.filter", "kind", kind, "result", "false_positive").increment();
+    }
+
+    /**
+     * Build fresh filters from the users table and swap them in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Filters previous = filters;
+        long known = previous == null ? 0 : previous.added().get();
+        long capacity = Math.max(config.getExpectedUsers(), (long) (known * config.getGrowthFactor()));
+        Filters next = new Filters(
+                new BloomFilter(capacity, config.getFalsePositiveRate()),
+                new BloomFilter(capacity, config.getFalsePositiveRate()),
+                capacity, new AtomicLong(), System.nanoTime(), missed.get());
+
+        building = next;
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+                    users.forEach(user -> next.add(user.username(), user.email()));
+                }
+            });
+            filters = next;
+        } finally {
+            building = null;
+        }
+        log.info("User existence filter built for {} users ({} KiB, {} probes) in {} ms",
+                next.added().get(), (next.usernames().bitCount() + next.emails().bitCount()) / 8192,
+                next.usernames().probes(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${users.existence-filter.rebuild-check-interval:PT1M}")
+    public void rebuildIfNeeded() {
+        Filters current = filters;
+        if (current != null && (isStale(current) || current.added().get() > current.capacity()
+                || System.nanoTime() - current.builtAtNanos() > config.getMaxAge().toNanos())) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Deletes can't be removed from a Bloom filter; they stay as false positives until the next rebuild
+        if (event.kind() == UserChangedEvent.Kind.SAVED && event.user() != null) {
+            add(event.user().username(), event.user().email());
+        }
+    }
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        for (User user : userRepository.findAllById(userIds)) {
+            add(user.getUsername(), user.getEmail());
+        }
+    }
+
+    @Override
+    public void onInvalidationsMissed() {
+        // Rebuilt by the next check; streaming the table here would hold up the bus
+        missed.incrementAndGet();
+    }
+
+    private boolean isStale(Filters current) {
+        return missed.get() != current.missedBefore();
+    }
+
+    private void add(String username, String email) {
+        Filters pending = building;
+        if (pending != null) {
+            pending.add(username, email);
+        }
+        Filters current = filters;
+        if (current != null && current != pending) {
+            current.add(username, email);
+        }
+    }
+
+    private boolean probed(String kind, boolean mightContain) {
+        meterRegistry.counter("users.existence.filter", "kind", kind,
+                "result", mightContain ? "maybe" : "absent").increment();
+        return mightContain;
+    }
+
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,251 @@
+package com.biddergod.user_service.feedback;
+
+import com.biddergod.user_service.config.FeedbackConfig;
+import com.biddergod.user_service.reputation.Reputation;
+import com.biddergod.user_service.reputation.ReputationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue plus a single batching writer for auction feedback
+ * Request threads only offer to the queue; when it is full submit() returns false
+ * and the API answers 503, so bursts at auction end push back on clients instead
+ * of piling up in memory. The writer drains up to max-batch-size submissions per
+ * transaction, drops duplicates of the (auction, rater) key within the batch and
+ * against the table, and inserts the rest with multi-row INSERTs. The rated users'
+ * user_reputation rows are updated in the same transaction for the rows actually
+ * inserted, so retries and resubmissions never count twice and a crash loses neither
+ * without the other; the in-memory scores are re-read after the commit.
+ * The table is not sharded: rows live on the default data source.
+ */
+@Component
+public class FeedbackIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackIngestor.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO feedback (auction_id, rater_id, rated_user_id, rating, comment, created_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String EXISTING_PREFIX =
+            "SELECT auction_id, rater_id FROM feedback WHERE (auction_id, rater_id) IN (";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReputationStore reputationStore;
+
+    @Autowired
+    private FeedbackConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<FeedbackSubmission> queue;
+    private Thread writer;
+    private volatile boolean stopping;
+
+    private Counter accepted;
+    private Counter rejected;
+    private Counter duplicates;
+    private Counter written;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        accepted = Counter.builder("users.feedback.accepted")
+                .description("Feedback submissions queued")
+                .register(meterRegistry);
+        rejected = Counter.builder("users.feedback.rejected")
+                .description("Feedback submissions refused because the queue was full")
+                .register(meterRegistry);
+        duplicates = Counter.builder("users.feedback.duplicates")
+                .description("Submissions dropped because the auction/rater pair already had feedback")
+                .register(meterRegistry);
+        written = Counter.builder("users.feedback.written")
+                .description("Feedback rows inserted")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("users.feedback.batch")
+                .description("Duration of one feedback write transaction")
+                .register(meterRegistry);
+        Gauge.builder("users.feedback.queue", this, FeedbackIngestor::queueSize)
+                .description("Feedback submissions waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submissions queue up from the start; writing begins once the context is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer = new Thread(this::drain, "feedback-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop taking submissions and write out whatever is still queued
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Queue feedback for writing. Never blocks.
+     * @return false if the queue is full and the caller should retry later
+     */
+    public boolean submit(FeedbackSubmission submission) {
+        if (!stopping && queue.offer(submission)) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        List<FeedbackSubmission> batch = new ArrayList<>(config.getMaxBatchSize());
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                FeedbackSubmission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, config.getMaxBatchSize() - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Retrying blocks the writer, the queue fills up and the API sheds load until the database recovers
+     */
+    private void writeWithRetry(List<FeedbackSubmission> batch) throws InterruptedException {
+        while (true) {
+            try {
+                batchTimer.record(() -> write(batch));
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another replica inserted one of the keys after we checked; the re-check filters it out
+                log.debug("Feedback batch raced with another writer, retrying");
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    log.error("Dropping {} feedback submissions on shutdown: {}", batch.size(), e.getMessage());
+                    return;
+                }
+                log.warn("Failed to write {} feedback submissions, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(config.getRetryBackoff().toMillis());
+            }
+        }
+    }
+
+    void write(List<FeedbackSubmission> batch) {
+        Map<FeedbackSubmission.Key, FeedbackSubmission> unique = new LinkedHashMap<>(batch.size() * 2);
+        for (FeedbackSubmission submission : batch) {
+            unique.putIfAbsent(submission.key(), submission);
+        }
+
+        List<FeedbackSubmission> inserted = new TransactionTemplate(transactionManager).execute(status -> {
+            removeExisting(unique);
+            List<FeedbackSubmission> rows = new ArrayList<>(unique.values());
+            for (int from = 0; from < rows.size(); from += config.getRowsPerStatement()) {
+                insert(rows.subList(from, Math.min(rows.size(), from + config.getRowsPerStatement())));
+            }
+            reputationStore.addInTransaction(reputationDeltas(rows));
+            return rows;
+        });
+
+        reputationStore.reload(inserted.stream().map(FeedbackSubmission::ratedUserId).distinct().toList());
+        duplicates.increment(batch.size() - inserted.size());
+        written.increment(inserted.size());
+    }
+
+    private static Collection<Reputation> reputationDeltas(List<FeedbackSubmission> rows) {
+        Map<Long, Reputation> deltas = new HashMap<>();
+        for (FeedbackSubmission row : rows) {
+            long points = row.rating().getPoints();
+            deltas.merge(row.ratedUserId(),
+                    new Reputation(row.ratedUserId(), points, points > 0 ? 1 : 0, points < 0 ? 1 : 0),
+                    (a, b) -> new Reputation(a.userId(), a.score() + b.score(),
+                            a.positiveCount() + b.positiveCount(), a.negativeCount() + b.negativeCount()));
+        }
+        return deltas.values();
+    }
+
+    private void removeExisting(Map<FeedbackSubmission.Key, FeedbackSubmission> unique) {
+        List<FeedbackSubmission.Key> keys = new ArrayList<>(unique.keySet());
+        for (int from = 0; from < keys.size(); from += config.getRowsPerStatement()) {
+            List<FeedbackSubmission.Key> chunk = keys.subList(from, Math.min(keys.size(), from + config.getRowsPerStatement()));
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[2 * i] = chunk.get(i).auctionId();
+                args[2 * i + 1] = chunk.get(i).raterId();
+            }
+            String sql = EXISTING_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)")) + ")";
+            jdbcTemplate.query(sql, rs -> {
+                unique.remove(new FeedbackSubmission.Key(rs.getLong("auction_id"), rs.getLong("rater_id")));
+            }, args);
+        }
+    }
+
+    private void insert(List<FeedbackSubmission> rows) {
+        Object[] args = new Object[rows.size() * 6];
+        int i = 0;
+        for (FeedbackSubmission row : rows) {
+            args[i++] = row.auctionId();
+            args[i++] = row.raterId();
+            args[i++] = row.ratedUserId();
+            args[i++] = row.rating().name();
+            args[i++] = row.comment();
+            // Same zone handling as the LocalDateTime audit columns
+            args[i++] = Timestamp.valueOf(LocalDateTime.ofInstant(row.submittedAt(), ZoneId.systemDefault()));
+        }
+        jdbcTemplate.update(INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW)), args);
+    }
+}
@@ -0,0 +1,20 @@
+package com.biddergod.user_service.feedback;
+
+/**
+ * Feedback left after an auction, with its effect on the rated user's reputation
+ */
+public enum FeedbackRating {
+    POSITIVE(1),
+    NEUTRAL(0),
+    NEGATIVE(-1);
+
+    private final int points;
+
+    FeedbackRating(int points) {
+        this.points = points;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+}
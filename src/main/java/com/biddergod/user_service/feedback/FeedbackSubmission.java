@@ -0,0 +1,23 @@
+package com.biddergod.user_service.feedback;
+
+import java.time.Instant;
+
+/**
+ * Feedback accepted by the API and waiting to be written
+ * (auctionId, raterId) is the idempotency key: each party rates once per auction
+ */
+public record FeedbackSubmission(
+        long auctionId,
+        long raterId,
+        long ratedUserId,
+        FeedbackRating rating,
+        String comment,
+        Instant submittedAt) {
+
+    record Key(long auctionId, long raterId) {
+    }
+
+    Key key() {
+        return new Key(auctionId, raterId);
+    }
+}
@@ -0,0 +1,210 @@
+package com.biddergod.user_service.health;
+
+import com.biddergod.user_service.config.CognitoConfig;
+import com.biddergod.user_service.config.HealthCheckConfig;
+import com.biddergod.user_service.sharding.ShardContext;
+import com.biddergod.user_service.sharding.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the dependency checks on a schedule and keeps the results
+ * Health probes read the cached Health objects, so a probe costs a volatile read
+ * no matter how many orchestrators poll.
+ * The checks run on their own thread, not the shared @Scheduled one: a busy flush
+ * must not make readiness go stale, and checks waiting on timeouts must not hold up the flushes.
+ */
+@Component
+public class DependencyHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyHealthMonitor.class);
+
+    private static final Health UNKNOWN = Health.unknown().withDetail("reason", "not checked yet").build();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CognitoConfig cognitoConfig;
+
+    @Autowired
+    private HealthCheckConfig config;
+
+    // Present when the users table is sharded
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    private HttpClient httpClient;
+    private ScheduledExecutorService refresher;
+
+    private volatile Health database = UNKNOWN;
+    private volatile Health jwks = UNKNOWN;
+    private volatile Health connectionPool = UNKNOWN;
+    private volatile long refreshedAt = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(config.getTimeout())
+                .build();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0,
+                config.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public Health database() {
+        return fresh(database);
+    }
+
+    public Health jwks() {
+        return fresh(jwks);
+    }
+
+    public Health connectionPool() {
+        return fresh(connectionPool);
+    }
+
+    private Health fresh(Health health) {
+        if (System.nanoTime() - refreshedAt > config.getStaleAfter().toNanos()) {
+            return Health.down().withDetail("reason", "health checks are stale").build();
+        }
+        return health;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // A task that throws is never run again; the stale snapshot would then report DOWN
+            log.warn("Health refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public void refresh() {
+        database = checkDatabase();
+        connectionPool = checkConnectionPool();
+        jwks = checkJwks();
+        refreshedAt = System.nanoTime();
+    }
+
+    Health checkDatabase() {
+        if (shardRouter == null) {
+            return validate(dataSource).build();
+        }
+        Health.Builder overall = Health.up();
+        for (int shard = 0; shard < shardRouter.activeShards(); shard++) {
+            Health.Builder shardHealth = ShardContext.callOn(shard, () -> validate(dataSource));
+            Health built = shardHealth.build();
+            overall.withDetail("shard-" + shard, built.getStatus().getCode());
+            if (!"UP".equals(built.getStatus().getCode())) {
+                overall.down();
+            }
+        }
+        return overall.build();
+    }
+
+    private Health.Builder validate(DataSource target) {
+        int timeoutSeconds = (int) Math.max(1, config.getTimeout().toSeconds());
+        long start = System.nanoTime();
+        try (Connection connection = target.getConnection()) {
+            if (connection.isValid(timeoutSeconds)) {
+                return Health.up().withDetail("validationMs", (System.nanoTime() - start) / 1_000_000);
+            }
+            return Health.down().withDetail("reason", "connection validation failed");
+        } catch (Exception e) {
+            return Health.down(e);
+        }
+    }
+
+    Health checkConnectionPool() {
+        Map<String, HikariDataSource> pools = hikariPools();
+        if (pools.isEmpty()) {
+            return Health.unknown().withDetail("reason", "not a Hikari pool").build();
+        }
+        Health.Builder health = Health.up();
+        for (Map.Entry<String, HikariDataSource> entry : pools.entrySet()) {
+            HikariDataSource pool = entry.getValue();
+            HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+            if (pool.isClosed() || stats == null) {
+                health.down().withDetail(entry.getKey(), "closed");
+                continue;
+            }
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("active", stats.getActiveConnections());
+            details.put("idle", stats.getIdleConnections());
+            details.put("total", stats.getTotalConnections());
+            details.put("max", pool.getMaximumPoolSize());
+            details.put("awaiting", stats.getThreadsAwaitingConnection());
+            health.withDetail(entry.getKey(), details);
+        }
+        return health.build();
+    }
+
+    private Map<String, HikariDataSource> hikariPools() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        DataSource target = dataSource;
+        while (target instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            target = delegating.getTargetDataSource();
+        }
+        if (target instanceof AbstractRoutingDataSource routing) {
+            routing.getResolvedDataSources().forEach((key, shard) -> {
+                if (shard instanceof HikariDataSource hikari) {
+                    pools.put("shard-" + key, hikari);
+                }
+            });
+        } else if (target instanceof HikariDataSource hikari) {
+            pools.put(hikari.getPoolName() != null ? hikari.getPoolName() : "pool", hikari);
+        }
+        return pools;
+    }
+
+    Health checkJwks() {
+        URI uri = URI.create(cognitoConfig.getIssuerUri() + "/.well-known/jwks.json");
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(config.getTimeout()).GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200 && response.body().contains("\"keys\"")) {
+                return Health.up()
+                        .withDetail("fetchMs", (System.nanoTime() - start) / 1_000_000)
+                        .build();
+            }
+            return Health.down().withDetail("status", response.statusCode()).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Health.down(e).build();
+        } catch (Exception e) {
+            return Health.down(e).build();
+        }
+    }
+}
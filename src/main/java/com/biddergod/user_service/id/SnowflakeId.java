@@ -0,0 +1,20 @@
+package com.biddergod.user_service.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Identifier assigned in the application by SnowflakeIdAllocator
+ * No database round trip, so inserts can be batched
+ */
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SnowflakeId {
+}
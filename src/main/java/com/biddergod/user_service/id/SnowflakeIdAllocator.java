@@ -0,0 +1,132 @@
+package com.biddergod.user_service.id;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 64-bit time-ordered IDs without coordination
+ *
+ * | 1 bit 0 | 41 bits millis since epoch | 8 bits node | 6 bits bucket | 8 bits sequence |
+ *
+ * The bucket is chosen by the caller: user IDs carry the shard bucket of their
+ * Cognito sub (see ShardRouter), so a lookup by ID knows its shard.
+ * The (millis, sequence) pair lives in one AtomicLong advanced by CAS, so
+ * allocation never blocks. When a millisecond's 256 sequence values run out,
+ * or the wall clock steps back, allocation continues on a logical clock just
+ * ahead of the last issued millisecond; if that gets further ahead of the wall
+ * clock than maxClockSkew, nextId() fails rather than risk duplicates.
+ */
+public final class SnowflakeIdAllocator {
+
+    public static final int NODE_BITS = 8;
+    public static final int BUCKET_BITS = 6;
+    public static final int SEQUENCE_BITS = 8;
+    public static final int TIMESTAMP_BITS = 41;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final int MAX_BUCKET = (1 << BUCKET_BITS) - 1;
+    public static final Instant DEFAULT_EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    private static volatile SnowflakeIdAllocator installed;
+
+    private final int nodeId;
+    private final long epochMillis;
+    private final long maxSkewMillis;
+    private final LongSupplier clock;
+
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdAllocator(int nodeId, Instant epoch, Duration maxClockSkew) {
+        this(nodeId, epoch, maxClockSkew, System::currentTimeMillis);
+    }
+
+    SnowflakeIdAllocator(int nodeId, Instant epoch, Duration maxClockSkew, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.epochMillis = epoch.toEpochMilli();
+        this.maxSkewMillis = maxClockSkew.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Allocator used by @SnowflakeId; set once at startup from users.id.*
+     */
+    public static void install(SnowflakeIdAllocator allocator) {
+        installed = allocator;
+    }
+
+    /**
+     * @throws IllegalStateException before SnowflakeIdInitializer installed an allocator:
+     *         guessing a node id risks two replicas issuing the same IDs
+     */
+    public static SnowflakeIdAllocator current() {
+        SnowflakeIdAllocator allocator = installed;
+        if (allocator == null) {
+            throw new IllegalStateException("No Snowflake ID allocator installed");
+        }
+        return allocator;
+    }
+
+    public long nextId() {
+        return nextId(0);
+    }
+
+    public long nextId(int bucket) {
+        if (bucket < 0 || bucket > MAX_BUCKET) {
+            throw new IllegalArgumentException("Bucket must be between 0 and " + MAX_BUCKET);
+        }
+        while (true) {
+            long now = clock.getAsLong() - epochMillis;
+            long previous = state.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock stepped back: stay on the logical clock
+                if (previousMillis - now > maxSkewMillis) {
+                    throw new IllegalStateException("Clock is " + (previousMillis - now)
+                            + " ms behind the last issued ID on node " + nodeId);
+                }
+                next = (previous & SEQUENCE_MASK) == SEQUENCE_MASK
+                        ? (previousMillis + 1) << SEQUENCE_BITS
+                        : previous + 1;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                if (millis > MAX_TIMESTAMP) {
+                    throw new IllegalStateException("Snowflake timestamp overflow, move the epoch");
+                }
+                return (millis << (NODE_BITS + BUCKET_BITS + SEQUENCE_BITS))
+                        | ((long) nodeId << (BUCKET_BITS + SEQUENCE_BITS))
+                        | ((long) bucket << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public static long timestampOf(long id, Instant epoch) {
+        return (id >>> (NODE_BITS + BUCKET_BITS + SEQUENCE_BITS)) + epoch.toEpochMilli();
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> (BUCKET_BITS + SEQUENCE_BITS)) & MAX_NODE_ID);
+    }
+
+    public static int bucketOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_BUCKET);
+    }
+}
@@ -0,0 +1,31 @@
+package com.biddergod.user_service.id;
+
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.sharding.ShardRouter;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate adapter for @SnowflakeId
+ * User IDs get the bucket of their sub, so the ID alone names the user's shard
+ */
+public class SnowflakeIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        int bucket = owner instanceof User user && user.getUsername() != null
+                ? ShardRouter.bucketOf(user.getUsername())
+                : 0;
+        return SnowflakeIdAllocator.current().nextId(bucket);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
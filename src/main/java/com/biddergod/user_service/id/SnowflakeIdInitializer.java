@@ -0,0 +1,34 @@
+package com.biddergod.user_service.id;
+
+import com.biddergod.user_service.config.IdGeneratorConfig;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs the configured allocator for @SnowflakeId
+ * (Hibernate creates the generator itself, so it can't be injected)
+ * Startup fails without users.id.node-id: a node id derived from anything else
+ * (hostname, IP) can collide, and colliding nodes issue duplicate IDs
+ */
+@Component
+public class SnowflakeIdInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeIdInitializer.class);
+
+    @Autowired
+    private IdGeneratorConfig config;
+
+    @PostConstruct
+    void install() {
+        Integer nodeId = config.getNodeId();
+        if (nodeId == null) {
+            throw new IllegalStateException("users.id.node-id is not set: give every running replica its own node id (0-"
+                    + SnowflakeIdAllocator.MAX_NODE_ID + ")");
+        }
+        SnowflakeIdAllocator.install(new SnowflakeIdAllocator(nodeId, config.getEpoch(), config.getMaxClockSkew()));
+        log.info("Snowflake IDs: node {}", nodeId);
+    }
+}
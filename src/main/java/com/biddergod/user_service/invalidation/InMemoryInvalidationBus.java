@@ -0,0 +1,58 @@
+package com.biddergod.user_service.invalidation;
+
+import com.biddergod.user_service.config.InvalidationConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Bus shared by every application context in the same JVM
+ * Used for tests and single-node setups; contexts on the same channel see each other
+ */
+@Component
+@ConditionalOnProperty(name = "users.invalidation.bus", havingValue = "memory", matchIfMissing = true)
+public class InMemoryInvalidationBus implements UserInvalidationBus {
+
+    private static final Map<String, Set<InMemoryInvalidationBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private InvalidationConfig config;
+
+    @Autowired
+    private InvalidationDispatcher dispatcher;
+
+    @PostConstruct
+    void join() {
+        CHANNELS.computeIfAbsent(config.getChannel(), k -> new CopyOnWriteArraySet<>()).add(this);
+    }
+
+    @PreDestroy
+    void leave() {
+        Set<InMemoryInvalidationBus> members = CHANNELS.get(config.getChannel());
+        if (members != null) {
+            members.remove(this);
+        }
+    }
+
+    @Override
+    public void publish(Collection<Long> userIds) {
+        Set<InMemoryInvalidationBus> members = CHANNELS.get(config.getChannel());
+        if (members == null || userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> batch = Set.copyOf(userIds);
+        for (InMemoryInvalidationBus member : members) {
+            if (member != this) {
+                member.dispatcher.dispatch(batch);
+            }
+        }
+    }
+}
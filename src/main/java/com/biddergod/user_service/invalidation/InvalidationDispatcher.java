@@ -0,0 +1,47 @@
+package com.biddergod.user_service.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Hands remote invalidations to every UserInvalidationListener bean
+ * Listeners are looked up lazily so they may depend on beans that publish
+ */
+@Component
+public class InvalidationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationDispatcher.class);
+
+    @Autowired
+    private ObjectProvider<UserInvalidationListener> listeners;
+
+    public void dispatch(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onUsersInvalidated(userIds);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed for {} users: {}",
+                        listener.getClass().getSimpleName(), userIds.size(), e.getMessage());
+            }
+        });
+    }
+
+    public void dispatchMissed() {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidationsMissed();
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed to handle missed invalidations: {}",
+                        listener.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+}
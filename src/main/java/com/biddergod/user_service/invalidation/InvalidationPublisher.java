@@ -0,0 +1,63 @@
+package com.biddergod.user_service.invalidation;
+
+import com.biddergod.user_service.config.InvalidationConfig;
+import com.biddergod.user_service.event.UserChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects committed local user writes and publishes them to the bus in batches
+ * Repeated writes to the same user within one batch window are sent once
+ */
+@Component
+public class InvalidationPublisher {
+
+    @Autowired
+    private UserInvalidationBus bus;
+
+    @Autowired
+    private InvalidationConfig config;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            pending.add(event.userId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${users.invalidation.batch-window:PT0.1S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(Math.min(pending.size(), config.getMaxBatchSize()));
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() >= config.getMaxBatchSize()) {
+                bus.publish(batch);
+                batch = new ArrayList<>(config.getMaxBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            bus.publish(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
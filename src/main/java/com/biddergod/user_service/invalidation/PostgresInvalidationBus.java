@@ -0,0 +1,167 @@
+package com.biddergod.user_service.invalidation;
+
+import com.biddergod.user_service.config.InvalidationConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bus over PostgreSQL LISTEN/NOTIFY
+ * Payload format: "{nodeId}|{id},{id},..." split so each NOTIFY stays under the 8000 byte limit.
+ * The listener holds one dedicated connection outside the pool and reconnects on failure;
+ * listeners are told after a reconnect that notifications may have been missed.
+ */
+@Component
+@ConditionalOnProperty(name = "users.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements UserInvalidationBus, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    private static final int MAX_PAYLOAD_LENGTH = 7500;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 2000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private InvalidationConfig config;
+
+    @Autowired
+    private InvalidationDispatcher dispatcher;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Override
+    public void publish(Collection<Long> userIds) {
+        String prefix = config.getNodeId() + "|";
+        StringBuilder payload = new StringBuilder(prefix);
+        for (Long userId : userIds) {
+            String id = userId.toString();
+            if (payload.length() + id.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                notify(payload.toString());
+                payload.setLength(0);
+                payload.append(prefix);
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        if (payload.length() > prefix.length()) {
+            notify(payload.toString());
+        }
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, config.getChannel(), payload);
+    }
+
+    @Override
+    public void start() {
+        if (!config.getChannel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid invalidation channel name: " + config.getChannel());
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "users-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(POLL_TIMEOUT_MS * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + config.getChannel());
+                }
+                log.info("Listening for user invalidations on channel {}", config.getChannel());
+                if (reconnecting) {
+                    dispatcher.dispatchMissed();
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Notifications sent while disconnected are lost (at-most-once)
+                reconnecting = true;
+                log.warn("Invalidation listener connection failed, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0 || payload.substring(0, separator).equals(config.getNodeId())) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (String id : payload.substring(separator + 1).split(",")) {
+            if (!id.isEmpty()) {
+                try {
+                    userIds.add(Long.parseLong(id));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring malformed invalidation payload entry: {}", id);
+                }
+            }
+        }
+        dispatcher.dispatch(userIds);
+    }
+}
@@ -0,0 +1,31 @@
+package com.biddergod.user_service.invalidation;
+
+import com.biddergod.user_service.entity.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Drops users changed on other replicas from the Hibernate second-level cache
+ * Runs before the other listeners so their reloads see fresh rows
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SecondLevelCacheEvictor implements UserInvalidationListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        Cache cache = entityManagerFactory.getCache();
+        for (Long userId : userIds) {
+            cache.evict(User.class, userId);
+        }
+    }
+}
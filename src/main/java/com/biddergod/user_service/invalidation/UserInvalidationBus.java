@@ -0,0 +1,16 @@
+package com.biddergod.user_service.invalidation;
+
+import java.util.Collection;
+
+/**
+ * Broadcasts user IDs whose cached data is stale to the other replicas
+ * Delivery is at-most-once; a replica never receives its own invalidations
+ * (local writes are handled through UserChangedEvent)
+ */
+public interface UserInvalidationBus {
+
+    /**
+     * Send one batch of invalidated user IDs to the other replicas
+     */
+    void publish(Collection<Long> userIds);
+}
@@ -0,0 +1,18 @@
+package com.biddergod.user_service.invalidation;
+
+import java.util.Set;
+
+/**
+ * Implemented by beans holding in-process user data that must drop or
+ * reload entries changed on another replica
+ */
+public interface UserInvalidationListener {
+
+    void onUsersInvalidated(Set<Long> userIds);
+
+    /**
+     * Invalidations may have been lost (the bus was disconnected for a while)
+     */
+    default void onInvalidationsMissed() {
+    }
+}
@@ -0,0 +1,318 @@
+package com.biddergod.user_service.job;
+
+import com.biddergod.user_service.config.AdminJobConfig;
+import com.biddergod.user_service.id.SnowflakeIdAllocator;
+import com.biddergod.user_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs bulk admin jobs in the background, one chunk per short transaction
+ *
+ * - chunked: users.jobs.chunk-size users per transaction, each statement bounded by
+ *   users.jobs.chunk-timeout, so row locks are only ever held for one small chunk
+ * - rate-limited: chunks are spaced to stay under users.jobs.max-rows-per-second
+ * - progress: the cursor and counters are saved in admin_jobs after every chunk
+ * - cancellation: checked in admin_jobs before every chunk, so any replica can cancel;
+ *   a chunk already under way still commits and is counted
+ * - resumable: a job left RUNNING by a stopped replica (no progress for
+ *   users.jobs.stale-after) or FAILED continues from its saved cursor on resume()
+ * At most two jobs run per replica; job rows live on the default data source.
+ */
+@Service
+public class AdminJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminJobService.class);
+
+    private static final int MAX_RUNNING_JOBS = 2;
+
+    private static final String STATUS_COLUMNS = "id, type, state, total, processed, affected, requested_by, error, "
+            + "created_at, updated_at, finished_at";
+    private static final String INSERT_SQL =
+            "INSERT INTO admin_jobs (id, type, state, cutoff, user_ids, cursor_shard, cursor_position, processed, "
+                    + "affected, requested_by, created_at, updated_at) VALUES (?, ?, 'RUNNING', ?, ?, 0, 0, 0, 0, ?, ?, ?)";
+    private static final String STATE_SQL = "SELECT state FROM admin_jobs WHERE id = ?";
+    private static final String TOTAL_SQL = "UPDATE admin_jobs SET total = ? WHERE id = ?";
+    private static final String PROGRESS_SQL =
+            "UPDATE admin_jobs SET cursor_shard = ?, cursor_position = ?, processed = processed + ?, "
+                    + "affected = affected + ?, updated_at = ? WHERE id = ?";
+    private static final String FINISH_SQL =
+            "UPDATE admin_jobs SET state = ?, error = ?, updated_at = ?, finished_at = ? WHERE id = ? AND state = 'RUNNING'";
+    private static final String CLAIM_SQL =
+            "UPDATE admin_jobs SET state = 'RUNNING', error = NULL, finished_at = NULL, updated_at = ? "
+                    + "WHERE id = ? AND (state = 'FAILED' OR (state = 'RUNNING' AND updated_at < ?))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<ChunkedJob> chunkedJobs;
+
+    @Autowired
+    private AdminJobConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only present when users.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    private final Map<AdminJobType, ChunkedJob> jobs = new EnumMap<>(AdminJobType.class);
+    // Jobs with a worker on this replica
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void init() {
+        chunkedJobs.forEach(job -> jobs.put(job.type(), job));
+        AtomicInteger threads = new AtomicInteger();
+        // No queue: a job either gets a worker now or is refused
+        executor = new ThreadPoolExecutor(MAX_RUNNING_JOBS, MAX_RUNNING_JOBS, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "admin-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Jobs stop after their current chunk and stay RUNNING, to be resumed later
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        executor.awaitTermination(config.getChunkTimeout().toSeconds() + 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Delete placeholder users created more than olderThan ago and not seen since
+     */
+    public AdminJobStatus startPlaceholderPurge(Duration olderThan, String requestedBy) {
+        if (olderThan == null || olderThan.isNegative() || olderThan.isZero()) {
+            throw new IllegalArgumentException("Age must be positive");
+        }
+        return start(AdminJobType.PURGE_PLACEHOLDER_USERS, LocalDateTime.now().minus(olderThan), null, requestedBy);
+    }
+
+    /**
+     * Deactivate the given users; unknown and already deactivated IDs are skipped
+     */
+    public AdminJobStatus startDeactivation(List<Long> userIds, String requestedBy) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("No user IDs provided");
+        }
+        if (userIds.size() > config.getMaxUserIds()) {
+            throw new IllegalArgumentException("At most " + config.getMaxUserIds() + " user IDs per job");
+        }
+        String ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .sorted()
+                .distinct()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return start(AdminJobType.DEACTIVATE_USERS, null, ids, requestedBy);
+    }
+
+    public Optional<AdminJobStatus> get(long jobId) {
+        return jdbcTemplate.query("SELECT " + STATUS_COLUMNS + " FROM admin_jobs WHERE id = ?",
+                AdminJobService::toStatus, jobId).stream().findFirst();
+    }
+
+    /**
+     * Most recently started jobs first
+     */
+    public List<AdminJobStatus> recent(int limit) {
+        return jdbcTemplate.query("SELECT " + STATUS_COLUMNS + " FROM admin_jobs ORDER BY created_at DESC LIMIT ?",
+                AdminJobService::toStatus, limit);
+    }
+
+    /**
+     * Stop a running job before its next chunk; chunks already committed stay done
+     * @return the job's state afterwards, empty if there is no such job
+     */
+    public Optional<AdminJobStatus> cancel(long jobId) {
+        finish(jobId, AdminJobState.CANCELLED, null);
+        return get(jobId);
+    }
+
+    /**
+     * Continue a failed or orphaned job from its saved cursor
+     * @throws IllegalStateException if the job finished or is still making progress somewhere, or while resharding
+     */
+    public Optional<AdminJobStatus> resume(long jobId) {
+        if (get(jobId).isEmpty()) {
+            return Optional.empty();
+        }
+        checkNotResharding();
+        LocalDateTime now = LocalDateTime.now();
+        if (running.contains(jobId) || jdbcTemplate.update(CLAIM_SQL,
+                Timestamp.valueOf(now), jobId, Timestamp.valueOf(now.minus(config.getStaleAfter()))) == 0) {
+            throw new IllegalStateException("Job " + jobId + " is finished or still running");
+        }
+        submit(jobId);
+        return get(jobId);
+    }
+
+    boolean isRunningHere(long jobId) {
+        return running.contains(jobId);
+    }
+
+    private AdminJobStatus start(AdminJobType type, LocalDateTime cutoff, String userIds, String requestedBy) {
+        checkNotResharding();
+        if (executor.getActiveCount() >= MAX_RUNNING_JOBS) {
+            throw new IllegalStateException("Already running " + MAX_RUNNING_JOBS + " admin jobs");
+        }
+        long jobId = SnowflakeIdAllocator.current().nextId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, jobId, type.name(),
+                cutoff != null ? Timestamp.valueOf(cutoff) : null, userIds, requestedBy, now, now);
+        log.info("Admin job {} ({}) started by {}", jobId, type, requestedBy);
+        submit(jobId);
+        return get(jobId).orElseThrow();
+    }
+
+    /**
+     * Jobs change users with plain SQL on the active shards, which the resharding mirror doesn't see
+     */
+    private void checkNotResharding() {
+        if (shardRouter != null && shardRouter.isResharding()) {
+            throw new IllegalStateException("Admin jobs are disabled while resharding");
+        }
+    }
+
+    private void submit(long jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            finish(jobId, AdminJobState.FAILED, "Too many admin jobs running");
+            throw new IllegalStateException("Already running " + MAX_RUNNING_JOBS + " admin jobs", e);
+        }
+    }
+
+    private void run(long jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        try {
+            JobCursor cursor = loadCursor(jobId);
+            ChunkedJob job = jobs.get(cursor.type());
+            if (jdbcTemplate.queryForObject("SELECT total FROM admin_jobs WHERE id = ?", Long.class, jobId) == null) {
+                jdbcTemplate.update(TOTAL_SQL, job.total(cursor), jobId);
+            }
+
+            while (!stopping) {
+                if (!AdminJobState.RUNNING.name().equals(jdbcTemplate.queryForObject(STATE_SQL, String.class, jobId))) {
+                    log.info("Admin job {} stopped: no longer running", jobId);
+                    return;
+                }
+                long started = System.nanoTime();
+                Chunk chunk = job.next(cursor, config.getChunkSize());
+                jdbcTemplate.update(PROGRESS_SQL, chunk.shard(), chunk.position(), chunk.processed(), chunk.affected(),
+                        Timestamp.valueOf(LocalDateTime.now()), jobId);
+                meterRegistry.counter("users.jobs.affected", "type", cursor.type().name()).increment(chunk.affected());
+                if (chunk.done()) {
+                    finish(jobId, AdminJobState.COMPLETED, null);
+                    log.info("Admin job {} ({}) completed", jobId, cursor.type());
+                    return;
+                }
+                cursor = cursor.advance(chunk);
+                pace(chunk.processed(), started);
+            }
+        } catch (InterruptedException e) {
+            // Left RUNNING: resumable once stale
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Admin job {} failed: {}", jobId, e.getMessage());
+            String message = String.valueOf(e.getMessage());
+            finish(jobId, AdminJobState.FAILED, message.length() > 500 ? message.substring(0, 500) : message);
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    /**
+     * Sleep off whatever the chunk left of its share of max-rows-per-second
+     */
+    private void pace(int rows, long startedNanos) throws InterruptedException {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(rows) / Math.max(1, config.getMaxRowsPerSecond());
+        long remaining = budgetNanos - (System.nanoTime() - startedNanos);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private void finish(long jobId, AdminJobState state, String error) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(FINISH_SQL, state.name(), error, now, now, jobId);
+    }
+
+    private JobCursor loadCursor(long jobId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT type, cutoff, user_ids, cursor_shard, cursor_position FROM admin_jobs WHERE id = ?",
+                (rs, rowNum) -> {
+                    Timestamp cutoff = rs.getTimestamp("cutoff");
+                    String userIds = rs.getString("user_ids");
+                    return new JobCursor(jobId,
+                            AdminJobType.valueOf(rs.getString("type")),
+                            cutoff != null ? cutoff.toLocalDateTime() : null,
+                            userIds == null || userIds.isEmpty()
+                                    ? new long[0]
+                                    : Arrays.stream(userIds.split(",")).mapToLong(Long::parseLong).toArray(),
+                            rs.getInt("cursor_shard"),
+                            rs.getLong("cursor_position"));
+                }, jobId);
+    }
+
+    private static AdminJobStatus toStatus(ResultSet rs, int rowNum) throws SQLException {
+        long total = rs.getLong("total");
+        boolean hasTotal = !rs.wasNull();
+        return new AdminJobStatus(
+                rs.getLong("id"),
+                AdminJobType.valueOf(rs.getString("type")),
+                AdminJobState.valueOf(rs.getString("state")),
+                hasTotal ? total : null,
+                rs.getLong("processed"),
+                rs.getLong("affected"),
+                rs.getString("requested_by"),
+                rs.getString("error"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                toLocalDateTime(rs.getTimestamp("finished_at")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
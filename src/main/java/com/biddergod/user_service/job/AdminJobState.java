@@ -0,0 +1,8 @@
+package com.biddergod.user_service.job;
+
+public enum AdminJobState {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,23 @@
+package com.biddergod.user_service.job;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an admin job as stored after its last chunk
+ * @param total users the job expects to process, estimated when it started; null until then
+ * @param processed users handled so far
+ * @param affected users actually deleted or deactivated (the rest no longer matched)
+ */
+public record AdminJobStatus(
+    long id,
+    AdminJobType type,
+    AdminJobState state,
+    Long total,
+    long processed,
+    long affected,
+    String requestedBy,
+    String error,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    LocalDateTime finishedAt
+) {}
@@ -0,0 +1,6 @@
+package com.biddergod.user_service.job;
+
+public enum AdminJobType {
+    PURGE_PLACEHOLDER_USERS,
+    DEACTIVATE_USERS
+}
@@ -0,0 +1,8 @@
+package com.biddergod.user_service.job;
+
+/**
+ * Result of one chunk and the cursor to continue from
+ * @param done nothing is left after this chunk
+ */
+record Chunk(int shard, long position, int processed, int affected, boolean done) {
+}
@@ -0,0 +1,21 @@
+package com.biddergod.user_service.job;
+
+/**
+ * One kind of bulk job, run by AdminJobService a chunk at a time
+ * Each chunk must commit on its own and be safe to repeat: after a restart the
+ * chunk in flight is run again from the last saved cursor.
+ */
+interface ChunkedJob {
+
+    AdminJobType type();
+
+    /**
+     * Estimate of the users the job will process, for progress reporting
+     */
+    long total(JobCursor cursor);
+
+    /**
+     * Process up to chunkSize users from the cursor
+     */
+    Chunk next(JobCursor cursor, int chunkSize);
+}
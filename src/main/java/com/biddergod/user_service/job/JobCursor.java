@@ -0,0 +1,15 @@
+package com.biddergod.user_service.job;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a job and where its next chunk starts
+ * @param shard index into the active shards
+ * @param position last user ID done (purge) or list position reached (deactivation)
+ */
+record JobCursor(long jobId, AdminJobType type, LocalDateTime cutoff, long[] userIds, int shard, long position) {
+
+    JobCursor advance(Chunk chunk) {
+        return new JobCursor(jobId, type, cutoff, userIds, chunk.shard(), chunk.position());
+    }
+}
@@ -0,0 +1,83 @@
+package com.biddergod.user_service.job;
+
+import com.biddergod.user_service.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Deletes users still on the <sub>@cognito.local fallback email that were created
+ * before the cutoff and not seen since, i.e. sign-ups that never completed
+ * Walks each shard in ID order. A chunk locks the matching rows with SELECT ... FOR UPDATE
+ * and deletes exactly those, so a user whose email arrives in the meantime is left alone.
+ */
+@Component
+class PlaceholderUserPurgeJob implements ChunkedJob {
+
+    static final String PLACEHOLDER_EMAIL = "%@cognito.local";
+
+    private static final String MATCH =
+            "email LIKE ? AND created_at < ? AND (last_seen_at IS NULL OR last_seen_at < ?)";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM users WHERE " + MATCH;
+    private static final String LOCK_SQL =
+            "SELECT id FROM users WHERE id > ? AND " + MATCH + " ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String DELETE_PREFIX = "DELETE FROM users WHERE id IN (";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserChunkSupport support;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public AdminJobType type() {
+        return AdminJobType.PURGE_PLACEHOLDER_USERS;
+    }
+
+    @Override
+    public long total(JobCursor cursor) {
+        Timestamp cutoff = Timestamp.valueOf(cursor.cutoff());
+        long total = 0;
+        for (int shard : support.shards()) {
+            total += support.inTransaction(shard, status ->
+                jdbcTemplate.queryForObject(COUNT_SQL, Long.class, PLACEHOLDER_EMAIL, cutoff, cutoff));
+        }
+        return total;
+    }
+
+    @Override
+    public Chunk next(JobCursor cursor, int chunkSize) {
+        int[] shards = support.shards();
+        if (cursor.shard() >= shards.length) {
+            return new Chunk(cursor.shard(), cursor.position(), 0, 0, true);
+        }
+        Timestamp cutoff = Timestamp.valueOf(cursor.cutoff());
+        // User IDs are positive, so position 0 is the start of a shard
+        List<Long> deleted = support.inTransaction(shards[cursor.shard()], status -> {
+            List<Long> ids = jdbcTemplate.queryForList(LOCK_SQL, Long.class,
+                cursor.position(), PLACEHOLDER_EMAIL, cutoff, cutoff, chunkSize);
+            if (!ids.isEmpty()) {
+                jdbcTemplate.update(DELETE_PREFIX + UserChunkSupport.placeholders(ids.size()) + ")", ids.toArray());
+            }
+            return ids;
+        });
+
+        support.evict(deleted);
+        for (Long userId : deleted) {
+            eventPublisher.publishEvent(UserChangedEvent.deleted(userId));
+        }
+
+        if (deleted.size() < chunkSize) {
+            int nextShard = cursor.shard() + 1;
+            return new Chunk(nextShard, 0, deleted.size(), deleted.size(), nextShard >= shards.length);
+        }
+        return new Chunk(cursor.shard(), deleted.get(deleted.size() - 1), deleted.size(), deleted.size(), false);
+    }
+}
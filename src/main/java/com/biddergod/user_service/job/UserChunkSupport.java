@@ -0,0 +1,69 @@
+package com.biddergod.user_service.job;
+
+import com.biddergod.user_service.config.AdminJobConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.sharding.ShardContext;
+import com.biddergod.user_service.sharding.ShardRouter;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Shard iteration, chunk transactions and cache eviction shared by the user jobs
+ */
+@Component
+class UserChunkSupport {
+
+    private static final int[] UNSHARDED = {0};
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminJobConfig config;
+
+    // Only present when users.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    int[] shards() {
+        return shardRouter != null ? shardRouter.activeShardIds() : UNSHARDED;
+    }
+
+    /**
+     * Run one chunk in its own short transaction on the given shard
+     * The timeout bounds every statement, so a chunk waiting on row locks held by
+     * the request path gives up rather than queueing requests behind it
+     */
+    <T> T inTransaction(int shard, TransactionCallback<T> chunk) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setTimeout((int) Math.max(1, config.getChunkTimeout().toSeconds()));
+        return ShardContext.callOn(shard, () -> transaction.execute(chunk));
+    }
+
+    /**
+     * Rows were changed with plain SQL: drop them from the second-level cache
+     */
+    void evict(Collection<Long> userIds) {
+        Cache cache = entityManagerFactory.getCache();
+        for (Long userId : userIds) {
+            cache.evict(User.class, userId);
+        }
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
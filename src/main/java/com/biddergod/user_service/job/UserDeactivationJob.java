@@ -0,0 +1,90 @@
+package com.biddergod.user_service.job;
+
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sets deactivated_at on a list of users
+ * A chunk is a slice of the sorted ID list, applied on every shard (an ID only
+ * exists on one). Users already deactivated keep their original timestamp.
+ * The version is bumped so clients holding the old ETag see the change.
+ */
+@Component
+class UserDeactivationJob implements ChunkedJob {
+
+    private static final String LOCK_PREFIX = "SELECT id FROM users WHERE deactivated_at IS NULL AND id IN (";
+    private static final String UPDATE_PREFIX =
+            "UPDATE users SET deactivated_at = ?, updated_at = ?, version = version + 1 WHERE id IN (";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChunkSupport support;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public AdminJobType type() {
+        return AdminJobType.DEACTIVATE_USERS;
+    }
+
+    @Override
+    public long total(JobCursor cursor) {
+        return cursor.userIds().length;
+    }
+
+    @Override
+    public Chunk next(JobCursor cursor, int chunkSize) {
+        long[] userIds = cursor.userIds();
+        int from = (int) cursor.position();
+        int to = Math.min(userIds.length, from + chunkSize);
+        Object[] ids = Arrays.stream(userIds, from, to).boxed().toArray();
+
+        List<Long> deactivated = new ArrayList<>();
+        if (ids.length > 0) {
+            String in = UserChunkSupport.placeholders(ids.length) + ")";
+            for (int shard : support.shards()) {
+                deactivated.addAll(support.inTransaction(shard, status -> {
+                    List<Long> locked = jdbcTemplate.queryForList(LOCK_PREFIX + in + " FOR UPDATE", Long.class, ids);
+                    if (!locked.isEmpty()) {
+                        // Same zone handling as the LocalDateTime audit columns
+                        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                        Object[] args = new Object[locked.size() + 2];
+                        args[0] = now;
+                        args[1] = now;
+                        for (int i = 0; i < locked.size(); i++) {
+                            args[i + 2] = locked.get(i);
+                        }
+                        jdbcTemplate.update(UPDATE_PREFIX + UserChunkSupport.placeholders(locked.size()) + ")", args);
+                    }
+                    return locked;
+                }));
+            }
+        }
+
+        if (!deactivated.isEmpty()) {
+            support.evict(deactivated);
+            // Reloaded after the commit so local copies and other replicas pick up the new version
+            for (User user : userRepository.findAllById(deactivated)) {
+                eventPublisher.publishEvent(UserChangedEvent.saved(user));
+            }
+        }
+        return new Chunk(0, to, ids.length, deactivated.size(), to >= userIds.length);
+    }
+}
@@ -0,0 +1,7 @@
+package com.biddergod.user_service.leaderboard;
+
+/**
+ * @param rank 1-based, best score first; ties go to the lower user ID
+ */
+public record LeaderboardEntry(long rank, long userId, long score) {
+}
@@ -0,0 +1,227 @@
+package com.biddergod.user_service.leaderboard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Scores ordered best first, with rank lookups by position
+ * A treap whose nodes also count their subtree, so rank(), put(), remove() and
+ * seeking to an offset are O(log n) expected; reading a page is O(log n + page size).
+ * Ties on score are broken by lower user ID. Not thread-safe.
+ */
+final class RankedScores {
+
+    /**
+     * @param rank 0-based position, best score first
+     */
+    record Entry(long rank, long userId, long score) {
+    }
+
+    private static final class Node {
+        final long userId;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, long score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Node> byUser = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return byUser.size();
+    }
+
+    /**
+     * Insert the user or move them to their new score
+     */
+    void put(long userId, long score) {
+        Node existing = byUser.get(userId);
+        if (existing != null) {
+            if (existing.score == score) {
+                return;
+            }
+            root = delete(root, existing.score, userId);
+        }
+        Node node = new Node(userId, score, random.nextInt());
+        root = insert(root, node);
+        byUser.put(userId, node);
+    }
+
+    void remove(long userId) {
+        Node existing = byUser.remove(userId);
+        if (existing != null) {
+            root = delete(root, existing.score, userId);
+        }
+    }
+
+    /**
+     * @return the user's entry, or null if they have no score
+     */
+    Entry get(long userId) {
+        Node target = byUser.get(userId);
+        if (target == null) {
+            return null;
+        }
+        long rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(target.score, userId, node.score, node.userId);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                rank += size(node.left);
+                break;
+            }
+        }
+        return new Entry(rank, userId, target.score);
+    }
+
+    /**
+     * Entries at positions [offset, offset + limit)
+     */
+    List<Entry> range(long offset, int limit) {
+        if (offset < 0 || offset >= size() || limit <= 0) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>((int) Math.min(limit, size() - offset));
+
+        // Path to the node at offset, keeping ancestors still to be visited in order
+        Deque<Node> pending = new ArrayDeque<>();
+        Node node = root;
+        long skip = offset;
+        while (node != null) {
+            long leftSize = size(node.left);
+            if (skip < leftSize) {
+                pending.push(node);
+                node = node.left;
+            } else if (skip > leftSize) {
+                skip -= leftSize + 1;
+                node = node.right;
+            } else {
+                pending.push(node);
+                break;
+            }
+        }
+
+        long rank = offset;
+        while (!pending.isEmpty() && entries.size() < limit) {
+            Node next = pending.pop();
+            entries.add(new Entry(rank++, next.userId, next.score));
+            for (Node child = next.right; child != null; child = child.left) {
+                pending.push(child);
+            }
+        }
+        return entries;
+    }
+
+    void clear() {
+        byUser.clear();
+        root = null;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.score, added.userId, node.score, node.userId) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long score, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node.score, node.userId);
+        if (cmp < 0) {
+            node.left = delete(node.left, score, userId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, score, userId);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Join two treaps where every key in left orders before every key in right
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Higher score first, then lower user ID
+     */
+    private static int compare(long scoreA, long userA, long scoreB, long userB) {
+        int byScore = Long.compare(scoreB, scoreA);
+        return byScore != 0 ? byScore : Long.compare(userA, userB);
+    }
+}
@@ -0,0 +1,122 @@
+package com.biddergod.user_service.leaderboard;
+
+import com.biddergod.user_service.config.LeaderboardConfig;
+import com.biddergod.user_service.reputation.ReputationListener;
+import com.biddergod.user_service.reputation.ReputationStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Users ordered by reputation score, for top-N pages and rank lookups without SQL
+ * Built from ReputationStore, which loads every persisted score at startup and
+ * reports each change after that. Changes are only marked on the calling thread;
+ * a scheduled pass re-reads the marked users' scores and moves them in the
+ * RankedScores tree under the write lock, so the board trails the store by at most
+ * users.leaderboard.apply-interval and always ends on the store's latest value.
+ */
+@Component
+public class ReputationLeaderboard implements ReputationListener {
+
+    @Autowired
+    private ReputationStore reputationStore;
+
+    @Autowired
+    private LeaderboardConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final RankedScores scores = new RankedScores();
+    private final StampedLock lock = new StampedLock();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.leaderboard.size", this, ReputationLeaderboard::size)
+                .register(meterRegistry);
+        Gauge.builder("users.leaderboard.pending", changed, Set::size)
+                .description("Users whose score changed since the last apply")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onReputationChanged(long userId) {
+        changed.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${users.leaderboard.apply-interval:PT0.5S}")
+    public void apply() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        // Read scores outside the lock; a change racing this pass is marked again
+        List<long[]> updates = new ArrayList<>();
+        for (Long userId : changed) {
+            changed.remove(userId);
+            updates.add(new long[]{userId, reputationStore.get(userId).score()});
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (long[] update : updates) {
+                scores.put(update[0], update[1]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * One page of the board, best first
+     */
+    public List<LeaderboardEntry> page(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, config.getMaxPageSize()));
+        long stamp = lock.readLock();
+        try {
+            return scores.range((long) Math.max(0, page) * pageSize, pageSize).stream()
+                    .map(ReputationLeaderboard::toEntry)
+                    .toList();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * The user's rank, empty if they have no reputation yet
+     */
+    public Optional<LeaderboardEntry> rank(long userId) {
+        long stamp = lock.readLock();
+        try {
+            return Optional.ofNullable(scores.get(userId)).map(ReputationLeaderboard::toEntry);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return scores.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int maxPageSize() {
+        return config.getMaxPageSize();
+    }
+
+    private static LeaderboardEntry toEntry(RankedScores.Entry entry) {
+        return new LeaderboardEntry(entry.rank() + 1, entry.userId(), entry.score());
+    }
+}
@@ -0,0 +1,21 @@
+package com.biddergod.user_service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.biddergod.users.BatchLookup")
+@Label("Batch User Lookup")
+@Description("Users fetched by ID for other services; duration is the database time")
+@Category({"BidderGod", "Users"})
+@StackTrace(false)
+public class BatchLookupEvent extends jdk.jfr.Event {
+
+    @Label("Requested")
+    public int requested;
+
+    @Label("Found")
+    public int found;
+}
@@ -0,0 +1,88 @@
+package com.biddergod.user_service.observability;
+
+import com.biddergod.user_service.config.FlightRecorderConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Continuous ring-buffer JFR recording with the users-service custom events
+ * The recording keeps the last maxAge/maxSize of data on disk; dump() snapshots it
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            TokenDecodeEvent.class,
+            UserResolutionEvent.class,
+            BatchLookupEvent.class,
+            ProfileUpdateEvent.class
+    );
+
+    @Autowired
+    private FlightRecorderConfig config;
+
+    private Recording recording;
+
+    @PostConstruct
+    void start() {
+        if (!config.isEnabled() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(config.getSettings()));
+            recording.setName("users-service-continuous");
+            recording.setToDisk(true);
+            recording.setMaxAge(config.getMaxAge());
+            recording.setMaxSize(config.getMaxSize().toBytes());
+            for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+                recording.enable(event);
+            }
+            recording.start();
+            log.info("Continuous JFR recording started (settings={}, maxAge={}, maxSize={})",
+                    config.getSettings(), config.getMaxAge(), config.getMaxSize());
+        } catch (IOException | ParseException e) {
+            log.warn("Could not start continuous JFR recording: {}", e.getMessage());
+            recording = null;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Write the current ring buffer to a temporary .jfr file
+     * The caller owns the file and must delete it
+     */
+    public Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Continuous recording is not running");
+        }
+        Path file = Files.createTempFile("users-service-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+}
@@ -0,0 +1,21 @@
+package com.biddergod.user_service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.biddergod.users.ProfileUpdate")
+@Label("Profile Update")
+@Description("Profile write through the users API")
+@Category({"BidderGod", "Users"})
+@StackTrace(false)
+public class ProfileUpdateEvent extends jdk.jfr.Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("With ID Token")
+    public boolean withIdToken;
+}
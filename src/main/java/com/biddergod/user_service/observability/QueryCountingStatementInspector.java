@@ -0,0 +1,18 @@
+package com.biddergod.user_service.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements Hibernate prepares for the current request
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.countQuery();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,24 @@
+package com.biddergod.user_service.observability;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds Spring Data repository call time to the current request's db phase
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !timings.enterRepository()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timings.exitRepository(System.nanoTime() - start);
+        }
+    }
+}
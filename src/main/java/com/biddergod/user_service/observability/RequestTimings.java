@@ -0,0 +1,157 @@
+package com.biddergod.user_service.observability;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-request phase timings reported in the Server-Timing response header
+ * One small object per request, bound to the request thread by ServerTimingFilter;
+ * recording sites do nothing when no request is bound (scheduled jobs, startup)
+ * Not thread-safe: work handed to another thread records into its own detached
+ * instance, merged back by the request thread once it has joined the result
+ */
+public final class RequestTimings {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    public enum Phase {
+        AUTH("auth"),
+        RESOLVE("resolve"),
+        DB("db"),
+        SER("ser");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private final long[] nanos = new long[Phase.values().length];
+    private int queries;
+    private int repositoryDepth;
+
+    RequestTimings() {
+    }
+
+    /**
+     * Timings of the request running on this thread, or null outside a request
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Fresh timings for work running on another thread on behalf of a request
+     * @return null when there is no request to report to
+     */
+    public static RequestTimings detachedFrom(RequestTimings parent) {
+        return parent == null ? null : new RequestTimings();
+    }
+
+    /**
+     * Run a call on another thread while recording into the given timings
+     */
+    public static <T> T supplyWith(RequestTimings timings, Supplier<T> call) {
+        if (timings == null) {
+            return call.get();
+        }
+        CURRENT.set(timings);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    /**
+     * Add a detached instance's phases and queries; only call after joining its thread
+     */
+    public void merge(RequestTimings worker) {
+        if (worker == null) {
+            return;
+        }
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] += worker.nanos[i];
+        }
+        queries += worker.queries;
+    }
+
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public void countQuery() {
+        queries++;
+    }
+
+    public int queries() {
+        return queries;
+    }
+
+    /**
+     * Outermost repository call only, so nested calls aren't counted twice
+     * @return true if the caller should time this call
+     */
+    boolean enterRepository() {
+        return repositoryDepth++ == 0;
+    }
+
+    void exitRepository(long elapsedNanos) {
+        if (--repositoryDepth == 0) {
+            add(Phase.DB, elapsedNanos);
+        }
+    }
+
+    /**
+     * e.g. auth;dur=1.204, resolve;dur=3.810, db;dur=2.915;desc="2 queries", ser;dur=0.087
+     * Phases that didn't run are left out
+     */
+    public String toHeaderValue() {
+        StringBuilder sb = new StringBuilder(96);
+        for (Phase phase : Phase.values()) {
+            long elapsed = nanos[phase.ordinal()];
+            boolean dbQueries = phase == Phase.DB && queries > 0;
+            if (elapsed == 0 && !dbQueries) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(phase.metric).append(";dur=");
+            appendMillis(sb, elapsed);
+            if (dbQueries) {
+                sb.append(";desc=\"").append(queries).append(queries == 1 ? " query\"" : " queries\"");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendMillis(StringBuilder sb, long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        long fraction = micros % 1_000;
+        sb.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+}
@@ -0,0 +1,93 @@
+package com.biddergod.user_service.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Binds RequestTimings to the request and writes the Server-Timing header
+ * just before the response body starts (headers can't be added after commit)
+ * Runs ahead of the security filter chain so JWT decode is included
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        TimingResponse timingResponse = new TimingResponse(response, RequestTimings.begin());
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            // Bodiless responses (204, 304, ...) never asked for the output stream
+            timingResponse.writeServerTiming();
+            RequestTimings.end();
+        }
+    }
+
+    static class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void writeServerTiming() {
+            if (written) {
+                return;
+            }
+            written = true;
+            if (!isCommitted()) {
+                String value = timings.toHeaderValue();
+                if (!value.isEmpty()) {
+                    setHeader(RequestTimings.HEADER, value);
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
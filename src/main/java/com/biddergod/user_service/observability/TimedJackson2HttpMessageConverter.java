@@ -0,0 +1,74 @@
+package com.biddergod.user_service.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that serializes into a per-thread buffer first, so the
+ * serialization time is known before the Server-Timing header is written
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    // Buffers that grew past this are dropped after use instead of kept per thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<ReusableBuffer> BUFFER = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ReusableBuffer buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            long start = System.nanoTime();
+            super.writeInternal(object, type, new BufferedMessage(outputMessage.getHeaders(), buffer));
+            timings.add(RequestTimings.Phase.SER, System.nanoTime() - start);
+            buffer.writeTo(outputMessage.getBody());
+        } finally {
+            buffer.trim();
+        }
+    }
+
+    private record BufferedMessage(HttpHeaders headers, OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+
+        ReusableBuffer() {
+            super(4096);
+        }
+
+        void trim() {
+            if (buf.length > MAX_RETAINED_BUFFER) {
+                buf = new byte[4096];
+            }
+            reset();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.biddergod.user_service.observability;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * JwtDecoder decorator that records each decode as a TokenDecodeEvent
+ * and in the request's Server-Timing auth phase
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    public TimedJwtDecoder(JwtDecoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenDecodeEvent event = new TokenDecodeEvent();
+        event.begin();
+        RequestTimings timings = RequestTimings.current();
+        long start = System.nanoTime();
+        try {
+            Jwt jwt = delegate.decode(token);
+            event.tokenUse = jwt.getClaimAsString("token_use");
+            event.success = true;
+            return jwt;
+        } finally {
+            if (timings != null) {
+                timings.add(RequestTimings.Phase.AUTH, System.nanoTime() - start);
+            }
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.biddergod.user_service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.biddergod.users.TokenDecode")
+@Label("Token Decode")
+@Description("JWT signature verification and claim validation")
+@Category({"BidderGod", "Users"})
+@StackTrace(false)
+public class TokenDecodeEvent extends jdk.jfr.Event {
+
+    @Label("Token Use")
+    public String tokenUse;
+
+    @Label("Success")
+    public boolean success;
+}
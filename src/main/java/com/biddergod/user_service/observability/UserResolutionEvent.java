@@ -0,0 +1,28 @@
+package com.biddergod.user_service.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.biddergod.users.UserResolution")
+@Label("User Resolution")
+@Description("findOrCreateUser: which strategy resolved the caller")
+@Category({"BidderGod", "Users"})
+@StackTrace(false)
+public class UserResolutionEvent extends jdk.jfr.Event {
+
+    public static final String BY_SUB = "sub";
+    public static final String BY_EMAIL = "email";
+    public static final String CREATED = "created";
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Row Updated")
+    public boolean updated;
+}
@@ -0,0 +1,163 @@
+package com.biddergod.user_service.replica;
+
+/**
+ * Open-addressing hash map from long to non-negative int, without boxing
+ * Linear probing over parallel key/value arrays, backward-shift deletion so
+ * there are no tombstones. Key 0 is the empty marker and is stored on the side.
+ * Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final float MAX_LOAD = 0.7f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * @return the value, or MISSING
+     */
+    int get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : MISSING;
+        }
+        int slot = slot(key);
+        while (true) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return values[slot];
+            }
+            if (existing == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the previous value, or MISSING
+     */
+    int put(long key, int value) {
+        if (key == 0) {
+            int previous = hasZeroKey ? zeroValue : MISSING;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        while (true) {
+            long existing = keys[slot];
+            if (existing == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (existing == 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    allocate(keys.length << 1);
+                }
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the removed value, or MISSING
+     */
+    int remove(long key) {
+        if (key == 0) {
+            int previous = hasZeroKey ? zeroValue : MISSING;
+            hasZeroKey = false;
+            return previous;
+        }
+        int slot = slot(key);
+        while (true) {
+            long existing = keys[slot];
+            if (existing == 0) {
+                return MISSING;
+            }
+            if (existing == key) {
+                int previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Heap bytes held by the tables
+     */
+    long bytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    /**
+     * Close the gap at slot by moving back entries whose probe chain crosses it
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == 0) {
+                keys[gap] = 0;
+                return;
+            }
+            int home = slot(key);
+            // Move the entry unless its home lies cyclically in (gap, slot]
+            boolean movable = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (movable) {
+                keys[gap] = key;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+        size = 0;
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+}
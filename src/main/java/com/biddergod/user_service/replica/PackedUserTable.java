@@ -0,0 +1,220 @@
+package com.biddergod.user_service.replica;
+
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.repository.UserSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Public user fields in column arrays, with no object per user
+ * Rows are addressed through a LongIntHashMap from user ID; strings live as UTF-8
+ * in one shared byte heap (offset and length packed into a long per field).
+ * Overwritten strings become garbage that compact() reclaims. Not thread-safe.
+ */
+final class PackedUserTable {
+
+    private static final int FIELDS = 4;
+    private static final int USERNAME = 0;
+    private static final int EMAIL = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+
+    private static final long NULL_STRING = -1L;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final LongIntHashMap rowsById;
+
+    private long[] ids;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private long[] strings;
+    private int rows;
+
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    private byte[] heap;
+    private int heapUsed;
+    private long garbage;
+
+    PackedUserTable(int expected) {
+        int capacity = Math.max(16, expected);
+        rowsById = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        strings = new long[capacity * FIELDS];
+        heap = new byte[Math.max(1024, capacity * 48)];
+    }
+
+    int size() {
+        return rowsById.size();
+    }
+
+    void put(UserSummary user) {
+        long id = user.id();
+        int row = rowsById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            row = allocateRow();
+            rowsById.put(id, row);
+        } else {
+            releaseStrings(row);
+        }
+        ids[row] = id;
+        createdAt[row] = encodeTime(user.createdAt());
+        updatedAt[row] = encodeTime(user.updatedAt());
+        int base = row * FIELDS;
+        strings[base + USERNAME] = append(user.username());
+        strings[base + EMAIL] = append(user.email());
+        strings[base + FIRST_NAME] = append(user.firstName());
+        strings[base + LAST_NAME] = append(user.lastName());
+    }
+
+    boolean remove(long id) {
+        int row = rowsById.remove(id);
+        if (row == LongIntHashMap.MISSING) {
+            return false;
+        }
+        releaseStrings(row);
+        Arrays.fill(strings, row * FIELDS, row * FIELDS + FIELDS, NULL_STRING);
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        return true;
+    }
+
+    /**
+     * @return the user's public fields, or null if unknown
+     */
+    UserDetailsResponse get(long id) {
+        int row = rowsById.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            return null;
+        }
+        int base = row * FIELDS;
+        UserDetailsResponse user = new UserDetailsResponse();
+        user.setId(ids[row]);
+        user.setUsername(string(strings[base + USERNAME]));
+        user.setEmail(string(strings[base + EMAIL]));
+        user.setFirstName(string(strings[base + FIRST_NAME]));
+        user.setLastName(string(strings[base + LAST_NAME]));
+        user.setCreatedAt(decodeTime(createdAt[row]));
+        user.setUpdatedAt(decodeTime(updatedAt[row]));
+        return user;
+    }
+
+    /**
+     * Fraction of the string heap holding overwritten values
+     */
+    double garbageRatio() {
+        return heapUsed == 0 ? 0 : (double) garbage / heapUsed;
+    }
+
+    /**
+     * Rewrite the string heap with live values only
+     */
+    void compact() {
+        byte[] old = heap;
+        heap = new byte[Math.max(1024, (int) Math.min(Integer.MAX_VALUE - 8, (heapUsed - garbage) * 5 / 4))];
+        heapUsed = 0;
+        garbage = 0;
+        for (int i = 0; i < rows * FIELDS; i++) {
+            long packed = strings[i];
+            if (packed != NULL_STRING) {
+                int offset = (int) (packed >>> 32);
+                int length = (int) packed;
+                ensureHeap(length);
+                System.arraycopy(old, offset, heap, heapUsed, length);
+                strings[i] = pack(heapUsed, length);
+                heapUsed += length;
+            }
+        }
+    }
+
+    /**
+     * Heap bytes held by the table, its index and the string heap
+     */
+    long bytes() {
+        return rowsById.bytes()
+                + (long) ids.length * Long.BYTES * 3
+                + (long) strings.length * Long.BYTES
+                + (long) freeRows.length * Integer.BYTES
+                + heap.length;
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rows == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            strings = Arrays.copyOf(strings, capacity * FIELDS);
+        }
+        return rows++;
+    }
+
+    private void releaseStrings(int row) {
+        for (int field = 0; field < FIELDS; field++) {
+            long packed = strings[row * FIELDS + field];
+            if (packed != NULL_STRING) {
+                garbage += (int) packed;
+            }
+        }
+    }
+
+    private long append(String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureHeap(bytes.length);
+        System.arraycopy(bytes, 0, heap, heapUsed, bytes.length);
+        long packed = pack(heapUsed, bytes.length);
+        heapUsed += bytes.length;
+        return packed;
+    }
+
+    private void ensureHeap(int length) {
+        if (heapUsed + length > heap.length) {
+            long grown = Math.max((long) heap.length * 2, (long) heapUsed + length);
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Replica string heap exceeds 2 GiB");
+            }
+            heap = Arrays.copyOf(heap, (int) grown);
+        }
+    }
+
+    private String string(long packed) {
+        if (packed == NULL_STRING) {
+            return null;
+        }
+        return new String(heap, (int) (packed >>> 32), (int) packed, StandardCharsets.UTF_8);
+    }
+
+    private static long pack(int offset, int length) {
+        return ((long) offset << 32) | (length & 0xFFFFFFFFL);
+    }
+
+    // Microseconds since the epoch, the precision the database keeps
+    private static long encodeTime(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime decodeTime(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,226 @@
+package com.biddergod.user_service.replica;
+
+import com.biddergod.user_service.config.UserReplicaConfig;
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.invalidation.UserInvalidationListener;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Complete in-memory copy of the public user fields, serving GET /api/users?id=
+ * Loaded by streaming the table once the application is ready and kept current
+ * from committed UserChangedEvents (every UserService.save) and from remote
+ * invalidations. Until the load completes callers must use the database.
+ * Users updated since the previous reload are re-read every users.replica.delta-interval,
+ * so a lost invalidation is stale for at most that long. Hard deletes are only
+ * seen through invalidations.
+ */
+@Component
+@ConditionalOnProperty(name = "users.replica.enabled", havingValue = "true")
+public class UserDirectoryReplica implements UserInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryReplica.class);
+
+    @Autowired
+    private UserReplicaConfig config;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final StampedLock lock = new StampedLock();
+    private PackedUserTable table;
+
+    private volatile boolean ready;
+    // Users written while the initial load streams; re-read once it finishes
+    private volatile Set<Long> changedDuringLoad;
+    // Start of the last load or delta reload
+    private volatile LocalDateTime syncedAt;
+
+    @PostConstruct
+    void init() {
+        table = new PackedUserTable(config.getExpectedUsers());
+        Gauge.builder("users.replica.size", this, UserDirectoryReplica::size)
+                .register(meterRegistry);
+        Gauge.builder("users.replica.bytes.per.user", this, UserDirectoryReplica::bytesPerUser)
+                .description("Heap held by the replica divided by the users in it")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        LocalDateTime loadStart = LocalDateTime.now();
+        changedDuringLoad = ConcurrentHashMap.newKeySet();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+                users.forEach(this::put);
+            }
+        });
+        Set<Long> changed = changedDuringLoad;
+        changedDuringLoad = null;
+        reload(changed);
+        syncedAt = loadStart;
+        ready = true;
+        log.info("User replica loaded {} users ({} bytes per user) in {} ms",
+                size(), Math.round(bytesPerUser()), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-read the users updated since the previous reload started, less the overlap
+     * A row read just before a concurrent save lands after it, but it is updated
+     * again within the overlap and so corrected by the next delta reload.
+     */
+    @Scheduled(fixedDelayString = "${users.replica.delta-interval:PT1M}")
+    public void reloadChanged() {
+        LocalDateTime since = syncedAt;
+        if (!ready || since == null) {
+            return;
+        }
+        LocalDateTime start = LocalDateTime.now();
+        AtomicInteger reloaded = new AtomicInteger();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = userRepository.streamSummariesUpdatedSince(
+                    since.minus(config.getDeltaOverlap()))) {
+                users.forEach(user -> {
+                    put(user);
+                    reloaded.incrementAndGet();
+                });
+            }
+        });
+        syncedAt = start;
+        meterRegistry.counter("users.replica.delta.rows").increment(reloaded.get());
+    }
+
+    /**
+     * Users in request order; unknown IDs are skipped
+     */
+    public List<UserDetailsResponse> findByIds(List<Long> userIds) {
+        List<UserDetailsResponse> users = new ArrayList<>(userIds.size());
+        long stamp = lock.readLock();
+        try {
+            for (Long userId : userIds) {
+                UserDetailsResponse user = userId != null ? table.get(userId) : null;
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        meterRegistry.counter("users.replica.lookups").increment(userIds.size());
+        return users;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public double bytesPerUser() {
+        long stamp = lock.readLock();
+        try {
+            return table.size() == 0 ? 0 : (double) table.bytes() / table.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Set<Long> changed = changedDuringLoad;
+        if (changed != null) {
+            changed.add(event.userId());
+        }
+        if (event.kind() == UserChangedEvent.Kind.DELETED) {
+            remove(event.userId());
+        } else {
+            put(event.user());
+        }
+    }
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        Set<Long> changed = changedDuringLoad;
+        if (changed != null) {
+            changed.addAll(userIds);
+        }
+        reload(userIds);
+    }
+
+    private void reload(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(userIds);
+        for (User user : userRepository.findAllById(userIds)) {
+            put(UserSummary.of(user));
+            missing.remove(user.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    private void put(UserSummary user) {
+        long stamp = lock.writeLock();
+        try {
+            table.put(user);
+            if (table.garbageRatio() > config.getCompactGarbageRatio()) {
+                table.compact();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void remove(Long userId) {
+        long stamp = lock.writeLock();
+        try {
+            table.remove(userId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.biddergod.user_service.repository;
+
+import com.biddergod.user_service.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups through Hibernate's natural-ID API, served from the second-level cache when warm
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Find a user by Cognito sub (stored as username)
+     * Repeat lookups resolve sub -> id from the natural-ID cache and the entity from the entity cache
+     */
+    Optional<User> findByCognitoSub(String cognitoSub);
+}
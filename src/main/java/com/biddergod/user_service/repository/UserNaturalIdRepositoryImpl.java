@@ -0,0 +1,56 @@
+package com.biddergod.user_service.repository;
+
+import com.biddergod.user_service.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Optional;
+
+/**
+ * Spring Data fragment behind UserRepository.findByCognitoSub
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByCognitoSub(String cognitoSub) {
+        if (cognitoSub == null) {
+            return Optional.empty();
+        }
+        User user = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(cognitoSub);
+        if (user != null && cognitoSub.equals(user.getUsername())) {
+            return Optional.of(user);
+        }
+
+        // Not found, or a cached sub -> id entry outlived a re-key made on another replica:
+        // ask the database directly (stale entries for deleted users expire with the region TTL)
+        if (user != null) {
+            evictNaturalId(cognitoSub);
+        }
+        return entityManager
+                .createQuery("select u from User u where u.username = :sub", User.class)
+                .setParameter("sub", cognitoSub)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Drop just this sub's cached sub -> id entry; every other user's stays cached
+     */
+    private void evictNaturalId(String cognitoSub) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess cache = persister.getNaturalIdCacheAccessStrategy();
+        if (cache != null) {
+            cache.evict(cache.generateCacheKey(cognitoSub, persister, session));
+        }
+    }
+}
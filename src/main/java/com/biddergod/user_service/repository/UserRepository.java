@@ -1,13 +1,27 @@
 package com.biddergod.user_service.repository;
 
 import com.biddergod.user_service.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * A ListCrudRepository rather than a JpaRepository, so that nothing the shard router
+ * can't route compiles: entity proxies (getReferenceById), paging and batch deletes
+ */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends ListCrudRepository<User, Long>, UserNaturalIdRepository {
+
+    <S extends User> S saveAndFlush(S user);
 
     Optional<User> findByUsername(String username);
 
@@ -15,5 +29,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUsername(String username);
 
+    List<User> findByUsernameIn(Collection<String> usernames);
+
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * The given IDs whose user is deactivated, always read from the table: cached
+     * entities can miss a deactivation for their TTL when an invalidation is lost
+     */
+    @Query("select u.id from User u where u.id in :ids and u.deactivatedAt is not null")
+    List<Long> findDeactivatedIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream every user as a projection, in ID order
+     * Must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.biddergod.user_service.repository.UserSummary("
+            + "u.id, u.username, u.email, u.firstName, u.lastName, u.createdAt, u.updatedAt) "
+            + "from User u order by u.id")
+    Stream<UserSummary> streamAllSummaries();
+
+    /**
+     * Stream the users updated at or after the given time, as projections
+     * Must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.biddergod.user_service.repository.UserSummary("
+            + "u.id, u.username, u.email, u.firstName, u.lastName, u.createdAt, u.updatedAt) "
+            + "from User u where u.updatedAt >= :since order by u.id")
+    Stream<UserSummary> streamSummariesUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,30 @@
+package com.biddergod.user_service.repository;
+
+import com.biddergod.user_service.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the public user columns
+ * Used for streaming the table without filling the persistence context
+ */
+public record UserSummary(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getCreatedAt(),
+                user.getUpdatedAt());
+    }
+}
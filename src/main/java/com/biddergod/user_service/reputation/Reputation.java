@@ -0,0 +1,14 @@
+package com.biddergod.user_service.reputation;
+
+/**
+ * A user's reputation as this replica currently sees it
+ * @param score sum of all feedback points
+ * @param positiveCount feedback entries with positive points
+ * @param negativeCount feedback entries with negative points
+ */
+public record Reputation(long userId, long score, long positiveCount, long negativeCount) {
+
+    public static Reputation none(long userId) {
+        return new Reputation(userId, 0, 0, 0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.biddergod.user_service.reputation;
+
+/**
+ * Implemented by beans that derive data from reputation scores
+ * Called on the thread that changed the score, so implementations must be cheap
+ * and re-read the score from ReputationStore rather than trust call order
+ */
+public interface ReputationListener {
+
+    void onReputationChanged(long userId);
+}
@@ -0,0 +1,369 @@
+package com.biddergod.user_service.reputation;
+
+import com.biddergod.user_service.config.ReputationConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory reputation scores with write-behind to user_reputation
+ * Increments land in per-user LongAdders, so concurrent feedback for the same user
+ * never contends on a lock or a row; a scheduled flush adds the accumulated deltas
+ * to the table in batches. Reads combine the last synced totals with the unflushed
+ * deltas and never touch the database. Rows changed by other replicas are re-read
+ * every refresh interval, so a read is at most one flush plus one refresh interval
+ * behind the rest of the cluster; isFresh() reports when syncing has fallen behind.
+ * Increments that must survive a crash (feedback) skip the adders: addInTransaction
+ * writes them with the transaction that produced them, and reload re-reads the
+ * totals once it has committed.
+ * Every change, local or synced, is passed on to the ReputationListener beans.
+ * The table is not sharded: rows live on the default data source.
+ */
+@Component
+public class ReputationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReputationStore.class);
+
+    private static final String SELECT_SQL =
+            "SELECT user_id, score, positive_count, negative_count FROM user_reputation";
+    private static final String UPDATE_SQL =
+            "UPDATE user_reputation SET score = score + ?, positive_count = positive_count + ?, "
+                    + "negative_count = negative_count + ?, updated_at = ? WHERE user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO user_reputation (score, positive_count, negative_count, updated_at, user_id) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReputationConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Looked up lazily so listeners may depend on this store
+    @Autowired
+    private ObjectProvider<ReputationListener> listenerProvider;
+
+    private volatile List<ReputationListener> listeners;
+
+    private final Clock clock = Clock.systemDefaultZone();
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Users with unflushed deltas
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Flush and refresh both rewrite the synced totals
+    private final Object syncLock = new Object();
+
+    // Start of the last successful load or refresh (epoch millis), 0 before the first
+    private volatile long syncedAt;
+
+    private Counter recorded;
+    private Counter written;
+    private Timer flushTimer;
+
+    /**
+     * Totals as of the last sync with the table, plus what this replica added since
+     */
+    private static final class Entry {
+        volatile long score;
+        volatile long positiveCount;
+        volatile long negativeCount;
+        final LongAdder scoreDelta = new LongAdder();
+        final LongAdder positiveDelta = new LongAdder();
+        final LongAdder negativeDelta = new LongAdder();
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        recorded = Counter.builder("users.reputation.recorded")
+                .description("Reputation increments accepted")
+                .register(meterRegistry);
+        written = Counter.builder("users.reputation.written")
+                .description("user_reputation rows written by flushes")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("users.reputation.flush")
+                .description("Duration of a batched reputation flush")
+                .register(meterRegistry);
+        Gauge.builder("users.reputation.staleness", this, ReputationStore::stalenessSeconds)
+                .description("Time since reputation was last synced with the table")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("users.reputation.pending", dirty, Set::size)
+                .description("Users with unflushed reputation increments")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = clock.millis();
+        synchronized (syncLock) {
+            jdbcTemplate.query(SELECT_SQL, this::sync);
+            syncedAt = start;
+        }
+        log.info("Loaded reputation for {} users in {} ms", entries.size(), clock.millis() - start);
+    }
+
+    /**
+     * Add points to a user's reputation. Never touches the database.
+     * @param points positive or negative; zero only counts towards neither total
+     */
+    public void record(long userId, long points) {
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        entry.scoreDelta.add(points);
+        if (points > 0) {
+            entry.positiveDelta.increment();
+        } else if (points < 0) {
+            entry.negativeDelta.increment();
+        }
+        // Marked after the deltas: a flush that misses them sees the mark again
+        dirty.add(userId);
+        recorded.increment();
+        notifyChanged(userId);
+    }
+
+    /**
+     * Add deltas to user_reputation in the caller's transaction, so they commit or roll
+     * back with whatever produced them. Memory is untouched: call reload after the commit.
+     */
+    public void addInTransaction(Collection<Reputation> deltas) {
+        Timestamp now = toTimestamp(clock.millis());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Reputation delta : deltas) {
+            rows.add(new Object[]{delta.score(), delta.positiveCount(), delta.negativeCount(), now, delta.userId()});
+        }
+        upsert(rows);
+    }
+
+    /**
+     * Re-read these users' totals from the table
+     */
+    public void reload(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        try {
+            synchronized (syncLock) {
+                for (int from = 0; from < ids.size(); from += config.getBatchSize()) {
+                    List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + config.getBatchSize()));
+                    jdbcTemplate.query(SELECT_SQL + " WHERE user_id IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", this::sync, chunk.toArray());
+                }
+            }
+        } catch (RuntimeException e) {
+            // The next refresh picks the rows up by updated_at
+            log.warn("Failed to reload reputation for {} users: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Current reputation, served from memory; users without feedback score zero
+     */
+    public Reputation get(long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return Reputation.none(userId);
+        }
+        return new Reputation(userId,
+                entry.score + entry.scoreDelta.sum(),
+                entry.positiveCount + entry.positiveDelta.sum(),
+                entry.negativeCount + entry.negativeDelta.sum());
+    }
+
+    /**
+     * Reputations in request order
+     */
+    public List<Reputation> get(List<Long> userIds) {
+        List<Reputation> reputations = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (userId != null) {
+                reputations.add(get(userId));
+            }
+        }
+        return reputations;
+    }
+
+    /**
+     * When other replicas' writes were last picked up, null before the initial load
+     */
+    public Instant syncedAt() {
+        long synced = syncedAt;
+        return synced == 0 ? null : Instant.ofEpochMilli(synced);
+    }
+
+    /**
+     * False once the last sync is older than users.reputation.max-staleness
+     */
+    public boolean isFresh() {
+        long synced = syncedAt;
+        return synced != 0 && clock.millis() - synced <= config.getMaxStaleness().toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${users.reputation.flush-interval:PT5S}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        flushTimer.record(this::flushPending);
+    }
+
+    /**
+     * Pick up rows other replicas changed since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${users.reputation.refresh-interval:PT5S}")
+    public void refresh() {
+        long synced = syncedAt;
+        if (synced == 0) {
+            return;
+        }
+        long start = clock.millis();
+        Timestamp since = toTimestamp(synced - config.getRefreshOverlap().toMillis());
+        try {
+            synchronized (syncLock) {
+                jdbcTemplate.query(SELECT_SQL + " WHERE updated_at >= ?", this::sync, since);
+                syncedAt = start;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh reputation: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!dirty.isEmpty()) {
+            log.info("Flushing reputation increments for {} users on shutdown", dirty.size());
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        synchronized (syncLock) {
+            List<Object[]> batch = new ArrayList<>(config.getBatchSize());
+            for (Long userId : dirty) {
+                dirty.remove(userId);
+                Entry entry = entries.get(userId);
+                long score = entry.scoreDelta.sum();
+                long positive = entry.positiveDelta.sum();
+                long negative = entry.negativeDelta.sum();
+                if (score == 0 && positive == 0 && negative == 0) {
+                    continue;
+                }
+                batch.add(new Object[]{score, positive, negative, toTimestamp(clock.millis()), userId});
+                if (batch.size() >= config.getBatchSize()) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(config.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        }
+    }
+
+    private void writeBatch(List<Object[]> batch) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> upsert(batch));
+        } catch (RuntimeException e) {
+            // Rolled back: the deltas are still in the adders, mark them for the next flush
+            log.warn("Failed to flush reputation for {} users: {}", batch.size(), e.getMessage());
+            batch.forEach(row -> dirty.add((Long) row[4]));
+            return;
+        }
+        // Move the written deltas into the synced totals
+        for (Object[] row : batch) {
+            Entry entry = entries.get((Long) row[4]);
+            long score = (Long) row[0];
+            long positive = (Long) row[1];
+            long negative = (Long) row[2];
+            entry.score += score;
+            entry.positiveCount += positive;
+            entry.negativeCount += negative;
+            entry.scoreDelta.add(-score);
+            entry.positiveDelta.add(-positive);
+            entry.negativeDelta.add(-negative);
+        }
+        written.increment(batch.size());
+    }
+
+    /**
+     * Add each row's deltas to the user's row, creating the rows that don't exist yet
+     */
+    private void upsert(List<Object[]> rows) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private void sync(ResultSet rs) throws SQLException {
+        long userId = rs.getLong("user_id");
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        entry.score = rs.getLong("score");
+        entry.positiveCount = rs.getLong("positive_count");
+        entry.negativeCount = rs.getLong("negative_count");
+        notifyChanged(userId);
+    }
+
+    private void notifyChanged(long userId) {
+        List<ReputationListener> current = listeners;
+        if (current == null) {
+            current = listenerProvider.orderedStream().toList();
+            listeners = current;
+        }
+        for (ReputationListener listener : current) {
+            listener.onReputationChanged(userId);
+        }
+    }
+
+    private static Timestamp toTimestamp(long epochMillis) {
+        // Same zone handling as the LocalDateTime audit columns
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    double stalenessSeconds() {
+        long synced = syncedAt;
+        return synced == 0 ? 0.0 : (clock.millis() - synced) / 1000.0;
+    }
+
+    int pendingCount() {
+        return dirty.size();
+    }
+}
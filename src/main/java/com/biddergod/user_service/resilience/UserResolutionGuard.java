@@ -0,0 +1,174 @@
+package com.biddergod.user_service.resilience;
+
+import com.biddergod.user_service.config.UserResolutionConfig;
+import com.biddergod.user_service.deadline.RequestDeadline;
+import com.biddergod.user_service.observability.RequestTimings;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead, timeout and circuit breaker around the user-resolution DB path
+ * Calls run on a bounded pool so a stalled database can't tie up request threads
+ * for longer than the configured timeout, and an open circuit fails fast
+ * The wait is also capped by the request deadline; running out of request time
+ * is the caller's budget, not a fault of the user store, so it doesn't count
+ * against the circuit
+ */
+@Component
+public class UserResolutionGuard {
+
+    @Autowired
+    private UserResolutionConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private CircuitBreaker circuitBreaker;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(config.getSlidingWindowSize())
+                .minimumNumberOfCalls(config.getMinimumNumberOfCalls())
+                .failureRateThreshold(config.getFailureRateThreshold())
+                .slowCallRateThreshold(config.getFailureRateThreshold())
+                .slowCallDurationThreshold(config.getTimeout())
+                .waitDurationInOpenState(config.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(config.getPermittedCallsInHalfOpenState())
+                .build();
+        circuitBreaker = CircuitBreaker.of("user-resolution", circuitBreakerConfig);
+
+        BlockingQueue<Runnable> queue = config.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(config.getQueueCapacity())
+                : new SynchronousQueue<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                config.getMaxConcurrentCalls(), config.getMaxConcurrentCalls(),
+                60, TimeUnit.SECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-resolution-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("users.resolution.circuit.open", this, guard -> guard.isCallPermitted() ? 0 : 1)
+                .description("1 while user resolution is short-circuited")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return false while the circuit is open and calls would fail fast
+     */
+    public boolean isCallPermitted() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Run a user-resolution call under the bulkhead, timeout and circuit breaker
+     * @throws UserResolutionUnavailableException if the call was rejected, timed out or hit a database error
+     * @throws com.biddergod.user_service.deadline.DeadlineExceededException if the request deadline passed first
+     */
+    public <T> T execute(Supplier<T> call) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadline.exceeded();
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw degraded("circuit_open", new UserResolutionUnavailableException("User resolution circuit is open"));
+        }
+
+        // Repository time, query counts and the deadline on the worker still belong to this request;
+        // the worker records into its own timings, merged only once its result is in
+        RequestTimings timings = RequestTimings.current();
+        RequestTimings workerTimings = RequestTimings.detachedFrom(timings);
+        Future<T> future;
+        try {
+            future = executor.submit((Callable<T>) () ->
+                    RequestDeadline.supplyWith(deadline, () -> RequestTimings.supplyWith(workerTimings, call)));
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.releasePermission();
+            throw degraded("bulkhead_full", new UserResolutionUnavailableException("User resolution bulkhead is full", e));
+        }
+
+        long start = System.nanoTime();
+        long timeoutNanos = config.getTimeout().toNanos();
+        if (deadline != null) {
+            timeoutNanos = Math.min(timeoutNanos, Math.max(0, deadline.remainingNanos()));
+        }
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (timings != null) {
+                timings.merge(workerTimings);
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (deadline != null && deadline.isExpired()) {
+                circuitBreaker.releasePermission();
+                throw deadline.exceeded();
+            }
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw degraded("timeout", new UserResolutionUnavailableException("User resolution timed out", e));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw degraded("interrupted", new UserResolutionUnavailableException("User resolution interrupted", e));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (deadline != null && deadline.isExpired()) {
+                // Statement cancelled by the deadline-capped transaction timeout
+                circuitBreaker.releasePermission();
+                throw deadline.exceeded();
+            }
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, cause);
+            if (cause instanceof DataAccessException) {
+                throw degraded("db_error", new UserResolutionUnavailableException("User store unavailable", cause));
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private UserResolutionUnavailableException degraded(String reason, UserResolutionUnavailableException e) {
+        meterRegistry.counter("users.resolution.degraded", "reason", reason).increment();
+        return e;
+    }
+}
@@ -0,0 +1,17 @@
+package com.biddergod.user_service.resilience;
+
+/**
+ * Thrown when the local user row can't be resolved in time:
+ * circuit open, bulkhead full, timed out or the database failed
+ * Callers should fall back to token claims or answer 503
+ */
+public class UserResolutionUnavailableException extends RuntimeException {
+
+    public UserResolutionUnavailableException(String message) {
+        super(message);
+    }
+
+    public UserResolutionUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,224 @@
+package com.biddergod.user_service.search;
+
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.invalidation.UserInvalidationListener;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * N-gram search index kept in memory, used with the H2 profile where
+ * trigram indexes are not available
+ * Seeded by streaming the table at startup, kept current from local UserChangedEvents
+ * and reloads entries invalidated by other replicas
+ */
+@Component
+@ConditionalOnProperty(name = "users.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserSearchIndex implements UserSearchIndex, UserInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryUserSearchIndex.class);
+
+    // Same default cut-off as pg_trgm's similarity_threshold
+    private static final double SIMILARITY_THRESHOLD = 0.3;
+    private static final double PREFIX_BOOST = 1.0;
+    // Bounds the work spent on very short, very common prefixes
+    private static final int MAX_PREFIX_TERMS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // userId -> grams and terms currently indexed for it, so updates can remove them
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+
+    private record Document(Set<String> grams, Set<String> terms) {
+    }
+
+    /**
+     * Rebuild the index from the users table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+            users.forEach(this::index);
+        }
+        log.info("User search index built with {} users in {} ms",
+                documents.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.kind() == UserChangedEvent.Kind.DELETED) {
+            remove(event.userId());
+        } else {
+            index(event.user());
+        }
+    }
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        Set<Long> missing = new HashSet<>(userIds);
+        for (User user : userRepository.findAllById(userIds)) {
+            index(UserSummary.of(user));
+            missing.remove(user.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    public synchronized void index(UserSummary user) {
+        remove(user.id());
+
+        Set<String> userTerms = new LinkedHashSet<>();
+        addTerm(userTerms, user.username());
+        addTerm(userTerms, user.email());
+        addTerm(userTerms, user.firstName());
+        addTerm(userTerms, user.lastName());
+        if (user.email() != null && user.email().indexOf('@') > 0) {
+            addTerm(userTerms, user.email().substring(0, user.email().indexOf('@')));
+        }
+
+        Set<String> userGrams = new LinkedHashSet<>();
+        userGrams.addAll(trigrams(normalize(user.email())));
+        userGrams.addAll(trigrams(normalize(fullName(user))));
+
+        for (String term : userTerms) {
+            terms.computeIfAbsent(term, k -> ConcurrentHashMap.newKeySet()).add(user.id());
+        }
+        for (String gram : userGrams) {
+            grams.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(user.id());
+        }
+        documents.put(user.id(), new Document(userGrams, userTerms));
+    }
+
+    public synchronized void remove(Long userId) {
+        Document document = documents.remove(userId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            removePosting(terms, term, userId);
+        }
+        for (String gram : document.grams()) {
+            removePosting(grams, gram, userId);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        // Prefix matches on username, email, email local part and names
+        NavigableMap<String, Set<Long>> prefixed = terms.subMap(query, true, query + Character.MAX_VALUE, true);
+        int scanned = 0;
+        for (Set<Long> ids : prefixed.values()) {
+            for (Long id : ids) {
+                scores.put(id, PREFIX_BOOST);
+            }
+            if (++scanned >= MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+
+        // Trigram similarity on email and full name
+        Set<String> queryGrams = trigrams(query);
+        if (!queryGrams.isEmpty()) {
+            Map<Long, Integer> hits = new HashMap<>();
+            for (String gram : queryGrams) {
+                Set<Long> ids = grams.get(gram);
+                if (ids != null) {
+                    for (Long id : ids) {
+                        hits.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<Long, Integer> hit : hits.entrySet()) {
+                double similarity = (double) hit.getValue() / queryGrams.size();
+                if (similarity >= SIMILARITY_THRESHOLD) {
+                    scores.merge(hit.getKey(), similarity, Double::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.add(ranked.get(i).getKey());
+        }
+        return result;
+    }
+
+    private static void addTerm(Set<String> target, String value) {
+        String term = normalize(value);
+        if (!term.isEmpty()) {
+            target.add(term);
+        }
+    }
+
+    private static <K> void removePosting(Map<K, Set<Long>> postings, K key, Long userId) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(userId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static String fullName(UserSummary user) {
+        String first = user.firstName() != null ? user.firstName() : "";
+        String last = user.lastName() != null ? user.lastName() : "";
+        return (first + " " + last).trim();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    /**
+     * Trigrams of each word, padded like pg_trgm (two spaces before, one after)
+     */
+    static Set<String> trigrams(String text) {
+        if (text.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.biddergod.user_service.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Search backed by PostgreSQL indexes (see schema-postgres.sql)
+ * Username/email prefixes use text_pattern_ops B-tree indexes,
+ * partial names and emails use pg_trgm GIN indexes
+ */
+@Component
+@ConditionalOnProperty(name = "users.search.engine", havingValue = "postgres")
+public class PostgresUserSearchIndex implements UserSearchIndex {
+
+    private static final String FULL_NAME = "lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, ''))";
+    private static final String PREFIX_MATCH =
+            "(lower(u.username) LIKE :prefix ESCAPE '\\' OR lower(u.email) LIKE :prefix ESCAPE '\\')";
+
+    private static final String SEARCH_SQL =
+            "SELECT u.id FROM users u"
+            + " WHERE " + PREFIX_MATCH
+            + " OR lower(u.email) % :query"
+            + " OR " + FULL_NAME + " % :query"
+            + " ORDER BY CASE WHEN " + PREFIX_MATCH + " THEN 1 ELSE 0 END DESC,"
+            + " greatest(similarity(lower(u.email), :query), similarity(" + FULL_NAME + ", :query)) DESC,"
+            + " u.id"
+            + " LIMIT :limit";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> search(String query, int limit) {
+        List<?> rows = entityManager.createNativeQuery(SEARCH_SQL)
+                .setParameter("prefix", escapeLike(query) + "%")
+                .setParameter("query", query)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> ((Number) row).longValue())
+                .toList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
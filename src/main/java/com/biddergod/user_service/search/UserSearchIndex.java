@@ -0,0 +1,16 @@
+package com.biddergod.user_service.search;
+
+import java.util.List;
+
+/**
+ * Ranked lookup of users by partial name, username prefix or email
+ */
+public interface UserSearchIndex {
+
+    /**
+     * @param query normalized (trimmed, lower-case) search text
+     * @param limit maximum number of results
+     * @return matching user IDs, best match first
+     */
+    List<Long> search(String query, int limit);
+}
@@ -0,0 +1,62 @@
+package com.biddergod.user_service.search;
+
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class UserSearchService {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.search.max-results:50}")
+    private int maxResults;
+
+    /**
+     * Search users by partial name, username prefix or email
+     * @param query the search text, at least MIN_QUERY_LENGTH characters
+     * @param limit requested number of results, capped at users.search.max-results
+     * @return matching users, best match first
+     */
+    public List<User> search(String query, int limit) {
+        String normalized = query == null ? "" : query.trim().toLowerCase();
+        if (normalized.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                "Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        int cappedLimit = Math.max(1, Math.min(limit, maxResults));
+
+        List<Long> rankedIds = userSearchIndex.search(normalized, cappedLimit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // One batch load, then restore the ranking order
+        Map<Long, User> byId = userRepository.findAllById(rankedIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+}
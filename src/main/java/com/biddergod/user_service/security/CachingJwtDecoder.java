@@ -0,0 +1,31 @@
+package com.biddergod.user_service.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * JwtDecoder decorator that skips signature verification for tokens
+ * already verified and still valid
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final VerifiedTokenCache cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, VerifiedTokenCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = cache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        cache.put(token, jwt);
+        return jwt;
+    }
+}
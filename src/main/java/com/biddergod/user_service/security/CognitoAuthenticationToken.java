@@ -0,0 +1,36 @@
+package com.biddergod.user_service.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+import java.util.Map;
+
+/**
+ * Authentication for a verified Cognito JWT.
+ * The principal is a CognitoUserDetails built once per token by CognitoJwtAuthenticationConverter,
+ * so downstream code never has to re-parse claims.
+ */
+public class CognitoAuthenticationToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+
+    private final CognitoUserDetails userDetails;
+
+    public CognitoAuthenticationToken(CognitoUserDetails userDetails) {
+        super(userDetails.getJwt(), userDetails, userDetails.getJwt(), userDetails.getAuthorities());
+        this.userDetails = userDetails;
+        setAuthenticated(true);
+    }
+
+    public CognitoUserDetails getUserDetails() {
+        return userDetails;
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+
+    @Override
+    public String getName() {
+        return userDetails.getCognitoSub();
+    }
+}
@@ -0,0 +1,24 @@
+package com.biddergod.user_service.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Collection;
+
+/**
+ * Converts a verified JWT into a CognitoAuthenticationToken.
+ * Cognito groups become ROLE_ authorities and OAuth2 scopes become SCOPE_ authorities.
+ */
+public class CognitoJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtGrantedAuthoritiesConverter scopeAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> scopes = scopeAuthoritiesConverter.convert(jwt);
+        return new CognitoAuthenticationToken(new CognitoUserDetails(jwt, scopes));
+    }
+}
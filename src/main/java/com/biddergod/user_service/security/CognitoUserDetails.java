@@ -1,20 +1,41 @@
 package com.biddergod.user_service.security;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
+/**
+ * Immutable view of a Cognito token.
+ * Claims are extracted once at construction; groups are exposed both as raw names
+ * and as ROLE_ authorities so method security can use hasRole(...) directly.
+ */
 public class CognitoUserDetails implements UserDetails {
 
+    public static final String GROUPS_CLAIM = "cognito:groups";
+    public static final String ROLE_PREFIX = "ROLE_";
+
     private final Jwt jwt;
     private final String username;
     private final String email;
     private final String cognitoSub;
+    private final List<String> groups;
+    private final List<GrantedAuthority> authorities;
 
     public CognitoUserDetails(Jwt jwt) {
+        this(jwt, Collections.emptyList());
+    }
+
+    /**
+     * @param jwt the decoded token
+     * @param additionalAuthorities authorities derived elsewhere (e.g. SCOPE_ entries)
+     */
+    public CognitoUserDetails(Jwt jwt, Collection<? extends GrantedAuthority> additionalAuthorities) {
         this.jwt = jwt;
         this.cognitoSub = jwt.getSubject();
 
@@ -30,13 +51,34 @@ public class CognitoUserDetails implements UserDetails {
             this.username = jwt.getClaimAsString("username");
             this.email = jwt.getClaimAsString("email");
         }
+
+        this.groups = extractGroups(jwt);
+
+        List<GrantedAuthority> granted = new ArrayList<>(groups.size() + additionalAuthorities.size());
+        for (String group : groups) {
+            granted.add(new SimpleGrantedAuthority(ROLE_PREFIX + group));
+        }
+        granted.addAll(additionalAuthorities);
+        this.authorities = Collections.unmodifiableList(granted);
+    }
+
+    private static List<String> extractGroups(Jwt jwt) {
+        Object claim = jwt.getClaim(GROUPS_CLAIM);
+        if (claim instanceof Collection<?> values && !values.isEmpty()) {
+            List<String> names = new ArrayList<>(values.size());
+            for (Object value : values) {
+                if (value != null) {
+                    names.add(value.toString());
+                }
+            }
+            return Collections.unmodifiableList(names);
+        }
+        return Collections.emptyList();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Extract roles/groups from Cognito token if needed
-        // For now, return empty collection
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
@@ -61,6 +103,17 @@ public class CognitoUserDetails implements UserDetails {
         return username;
     }
 
+    /**
+     * Cognito groups from the cognito:groups claim, never null
+     */
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public boolean isInGroup(String group) {
+        return groups.contains(group);
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -89,4 +142,4 @@ public class CognitoUserDetails implements UserDetails {
     public Object getClaim(String claimName) {
         return jwt.getClaim(claimName);
     }
-}
\ No newline at end of file
+}
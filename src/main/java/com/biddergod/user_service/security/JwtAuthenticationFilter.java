@@ -1,36 +0,0 @@
-package com.biddergod.user_service.security;
-
-import com.biddergod.user_service.service.JwtService;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-
-    @Autowired
-    private JwtService jwtService;
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
-                                  FilterChain filterChain) throws ServletException, IOException {
-
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        // If we have a JWT authentication, ensure the user exists in our database
-        if (authentication != null && authentication.isAuthenticated()) {
-            // This will automatically create user in database if not exists
-            jwtService.getCurrentUser();
-        }
-
-        filterChain.doFilter(request, response);
-    }
-}
\ No newline at end of file
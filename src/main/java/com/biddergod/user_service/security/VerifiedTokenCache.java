@@ -0,0 +1,83 @@
+package com.biddergod.user_service.security;
+
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens whose signature and claims were already verified, keyed by the raw token
+ * An entry expires at the token's exp (or the configured max TTL, if sooner);
+ * when the cache is full new tokens are simply not cached until the sweep frees room
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private TokenResolutionConfig config;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+
+    private record Entry(Jwt jwt, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("users.tokens.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("users.tokens.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("users.tokens.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the verified token, or null if absent or expired
+     */
+    public Jwt get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAtMillis()) {
+            entries.remove(token, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.jwt();
+    }
+
+    public void put(String token, Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null || entries.size() >= config.getCacheMaxEntries()) {
+            return;
+        }
+        long expiresAtMillis = Math.min(expiresAt.toEpochMilli(),
+                System.currentTimeMillis() + config.getCacheMaxTtl().toMillis());
+        entries.put(token, new Entry(jwt, expiresAtMillis));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "PT30S")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now >= entry.expiresAtMillis());
+    }
+}
@@ -1,9 +1,12 @@
 package com.biddergod.user_service.service;
 
 import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.observability.UserResolutionEvent;
 import com.biddergod.user_service.repository.UserRepository;
 import com.biddergod.user_service.security.CognitoUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,25 +19,31 @@ public class CognitoUserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Find or create user based on Cognito token information
      * This method handles both access tokens and ID tokens
      */
     public User findOrCreateUser(CognitoUserDetails cognitoDetails) {
+        UserResolutionEvent event = new UserResolutionEvent();
+        event.begin();
         String cognitoSub = cognitoDetails.getCognitoSub();
         String email = cognitoDetails.getEmail();
         String cognitoUsername = cognitoDetails.getCognitoUsername();
 
         // Strategy 1: Find by cognitoSub (most reliable)
-        Optional<User> existingUser = userRepository.findByUsername(cognitoSub);
+        Optional<User> existingUser = userRepository.findByCognitoSub(cognitoSub);
         if (existingUser.isPresent()) {
             User user = existingUser.get();
             // Update email if we have it now and it was missing before
             if (email != null && (user.getEmail() == null || user.getEmail().endsWith("@cognito.local"))) {
                 user.setEmail(email);
-                userRepository.save(user);
+                save(user);
+                event.updated = true;
             }
-            return user;
+            return resolved(event, UserResolutionEvent.BY_SUB, user);
         }
 
         // Strategy 2: Find by email if available
@@ -44,13 +53,23 @@ public class CognitoUserService {
                 User user = existingUser.get();
                 // Update username to cognitoSub for future lookups
                 user.setUsername(cognitoSub);
-                userRepository.save(user);
-                return user;
+                save(user);
+                event.updated = true;
+                return resolved(event, UserResolutionEvent.BY_EMAIL, user);
             }
         }
 
         // Strategy 3: Create new user
-        return createNewUser(cognitoSub, email, cognitoUsername);
+        return resolved(event, UserResolutionEvent.CREATED, createNewUser(cognitoSub, email, cognitoUsername));
+    }
+
+    private static User resolved(UserResolutionEvent event, String strategy, User user) {
+        event.strategy = strategy;
+        if (user.getId() != null) {
+            event.userId = user.getId();
+        }
+        event.commit();
+        return user;
     }
 
     /**
@@ -74,7 +93,7 @@ public class CognitoUserService {
             newUser.setFirstName(cognitoUsername);
         }
 
-        return userRepository.save(newUser);
+        return save(newUser);
     }
 
     /**
@@ -93,12 +112,21 @@ public class CognitoUserService {
         }
 
         if (updated) {
-            return userRepository.save(user);
+            return save(user);
         }
 
         return user;
     }
 
+    /**
+     * Persist a user and notify listeners holding in-process user data
+     */
+    private User save(User user) {
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(savedUser));
+        return savedUser;
+    }
+
     /**
      * Get user information with enhanced details
      */
@@ -1,6 +1,8 @@
 package com.biddergod.user_service.service;
 
 import com.biddergod.user_service.security.CognitoUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
@@ -12,6 +14,8 @@ import java.util.Optional;
 @Service
 public class IdTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(IdTokenService.class);
+
     @Autowired
     private JwtDecoder jwtDecoder;
 
@@ -41,7 +45,7 @@ public class IdTokenService {
 
         } catch (Exception e) {
             // Log the error but don't fail the request
-            System.err.println("Failed to parse ID token: " + e.getMessage());
+            log.warn("Failed to parse ID token: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -1,7 +1,11 @@
 package com.biddergod.user_service.service;
 
 import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.observability.RequestTimings;
 import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.resilience.UserResolutionGuard;
+import com.biddergod.user_service.resilience.UserResolutionUnavailableException;
+import com.biddergod.user_service.security.CognitoAuthenticationToken;
 import com.biddergod.user_service.security.CognitoUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -9,12 +13,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Not transactional: claim-only methods must never borrow a pool connection.
+ * User resolution runs in CognitoUserService's own transaction under UserResolutionGuard.
+ */
 @Service
-@Transactional
 public class JwtService {
 
     @Autowired
@@ -23,22 +31,36 @@ public class JwtService {
     @Autowired
     private CognitoUserService cognitoUserService;
 
+    @Autowired
+    private UserResolutionGuard userResolutionGuard;
+
+    @Autowired
+    private UserIdCache userIdCache;
+
     /**
-     * Get the currently authenticated user from JWT token
+     * Get the currently authenticated user from JWT token, creating the row on first sight
+     * This is the only place requests provision users: handlers that need the local
+     * User call it explicitly, claim-only endpoints never pay the lookup-or-insert cost
+     * @return empty if there is no valid token or the user has been deactivated
+     * @throws UserResolutionUnavailableException if the user store is slow or unavailable
      */
     public Optional<User> getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication instanceof JwtAuthenticationToken jwtToken) {
-            Jwt jwt = jwtToken.getToken();
-            CognitoUserDetails userDetails = new CognitoUserDetails(jwt);
-
-            // Use the enhanced CognitoUserService
-            User user = cognitoUserService.findOrCreateUser(userDetails);
-            return Optional.of(user);
+        RequestTimings timings = RequestTimings.current();
+        long start = System.nanoTime();
+        Optional<User> user;
+        try {
+            user = getCurrentCognitoUserDetails()
+                    .map(details -> userResolutionGuard.execute(() -> cognitoUserService.findOrCreateUser(details)));
+        } finally {
+            if (timings != null) {
+                timings.add(RequestTimings.Phase.RESOLVE, System.nanoTime() - start);
+            }
         }
-
-        return Optional.empty();
+        // Deactivated accounts keep their row but are treated like unknown tokens
+        user = user.filter(u -> u.getDeactivatedAt() == null);
+        // Lets LastSeenFilter map this token to its user without a query
+        user.ifPresent(u -> userIdCache.put(u.getUsername(), u.getId()));
+        return user;
     }
 
     /**
@@ -54,9 +76,15 @@ public class JwtService {
     public Optional<CognitoUserDetails> getCurrentCognitoUserDetails() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        // Principal parsed once by CognitoJwtAuthenticationConverter
+        if (authentication instanceof CognitoAuthenticationToken cognitoToken) {
+            return Optional.of(cognitoToken.getUserDetails());
+        }
+
+        // Fallback for plain JwtAuthenticationTokens (e.g. spring-security-test jwt())
         if (authentication instanceof JwtAuthenticationToken jwtToken) {
             Jwt jwt = jwtToken.getToken();
-            return Optional.of(new CognitoUserDetails(jwt));
+            return Optional.of(new CognitoUserDetails(jwt, jwtToken.getAuthorities()));
         }
 
         return Optional.empty();
@@ -73,7 +101,7 @@ public class JwtService {
         // For access tokens, we might not have email, so use cognitoSub as primary identifier
 
         // First try to find by cognitoSub (stored in username field for consistency)
-        Optional<User> existingUser = userRepository.findByUsername(cognitoSub);
+        Optional<User> existingUser = userRepository.findByCognitoSub(cognitoSub);
         if (existingUser.isPresent()) {
             return existingUser;
         }
@@ -119,30 +147,16 @@ public class JwtService {
      */
     public boolean hasRole(String role) {
         return getCurrentCognitoUserDetails()
-                .map(userDetails -> {
-                    // Extract groups/roles from cognito:groups claim
-                    Object groups = userDetails.getClaim("cognito:groups");
-                    if (groups instanceof java.util.List<?> groupList) {
-                        return groupList.contains(role);
-                    }
-                    return false;
-                })
+                .map(userDetails -> userDetails.isInGroup(role))
                 .orElse(false);
     }
 
     /**
      * Get user's Cognito groups
      */
-    @SuppressWarnings("unchecked")
-    public java.util.List<String> getUserGroups() {
+    public List<String> getUserGroups() {
         return getCurrentCognitoUserDetails()
-                .map(userDetails -> {
-                    Object groups = userDetails.getClaim("cognito:groups");
-                    if (groups instanceof java.util.List<?>) {
-                        return (java.util.List<String>) groups;
-                    }
-                    return java.util.Collections.<String>emptyList();
-                })
-                .orElse(java.util.Collections.emptyList());
+                .map(CognitoUserDetails::getGroups)
+                .orElse(Collections.emptyList());
     }
-}
\ No newline at end of file
+}
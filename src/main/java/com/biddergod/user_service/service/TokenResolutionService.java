@@ -0,0 +1,294 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import com.biddergod.user_service.deadline.RequestDeadline;
+import com.biddergod.user_service.dto.TokenResolutionRequest;
+import com.biddergod.user_service.dto.TokenResolutionResponse;
+import com.biddergod.user_service.dto.TokenResolutionResponse.Result;
+import com.biddergod.user_service.dto.TokenResolutionResponse.Status;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.resilience.UserResolutionGuard;
+import com.biddergod.user_service.resilience.UserResolutionUnavailableException;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import com.biddergod.user_service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves batches of tokens and subs for other services
+ * Token signatures are verified in parallel (verified tokens are cached until they expire),
+ * user IDs come from UserIdCache and one batched query for the misses.
+ * Users are only provisioned for verified tokens, never for bare subs.
+ * Deactivated users resolve to DEACTIVATED, never to their ID.
+ */
+@Service
+public class TokenResolutionService {
+
+    @Autowired
+    private TokenResolutionConfig config;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserIdCache userIdCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CognitoUserService cognitoUserService;
+
+    @Autowired
+    private UserResolutionGuard userResolutionGuard;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService verifyExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        verifyExecutor = Executors.newFixedThreadPool(config.getVerifyThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "token-verify-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        verifyExecutor.shutdownNow();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the batch is empty or larger than users.tokens.max-batch-size
+     */
+    public TokenResolutionResponse resolve(TokenResolutionRequest request) {
+        List<String> tokens = request.tokens() != null ? request.tokens() : Collections.emptyList();
+        List<String> subs = request.subs() != null ? request.subs() : Collections.emptyList();
+        int requested = tokens.size() + subs.size();
+        if (requested == 0) {
+            throw new IllegalArgumentException("At least one token or sub is required");
+        }
+        if (requested > config.getMaxBatchSize()) {
+            throw new IllegalArgumentException("At most " + config.getMaxBatchSize() + " tokens and subs per request");
+        }
+
+        Result[] results = new Result[requested];
+        Jwt[] verified = verify(tokens, results);
+
+        // Everything still unresolved needs a user ID
+        Set<String> wanted = new LinkedHashSet<>();
+        for (Jwt jwt : verified) {
+            if (jwt != null && jwt.getSubject() != null) {
+                wanted.add(jwt.getSubject());
+            }
+        }
+        for (String sub : subs) {
+            if (sub != null && !sub.isBlank()) {
+                wanted.add(sub);
+            }
+        }
+
+        Map<String, Long> userIds = new HashMap<>();
+        Set<String> deactivated = new HashSet<>();
+        boolean available = true;
+        try {
+            lookUp(wanted, userIds, deactivated);
+        } catch (UserResolutionUnavailableException e) {
+            available = false;
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            Jwt jwt = verified[i];
+            if (results[i] != null) {
+                continue;
+            }
+            if (jwt.getSubject() == null) {
+                results[i] = failed(i, Status.INVALID_TOKEN, null, "Token has no subject");
+                continue;
+            }
+            if (deactivated.contains(jwt.getSubject())) {
+                results[i] = failed(i, Status.DEACTIVATED, jwt.getSubject(), "User is deactivated");
+                continue;
+            }
+            Long userId = userIds.get(jwt.getSubject());
+            if (userId == null && available) {
+                User user = provision(jwt);
+                if (user != null && user.getDeactivatedAt() != null) {
+                    results[i] = failed(i, Status.DEACTIVATED, jwt.getSubject(), "User is deactivated");
+                    continue;
+                }
+                userId = user != null ? user.getId() : null;
+            }
+            results[i] = userId == null
+                    ? failed(i, Status.UNAVAILABLE, jwt.getSubject(), "User store unavailable")
+                    : resolved(i, jwt.getSubject(), userId, jwt);
+        }
+        for (int j = 0; j < subs.size(); j++) {
+            int index = tokens.size() + j;
+            String sub = subs.get(j);
+            if (sub == null || sub.isBlank()) {
+                results[index] = failed(index, Status.UNKNOWN_USER, sub, "Sub is required");
+            } else if (!available) {
+                results[index] = failed(index, Status.UNAVAILABLE, sub, "User store unavailable");
+            } else if (deactivated.contains(sub)) {
+                results[index] = failed(index, Status.DEACTIVATED, sub, "User is deactivated");
+            } else {
+                Long userId = userIds.get(sub);
+                results[index] = userId == null
+                        ? failed(index, Status.UNKNOWN_USER, sub, null)
+                        : resolved(index, sub, userId, null);
+            }
+        }
+
+        int resolvedCount = 0;
+        for (Result result : results) {
+            meterRegistry.counter("users.tokens.resolved", "status", result.status().name()).increment();
+            if (result.status() == Status.RESOLVED) {
+                resolvedCount++;
+            }
+        }
+        return new TokenResolutionResponse(List.of(results), resolvedCount, requested);
+    }
+
+    /**
+     * Verify every token, cached ones inline and the rest in parallel
+     * Failures are written to results at the token's index
+     */
+    private Jwt[] verify(List<String> tokens, Result[] results) {
+        Jwt[] verified = new Jwt[tokens.size()];
+        Map<Integer, Future<Jwt>> pending = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token == null || token.isBlank()) {
+                results[i] = failed(i, Status.INVALID_TOKEN, null, "Token is required");
+                continue;
+            }
+            Jwt cached = verifiedTokenCache.get(token);
+            if (cached != null) {
+                verified[i] = cached;
+            } else {
+                pending.put(i, verifyExecutor.submit(() -> jwtDecoder.decode(token)));
+            }
+        }
+
+        // Wait no longer than the caller does, or users.tokens.verify-timeout without a deadline
+        RequestDeadline deadline = RequestDeadline.current();
+        long waitUntil = System.nanoTime()
+                + (deadline != null ? deadline.remainingNanos() : config.getVerifyTimeout().toNanos());
+        for (Map.Entry<Integer, Future<Jwt>> entry : pending.entrySet()) {
+            int index = entry.getKey();
+            try {
+                verified[index] = entry.getValue().get(waitUntil - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // BadJwtException: the token itself is bad; anything else (e.g. JWKS unreachable) is ours
+                results[index] = e.getCause() instanceof BadJwtException
+                        ? failed(index, Status.INVALID_TOKEN, null, "Token verification failed")
+                        : failed(index, Status.UNAVAILABLE, null, "Token verification unavailable");
+            } catch (TimeoutException e) {
+                if (deadline != null) {
+                    pending.values().forEach(future -> future.cancel(true));
+                    throw deadline.exceeded();
+                }
+                // Later tokens get no extra wait, only whatever already finished
+                entry.getValue().cancel(true);
+                results[index] = failed(index, Status.UNAVAILABLE, null, "Token verification timed out");
+            } catch (InterruptedException e) {
+                pending.values().forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new UserResolutionUnavailableException("Token resolution interrupted", e);
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Fill userIds with the active users among subs and deactivated with the rest that exist
+     * Cached IDs are checked for deactivation against the table in one query by primary key:
+     * the cache is only invalidated by events, and a lost one must not keep a user active
+     */
+    private void lookUp(Set<String> subs, Map<String, Long> userIds, Set<String> deactivated) {
+        Map<Long, String> cached = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String sub : subs) {
+            Long userId = userIdCache.get(sub);
+            if (userId != null) {
+                cached.put(userId, sub);
+            } else {
+                missing.add(sub);
+            }
+        }
+        if (!cached.isEmpty()) {
+            List<Long> gone = userResolutionGuard.execute(() -> userRepository.findDeactivatedIds(cached.keySet()));
+            for (Long userId : gone) {
+                deactivated.add(cached.remove(userId));
+                userIdCache.evict(userId);
+            }
+            cached.forEach((userId, sub) -> userIds.put(sub, userId));
+        }
+        if (!missing.isEmpty()) {
+            List<User> users = userResolutionGuard.execute(() -> userRepository.findByUsernameIn(missing));
+            for (User user : users) {
+                if (user.getDeactivatedAt() != null) {
+                    // Not cached either, so the sub keeps being checked against the table
+                    deactivated.add(user.getUsername());
+                    continue;
+                }
+                userIds.put(user.getUsername(), user.getId());
+                userIdCache.put(user.getUsername(), user.getId());
+            }
+        }
+    }
+
+    /**
+     * @return the user, or null if the user store is unavailable
+     */
+    private User provision(Jwt jwt) {
+        try {
+            return userResolutionGuard.execute(() -> cognitoUserService.findOrCreateUser(new CognitoUserDetails(jwt)));
+        } catch (UserResolutionUnavailableException e) {
+            return null;
+        }
+    }
+
+    private static Result resolved(int index, String sub, Long userId, Jwt jwt) {
+        if (jwt == null) {
+            return new Result(index, Status.RESOLVED, sub, userId, null, null, null);
+        }
+        List<String> groups = new CognitoUserDetails(jwt).getGroups();
+        return new Result(index, Status.RESOLVED, sub, userId, groups, jwt.getExpiresAt(), null);
+    }
+
+    private static Result failed(int index, Status status, String sub, String error) {
+        return new Result(index, status, sub, null, null, null, error);
+    }
+}
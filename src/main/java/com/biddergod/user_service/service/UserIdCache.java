@@ -0,0 +1,91 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.invalidation.UserInvalidationListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cognito sub -> local user ID
+ * Filled on lookup, dropped when the user changes here or on another replica
+ * (a sub can move to another row when an email match is re-keyed).
+ * Bounded: the least recently used entry makes room for a new one, and entries
+ * expire after users.tokens.user-id-cache-ttl in case an invalidation was lost.
+ */
+@Component
+public class UserIdCache implements UserInvalidationListener {
+
+    @Autowired
+    private TokenResolutionConfig config;
+
+    // Access-ordered, guarded by this; the reverse map finds the sub on eviction by ID
+    private final LinkedHashMap<String, Entry> idsBySub = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, String> subsById = new HashMap<>();
+
+    private record Entry(Long userId, long expiresAtNanos) {
+    }
+
+    public synchronized Long get(String sub) {
+        Entry entry = idsBySub.get(sub);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            remove(sub, entry.userId());
+            return null;
+        }
+        return entry.userId();
+    }
+
+    public synchronized void put(String sub, Long userId) {
+        String previous = subsById.put(userId, sub);
+        if (previous != null && !previous.equals(sub)) {
+            idsBySub.remove(previous);
+        }
+        Entry replaced = idsBySub.put(sub, new Entry(userId, System.nanoTime() + config.getUserIdCacheTtl().toNanos()));
+        if (replaced != null && !replaced.userId().equals(userId)) {
+            subsById.remove(replaced.userId(), sub);
+        }
+        // Eldest first, so these are the least recently used
+        Iterator<Map.Entry<String, Entry>> eldest = idsBySub.entrySet().iterator();
+        while (idsBySub.size() > config.getUserIdCacheMaxEntries()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            subsById.remove(evicted.getValue().userId(), evicted.getKey());
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        String sub = subsById.remove(userId);
+        if (sub != null) {
+            idsBySub.remove(sub);
+        }
+    }
+
+    public synchronized int size() {
+        return idsBySub.size();
+    }
+
+    private void remove(String sub, Long userId) {
+        idsBySub.remove(sub);
+        subsById.remove(userId, sub);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        userIds.forEach(this::evict);
+    }
+}
@@ -1,12 +1,22 @@
 package com.biddergod.user_service.service;
 
+import com.biddergod.user_service.dto.UserProfilePatchRequest;
 import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.existence.UserExistenceFilter;
+import com.biddergod.user_service.observability.BatchLookupEvent;
 import com.biddergod.user_service.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -16,6 +26,13 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Absent when users.existence-filter.enabled=false
+    @Autowired(required = false)
+    private UserExistenceFilter existenceFilter;
+
     /**
      * Find user by ID
      * @param userId The user ID to search for
@@ -25,13 +42,43 @@ public class UserService {
         return userRepository.findById(userId);
     }
 
+    /**
+     * Find several users in one query
+     * @param userIds The user IDs to look up
+     * @return Found users in request order; unknown IDs are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByIds(List<Long> userIds) {
+        BatchLookupEvent event = new BatchLookupEvent();
+        event.begin();
+        List<User> loaded = userRepository.findAllById(userIds);
+        event.end();
+
+        Map<Long, User> byId = new HashMap<>(loaded.size() * 2);
+        for (User user : loaded) {
+            byId.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = byId.get(userId);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+
+        event.requested = userIds.size();
+        event.found = users.size();
+        event.commit();
+        return users;
+    }
+
     /**
      * Find user by username
      * @param username The username to search for
      * @return Optional containing the user if found
      */
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userRepository.findByCognitoSub(username);
     }
 
     /**
@@ -66,7 +113,14 @@ public class UserService {
      * @return true if username exists, false otherwise
      */
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        if (existenceFilter != null && !existenceFilter.mightExistByUsername(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists && existenceFilter != null && existenceFilter.isReady()) {
+            existenceFilter.recordFalsePositive("username");
+        }
+        return exists;
     }
 
     /**
@@ -75,7 +129,14 @@ public class UserService {
      * @return true if email exists, false otherwise
      */
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        if (existenceFilter != null && !existenceFilter.mightExistByEmail(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists && existenceFilter != null && existenceFilter.isReady()) {
+            existenceFilter.recordFalsePositive("email");
+        }
+        return exists;
     }
 
     /**
@@ -84,7 +145,53 @@ public class UserService {
      * @return The saved user
      */
     public User save(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(savedUser));
+        return savedUser;
+    }
+
+    /**
+     * Apply only the fields present in the patch
+     * The UPDATE writes just the changed columns and is guarded by the version;
+     * nothing is written when no field actually changes
+     * @param userId The user to patch
+     * @param expectedVersion Version the client last saw (If-Match), or null to skip the precondition
+     * @param patch Fields to change; null leaves a field alone, "" clears it
+     * @return The user after the patch
+     * @throws ObjectOptimisticLockingFailureException if the user changed since expectedVersion or concurrently
+     */
+    public Optional<User> patchProfile(Long userId, Long expectedVersion, UserProfilePatchRequest patch) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return userOpt;
+        }
+        User user = userOpt.get();
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, userId);
+        }
+
+        boolean changed = false;
+        if (patch.firstName() != null) {
+            String firstName = patch.firstName().isEmpty() ? null : patch.firstName();
+            if (!Objects.equals(firstName, user.getFirstName())) {
+                user.setFirstName(firstName);
+                changed = true;
+            }
+        }
+        if (patch.lastName() != null) {
+            String lastName = patch.lastName().isEmpty() ? null : patch.lastName();
+            if (!Objects.equals(lastName, user.getLastName())) {
+                user.setLastName(lastName);
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return Optional.of(user);
+        }
+        // Flushed here so a version conflict surfaces from this call, not at commit
+        User savedUser = userRepository.saveAndFlush(user);
+        eventPublisher.publishEvent(UserChangedEvent.saved(savedUser));
+        return Optional.of(savedUser);
     }
 
     /**
@@ -93,5 +200,6 @@ public class UserService {
      */
     public void deleteById(Long userId) {
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userId));
     }
 }
\ No newline at end of file
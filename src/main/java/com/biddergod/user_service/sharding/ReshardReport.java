@@ -0,0 +1,12 @@
+package com.biddergod.user_service.sharding;
+
+/**
+ * Outcome of a resharding copy or prune pass
+ */
+public record ReshardReport(
+    String phase,
+    int shards,
+    long scanned,
+    long changed,
+    long durationMs
+) {}
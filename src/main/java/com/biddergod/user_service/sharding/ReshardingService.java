@@ -0,0 +1,183 @@
+package com.biddergod.user_service.sharding;
+
+import com.biddergod.user_service.config.ShardingConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Online resharding of the users table, from N to M shards (the new DataSources
+ * already listed in users.sharding.shards)
+ *
+ * 1. roll every replica to users.sharding.mirror-shards=M: from then on each save also
+ *    writes the row to its owner under the M-shard layout, and deletes reach both layouts
+ * 2. copy(M): rows written before step 1 are copied over, in ID-ordered chunks; each
+ *    chunk is locked on its source while copied, so it can't overwrite a newer mirrored write
+ * 3. cut over: roll every replica to active-shards=M, mirror-shards=N, so replicas still
+ *    on either layout keep both copies current
+ * 4. roll every replica to drop mirror-shards, then prune(M) deletes the old copies
+ * Reads only ever serve a row from its owner under the replica's active layout, so
+ * copies are never returned before or after the cut-over.
+ */
+@Service
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+public class ReshardingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReshardingService.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardingConfig config;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Copy every row whose owner changes under a layout of targetShards
+     * @param modifiedSince only rows updated at or after this time; null copies everything
+     * @throws IllegalStateException unless writes are already mirrored to that layout
+     */
+    public ReshardReport copy(int targetShards, LocalDateTime modifiedSince) {
+        if (targetShards < 1 || targetShards > shardRouter.configuredShards()) {
+            throw new IllegalArgumentException("Target shard count must be between 1 and " + shardRouter.configuredShards());
+        }
+        if (!Integer.valueOf(targetShards).equals(shardRouter.mirrorShards())) {
+            // Without the mirror, writes after a chunk was copied would be lost at cut-over
+            throw new IllegalStateException("Set users.sharding.mirror-shards=" + targetShards
+                    + " on every replica before copying");
+        }
+        long started = System.currentTimeMillis();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transaction = shardTransaction();
+        String sql = modifiedSince == null
+                ? "SELECT * FROM users WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE"
+                : "SELECT * FROM users WHERE id > ? AND updated_at >= ? ORDER BY id LIMIT ? FOR UPDATE";
+
+        long scanned = 0;
+        long copied = 0;
+        for (int source : shardRouter.activeShardIds()) {
+            long cursor = Long.MIN_VALUE;
+            while (true) {
+                Object[] params = modifiedSince == null
+                        ? new Object[] {cursor, config.getReshardChunkSize()}
+                        : new Object[] {cursor, modifiedSince, config.getReshardChunkSize()};
+                // The chunk's rows stay locked on the source until every target has them
+                ChunkCopy chunk = ShardContext.callOn(source, () -> transaction.execute(status -> {
+                    List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, params);
+                    if (rows.isEmpty()) {
+                        return null;
+                    }
+                    Map<Integer, List<Map<String, Object>>> moves = new HashMap<>();
+                    long owned = 0;
+                    for (Map<String, Object> row : rows) {
+                        String sub = UserRows.sub(row);
+                        // Copies mirrored here from another shard are that shard's to copy
+                        if (!shardRouter.owns(source, sub)) {
+                            continue;
+                        }
+                        owned++;
+                        int target = ShardRouter.shardForSub(sub, targetShards);
+                        if (target != source) {
+                            moves.computeIfAbsent(target, t -> new ArrayList<>()).add(row);
+                        }
+                    }
+                    long moved = 0;
+                    for (Map.Entry<Integer, List<Map<String, Object>>> move : moves.entrySet()) {
+                        ShardContext.runOn(move.getKey(), () ->
+                            transaction.executeWithoutResult(inner -> UserRows.upsert(jdbcTemplate, move.getValue())));
+                        moved += move.getValue().size();
+                    }
+                    return new ChunkCopy(UserRows.id(rows.get(rows.size() - 1)), owned, moved);
+                }));
+                if (chunk == null) {
+                    break;
+                }
+                scanned += chunk.scanned();
+                copied += chunk.copied();
+                cursor = chunk.lastId();
+            }
+        }
+
+        ReshardReport report = new ReshardReport("copy", targetShards, scanned, copied, System.currentTimeMillis() - started);
+        log.info("Reshard copy finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Delete rows from shards that don't own them; only valid after cut-over, once
+     * no replica mirrors writes to the old layout any more
+     */
+    public ReshardReport prune(int shards) {
+        if (shards != shardRouter.activeShards()) {
+            throw new IllegalStateException("Prune only after cut-over: " + shardRouter.activeShards()
+                    + " shards are active, not " + shards);
+        }
+        if (shardRouter.isResharding()) {
+            throw new IllegalStateException("Prune only after users.sharding.mirror-shards is removed");
+        }
+        long started = System.currentTimeMillis();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transaction = shardTransaction();
+
+        long scanned = 0;
+        long deleted = 0;
+        for (int shard = 0; shard < shardRouter.configuredShards(); shard++) {
+            int current = shard;
+            long cursor = Long.MIN_VALUE;
+            while (true) {
+                long from = cursor;
+                List<Map<String, Object>> rows = ShardContext.callOn(current, () -> jdbcTemplate.queryForList(
+                        "SELECT id, username FROM users WHERE id > ? ORDER BY id LIMIT ?", from, config.getReshardChunkSize()));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                scanned += rows.size();
+                cursor = UserRows.id(rows.get(rows.size() - 1));
+
+                List<Object[]> stale = new ArrayList<>();
+                for (Map<String, Object> row : rows) {
+                    String sub = UserRows.sub(row);
+                    if (current >= shards || ShardRouter.shardForSub(sub, shards) != current) {
+                        stale.add(new Object[] {row.get("id")});
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    ShardContext.runOn(current, () -> transaction.executeWithoutResult(status ->
+                        UserRows.delete(jdbcTemplate, stale)));
+                    deleted += stale.size();
+                }
+            }
+        }
+
+        ReshardReport report = new ReshardReport("prune", shards, scanned, deleted, System.currentTimeMillis() - started);
+        log.info("Reshard prune finished: {}", report);
+        return report;
+    }
+
+    private TransactionTemplate shardTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private record ChunkCopy(long lastId, long scanned, long copied) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.biddergod.user_service.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard pinned for the current thread
+ * Read by ShardRoutingDataSource when a connection is first used; unset means shard 0
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a call with every connection it opens going to the given shard
+     */
+    public static <T> T callOn(int shard, Supplier<T> call) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void runOn(int shard, Runnable call) {
+        callOn(shard, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.biddergod.user_service.sharding;
+
+import com.biddergod.user_service.id.SnowflakeIdAllocator;
+
+import java.util.stream.IntStream;
+
+/**
+ * Maps users to shards
+ * A Cognito sub hashes to one of BUCKETS buckets and a user lives on bucket mod activeShards.
+ * Snowflake user IDs carry that bucket, so a lookup by ID goes straight to the owner under
+ * any layout; IDs from the former per-shard identity ranges (shard N started at
+ * N << ID_SHARD_SHIFT) name the shard that issued them.
+ * While resharding, a copy of each user is also kept on its owner under the mirror layout.
+ */
+public class ShardRouter {
+
+    public static final int ID_SHARD_SHIFT = 48;
+    // Also the most shards a layout can have
+    public static final int BUCKETS = SnowflakeIdAllocator.MAX_BUCKET + 1;
+
+    private final int activeShards;
+    private final int configuredShards;
+    private final Integer mirrorShards;
+
+    public ShardRouter(int activeShards, int configuredShards) {
+        this(activeShards, configuredShards, null);
+    }
+
+    /**
+     * @param activeShards shards that own users under the current layout
+     * @param configuredShards all shard DataSources, including ones being filled by resharding
+     * @param mirrorShards size of the layout writes are copied to while resharding, or null
+     */
+    public ShardRouter(int activeShards, int configuredShards, Integer mirrorShards) {
+        if (configuredShards > BUCKETS) {
+            throw new IllegalArgumentException("At most " + BUCKETS + " shards are supported");
+        }
+        if (activeShards < 1 || activeShards > configuredShards) {
+            throw new IllegalArgumentException("Active shards must be between 1 and " + configuredShards);
+        }
+        if (mirrorShards != null && (mirrorShards < 1 || mirrorShards > configuredShards || mirrorShards == activeShards)) {
+            throw new IllegalArgumentException("Mirror shards must be between 1 and " + configuredShards
+                    + " and differ from the " + activeShards + " active shards");
+        }
+        this.activeShards = activeShards;
+        this.configuredShards = configuredShards;
+        this.mirrorShards = mirrorShards;
+    }
+
+    public int activeShards() {
+        return activeShards;
+    }
+
+    public int configuredShards() {
+        return configuredShards;
+    }
+
+    public Integer mirrorShards() {
+        return mirrorShards;
+    }
+
+    public boolean isResharding() {
+        return mirrorShards != null;
+    }
+
+    public int[] activeShardIds() {
+        return IntStream.range(0, activeShards).toArray();
+    }
+
+    /**
+     * Shards that may hold a copy of a user: the active ones and, while resharding, the mirror layout's
+     */
+    public int[] writeShardIds() {
+        return IntStream.range(0, isResharding() ? Math.max(activeShards, mirrorShards) : activeShards).toArray();
+    }
+
+    public int shardForSub(String cognitoSub) {
+        return shardForSub(cognitoSub, activeShards);
+    }
+
+    /**
+     * Owner of a Cognito sub under the mirror layout, or -1 when not resharding
+     */
+    public int mirrorShardForSub(String cognitoSub) {
+        return isResharding() ? shardForSub(cognitoSub, mirrorShards) : -1;
+    }
+
+    /**
+     * Whether a row found on the given shard is the one to serve: under the active
+     * layout every user has exactly one owner, anything else is a resharding copy
+     */
+    public boolean owns(int shard, String cognitoSub) {
+        return cognitoSub == null || shardForSub(cognitoSub) == shard;
+    }
+
+    /**
+     * Owner shard of a Cognito sub under a layout of the given size
+     */
+    public static int shardForSub(String cognitoSub, int shards) {
+        return bucketOf(cognitoSub) % shards;
+    }
+
+    public static int bucketOf(String cognitoSub) {
+        // String.hashCode is specified, so this is stable across JVMs and releases
+        int h = cognitoSub.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return Math.floorMod(h, BUCKETS);
+    }
+
+    /**
+     * Shard an ID points to, or -1 if it carries no hint
+     * Only a hint: the sub may have been re-keyed since, and IDs issued before
+     * they carried a bucket point anywhere; keyed lookups fall back to the other shards
+     */
+    public int homeShardOfId(Long id) {
+        if (id == null || id < 0) {
+            return -1;
+        }
+        long shard = id >>> ID_SHARD_SHIFT;
+        if (shard < configuredShards) {
+            return (int) shard;
+        }
+        // Snowflake IDs sit far above every identity range
+        return SnowflakeIdAllocator.bucketOf(id) % activeShards;
+    }
+}
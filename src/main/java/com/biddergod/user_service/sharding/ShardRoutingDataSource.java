@@ -0,0 +1,17 @@
+package com.biddergod.user_service.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Picks the shard DataSource from ShardContext
+ * Wrapped in a LazyConnectionDataSourceProxy so a transaction only takes a
+ * physical connection at its first statement, after the shard is pinned
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+}
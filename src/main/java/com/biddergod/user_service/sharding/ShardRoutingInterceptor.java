@@ -0,0 +1,461 @@
+package com.biddergod.user_service.sharding;
+
+import com.biddergod.user_service.deadline.RequestDeadline;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Routes UserRepository calls to shards
+ * - by Cognito sub: findByUsername / findByCognitoSub / existsByUsername go to the owner shard
+ * - by ID: findById / existsById go to the shard the ID encodes
+ * - keyed lookups that miss fall back to the other shards (rows re-keyed or
+ *   not yet moved by resharding)
+ * - saveAll saves user by user, each on its own shard
+ * - streams are read shard by shard, lazily (see streamAll)
+ * - everything else fans out to all active shards in parallel and is merged;
+ *   fan-out reads only return rows from their owner shard, so resharding copies
+ *   are never served (count() does include them)
+ * While resharding, saves also write the row to its owner under the mirror layout and
+ * deletes reach every shard of both layouts (see ReshardingService)
+ * Each shard call runs in its own transaction; callers that already pinned a
+ * shard through ShardContext bypass routing
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    // Rows buffered per open stream; matches the fetch size of streamAllSummaries
+    private static final int STREAM_BUFFER_SIZE = 1000;
+    private static final Object END_OF_STREAM = new Object();
+
+    private final Supplier<ShardRouter> router;
+    private final Supplier<PlatformTransactionManager> transactionManager;
+    private final Supplier<DataSource> dataSource;
+    private final Supplier<ExecutorService> fanOutExecutor;
+
+    private volatile TransactionTemplate readTransaction;
+    private volatile TransactionTemplate writeTransaction;
+
+    public ShardRoutingInterceptor(Supplier<ShardRouter> router,
+                                   Supplier<PlatformTransactionManager> transactionManager,
+                                   Supplier<DataSource> dataSource,
+                                   Supplier<ExecutorService> fanOutExecutor) {
+        this.router = router;
+        this.transactionManager = transactionManager;
+        this.dataSource = dataSource;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+
+        Method method = invocation.getMethod();
+        Object[] args = invocation.getArguments();
+        ShardRouter shards = router.get();
+
+        switch (method.getName()) {
+            case "findByUsername", "findByCognitoSub", "existsByUsername" -> {
+                return preferred(invocation, shards, shards.shardForSub((String) args[0]));
+            }
+            case "findById", "existsById" -> {
+                return preferred(invocation, shards, shards.homeShardOfId((Long) args[0]));
+            }
+            case "save", "saveAndFlush" -> {
+                User user = (User) args[0];
+                int shard = shardForSave(invocation, shards, user);
+                int owner = shards.shardForSub(user.getUsername());
+                int mirror = shards.mirrorShardForSub(user.getUsername());
+                if (shard == owner && (mirror < 0 || mirror == owner)) {
+                    return onShard(shard, false, () -> proceed(invocation));
+                }
+                return onShard(shard, false, () -> saveAndCopy(invocation, user, shard, owner, mirror));
+            }
+            case "saveAll" -> {
+                UserRepository repository = (UserRepository) ((ProxyMethodInvocation) invocation).getProxy();
+                List<User> saved = new ArrayList<>();
+                for (Object user : (Iterable<?>) args[0]) {
+                    saved.add(repository.save((User) user));
+                }
+                return saved;
+            }
+            default -> {
+                if (Slice.class.isAssignableFrom(method.getReturnType())) {
+                    // UserRepository is a ListCrudRepository, so only a declared query method gets here
+                    throw new UnsupportedOperationException("Paged queries can't be merged across shards: " + method.getName());
+                }
+                if (Stream.class.isAssignableFrom(method.getReturnType())) {
+                    return streamAll(invocation, shards);
+                }
+                if (method.getName().startsWith("delete") && shards.isResharding()) {
+                    // Rows first, then their copies: a save racing the delete holds the row's
+                    // lock while it copies, so it can't put a copy back once the row is gone
+                    fanOut(invocation, shards.activeShardIds(), -1);
+                    return fanOut(invocation, shards.writeShardIds(), -1);
+                }
+                return fanOut(invocation, shards.activeShardIds(), -1);
+            }
+        }
+    }
+
+    /**
+     * Try the likely shard first, then the rest
+     */
+    private Object preferred(MethodInvocation invocation, ShardRouter shards, int shard) throws Throwable {
+        if (shard >= 0) {
+            Object result = onShard(shard, true, () -> proceed(invocation));
+            if (isHit(result)) {
+                return result;
+            }
+        }
+        return fanOut(invocation, shards.activeShardIds(), shard);
+    }
+
+    /**
+     * Existing rows are updated where they live; new rows go to the owner of the sub
+     */
+    private int shardForSave(MethodInvocation invocation, ShardRouter shards, User user) {
+        int owner = shards.shardForSub(user.getUsername());
+        Long id = user.getId();
+        if (id == null) {
+            return owner;
+        }
+
+        UserRepository repository = (UserRepository) ((ProxyMethodInvocation) invocation).getProxy();
+        if (onShard(owner, true, () -> repository.existsById(id))) {
+            return owner;
+        }
+        int home = shards.homeShardOfId(id);
+        if (home >= 0 && home != owner && onShard(home, true, () -> repository.existsById(id))) {
+            return home;
+        }
+        for (int shard : shards.activeShardIds()) {
+            if (shard != owner && shard != home && onShard(shard, true, () -> repository.existsById(id))) {
+                return shard;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Save on the shard holding the row, then, in the same transaction and so under
+     * the row's lock, copy it to where it belongs: its owner if the sub was re-keyed
+     * (the old row is deleted) and its owner under the mirror layout while resharding
+     */
+    private User saveAndCopy(MethodInvocation invocation, User user, int shard, int owner, int mirror) {
+        UserRepository repository = (UserRepository) ((ProxyMethodInvocation) invocation).getProxy();
+        User saved = repository.saveAndFlush(user);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.get());
+        Map<String, Object> row = UserRows.read(jdbcTemplate, saved.getId()).orElseThrow();
+        if (owner != shard) {
+            copyTo(owner, jdbcTemplate, row);
+        }
+        if (mirror >= 0 && mirror != shard && mirror != owner) {
+            copyTo(mirror, jdbcTemplate, row);
+        }
+        if (owner != shard && mirror != shard) {
+            UserRows.delete(jdbcTemplate, List.<Object[]>of(new Object[] {saved.getId()}));
+        }
+        return saved;
+    }
+
+    private void copyTo(int shard, JdbcTemplate jdbcTemplate, Map<String, Object> row) {
+        ShardContext.runOn(shard, () ->
+            writeTransaction().executeWithoutResult(status -> UserRows.upsert(jdbcTemplate, List.of(row))));
+    }
+
+    private Object fanOut(MethodInvocation invocation, int[] shardIds, int skip) throws Throwable {
+        Method method = invocation.getMethod();
+        Object proxy = ((ProxyMethodInvocation) invocation).getProxy();
+        Object[] args = invocation.getArguments();
+        boolean readOnly = isRead(method);
+
+        // Workers call the repository proxy with the shard pinned, so the full
+        // Spring Data interceptor chain runs on their own thread, under the caller's deadline
+        RequestDeadline deadline = RequestDeadline.current();
+        ExecutorService executor = fanOutExecutor.get();
+        // A keyed lookup falling back here missed its owner; any copy is better than none
+        ShardRouter shards = skip < 0 ? router.get() : null;
+        List<Future<Object>> futures = new ArrayList<>(shardIds.length);
+        for (int shard : shardIds) {
+            if (shard != skip) {
+                futures.add(executor.submit(() -> RequestDeadline.supplyWith(deadline, () -> onShard(shard, readOnly,
+                        () -> shards != null ? ownedRows(shards, shard, invokeProxy(method, proxy, args))
+                                : invokeProxy(method, proxy, args)))));
+            }
+        }
+
+        List<Object> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        return merge(method.getReturnType(), results);
+    }
+
+    /**
+     * Concatenate the shards' streams without loading them: one shard at a time, a
+     * worker holds that shard's transaction open and hands rows over through a bounded
+     * buffer. Closing the stream stops the worker; callers must close it as usual.
+     */
+    private Stream<Object> streamAll(MethodInvocation invocation, ShardRouter shards) {
+        Method method = invocation.getMethod();
+        Object proxy = ((ProxyMethodInvocation) invocation).getProxy();
+        Object[] args = invocation.getArguments();
+        RequestDeadline deadline = RequestDeadline.current();
+        // flatMap closes each shard's stream once drained; this closes one abandoned midway
+        List<Stream<Object>> opened = new CopyOnWriteArrayList<>();
+        return Arrays.stream(shards.activeShardIds()).boxed()
+                .flatMap(shard -> {
+                    Stream<Object> rows = pump(shard, deadline, () -> (Stream<?>) invokeProxy(method, proxy, args));
+                    opened.add(rows);
+                    return rows.filter(row -> shards.owns(shard, subOf(row)));
+                })
+                .onClose(() -> opened.forEach(Stream::close));
+    }
+
+    private Stream<Object> pump(int shard, RequestDeadline deadline, Supplier<Stream<?>> query) {
+        BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(STREAM_BUFFER_SIZE);
+        AtomicBoolean closed = new AtomicBoolean();
+        Future<?> producer = fanOutExecutor.get().submit(() -> {
+            Object last = END_OF_STREAM;
+            try {
+                RequestDeadline.supplyWith(deadline, () -> onShard(shard, true, () -> {
+                    try (Stream<?> rows = query.get()) {
+                        rows.forEach(row -> handOver(buffer, row));
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException | Error e) {
+                if (closed.get()) {
+                    return;
+                }
+                last = new StreamFailure(e);
+            }
+            handOver(buffer, last);
+        });
+
+        Iterator<Object> rows = new Iterator<>() {
+            private Object next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = take(buffer);
+                }
+                if (next instanceof StreamFailure failure) {
+                    throw failure.rethrow();
+                }
+                return next != END_OF_STREAM;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object row = next;
+                next = null;
+                return row;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    closed.set(true);
+                    producer.cancel(true);
+                });
+    }
+
+    private static void handOver(BlockingQueue<Object> buffer, Object row) {
+        try {
+            buffer.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Stream closed");
+        }
+    }
+
+    private static Object take(BlockingQueue<Object> buffer) {
+        try {
+            return buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while streaming users");
+        }
+    }
+
+    private record StreamFailure(Throwable cause) {
+        RuntimeException rethrow() {
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return (RuntimeException) cause;
+        }
+    }
+
+    private <T> T onShard(int shard, boolean readOnly, Supplier<T> call) {
+        TransactionTemplate transaction = readOnly ? readTransaction() : writeTransaction();
+        return ShardContext.callOn(shard, () -> transaction.execute(status -> call.get()));
+    }
+
+    /**
+     * Drop rows the shard holds only as a resharding copy
+     */
+    private static Object ownedRows(ShardRouter shards, int shard, Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.filter(row -> shards.owns(shard, subOf(row)));
+        }
+        if (result instanceof Collection<?> rows) {
+            return rows.stream().filter(row -> shards.owns(shard, subOf(row))).toList();
+        }
+        return result;
+    }
+
+    private static String subOf(Object row) {
+        if (row instanceof User user) {
+            return user.getUsername();
+        }
+        if (row instanceof UserSummary summary) {
+            return summary.username();
+        }
+        return null;
+    }
+
+    private static boolean isHit(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent();
+        }
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static boolean isRead(Method method) {
+        String name = method.getName();
+        return name.startsWith("find") || name.startsWith("exists")
+                || name.startsWith("count") || name.startsWith("stream");
+    }
+
+    static Object merge(Class<?> type, List<Object> results) {
+        if (type == Optional.class) {
+            return results.stream()
+                    .map(r -> (Optional<?>) r)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(r -> (Long) r).sum();
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            List<Object> merged = new ArrayList<>();
+            for (Object result : results) {
+                if (result instanceof Collection<?> collection) {
+                    merged.addAll(collection);
+                } else {
+                    ((Iterable<?>) result).forEach(merged::add);
+                }
+            }
+            return merged;
+        }
+        throw new UnsupportedOperationException("Cannot merge sharded results of type " + type.getName());
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private static Object invokeProxy(Method method, Object proxy, Object[] args) {
+        try {
+            return method.invoke(proxy, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionTemplate readTransaction() {
+        if (readTransaction == null) {
+            TransactionTemplate template = newTransaction();
+            template.setReadOnly(true);
+            readTransaction = template;
+        }
+        return readTransaction;
+    }
+
+    private TransactionTemplate writeTransaction() {
+        if (writeTransaction == null) {
+            writeTransaction = newTransaction();
+        }
+        return writeTransaction;
+    }
+
+    private TransactionTemplate newTransaction() {
+        // Suspends any caller transaction: its connection may already belong to another shard
+        TransactionTemplate template = new TransactionTemplate(transactionManager.get());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
@@ -0,0 +1,57 @@
+package com.biddergod.user_service.sharding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the mapped tables on shards that don't have them yet
+ * (Hibernate's ddl-auto only ever sees shard 0)
+ */
+@Component
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @PostConstruct
+    void initialize() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int shard = 0; shard < shardRouter.configuredShards(); shard++) {
+            int target = shard;
+            ShardContext.runOn(target, () -> {
+                if (!usersTableExists(jdbcTemplate)) {
+                    log.info("Creating user tables on shard {}", target);
+                    entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                }
+            });
+        }
+    }
+
+    private static boolean usersTableExists(JdbcTemplate jdbcTemplate) {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE 1 = 0", Long.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
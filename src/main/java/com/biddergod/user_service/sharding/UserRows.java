@@ -0,0 +1,68 @@
+package com.biddergod.user_service.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Whole users rows as column maps, for copying them between shards with plain SQL
+ * All columns are copied as-is, IDs included
+ */
+final class UserRows {
+
+    private UserRows() {
+    }
+
+    static Optional<Map<String, Object>> read(JdbcTemplate jdbcTemplate, long id) {
+        return jdbcTemplate.queryForList("SELECT * FROM users WHERE id = ?", id).stream().findFirst();
+    }
+
+    static long id(Map<String, Object> row) {
+        return ((Number) row.get("id")).longValue();
+    }
+
+    static String sub(Map<String, Object> row) {
+        return (String) row.get("username");
+    }
+
+    /**
+     * Update the rows that exist, insert the rest
+     */
+    static void upsert(JdbcTemplate jdbcTemplate, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        List<String> updated = columns.stream().filter(c -> !c.equalsIgnoreCase("id")).toList();
+
+        String update = "UPDATE users SET " + String.join(" = ?, ", updated) + " = ? WHERE id = ?";
+        List<Object[]> updateArgs = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] args = new Object[updated.size() + 1];
+            for (int i = 0; i < updated.size(); i++) {
+                args[i] = row.get(updated.get(i));
+            }
+            args[updated.size()] = row.get("id");
+            updateArgs.add(args);
+        }
+        int[] counts = jdbcTemplate.batchUpdate(update, updateArgs);
+
+        String insert = "INSERT INTO users (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        List<Object[]> insertArgs = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (counts[i] == 0) {
+                Map<String, Object> row = rows.get(i);
+                insertArgs.add(columns.stream().map(row::get).toArray());
+            }
+        }
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(insert, insertArgs);
+        }
+    }
+
+    static void delete(JdbcTemplate jdbcTemplate, List<Object[]> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM users WHERE id = ?", ids);
+    }
+}
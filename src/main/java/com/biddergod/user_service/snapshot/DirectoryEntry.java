@@ -0,0 +1,19 @@
+package com.biddergod.user_service.snapshot;
+
+/**
+ * Public directory fields of one user, as written to and read from snapshots
+ *
+ * @param deleted only in delta files: the user no longer exists
+ */
+public record DirectoryEntry(
+        long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        boolean deleted) {
+
+    public static DirectoryEntry deleted(long id) {
+        return new DirectoryEntry(id, null, null, null, null, true);
+    }
+}
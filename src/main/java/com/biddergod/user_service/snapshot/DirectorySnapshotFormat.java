@@ -0,0 +1,84 @@
+package com.biddergod.user_service.snapshot;
+
+/**
+ * Layout of a user directory snapshot file (all values big-endian)
+ *
+ * <pre>
+ * header   64 bytes   magic, format, kind, generation, sequence, createdAt,
+ *                     recordCount, slotCount, slotsOffset, heapOffset, heapSize
+ * records  48 bytes each, in write order:
+ *                     id (8), username, email, firstName, lastName
+ *                     (heap offset 4 + UTF-8 length 4 each; length -1 for null), flags (4), reserved (4)
+ * slots    4 bytes each, open-addressing table: record index + 1, 0 when empty
+ * heap     UTF-8 string bytes
+ * </pre>
+ *
+ * A full snapshot holds every user of one generation; delta files of the same
+ * generation hold users changed since the previous file, with deleted users flagged.
+ * Files are limited to 2 GiB so a consumer can map them in one buffer.
+ */
+public final class DirectorySnapshotFormat {
+
+    public static final int MAGIC = 0x42475544; // "BGUD"
+    public static final short FORMAT_VERSION = 1;
+
+    public static final short KIND_FULL = 0;
+    public static final short KIND_DELTA = 1;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 48;
+    public static final int SLOT_SIZE = 4;
+
+    // Header field offsets
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_OFFSET = 4;
+    static final int KIND_OFFSET = 6;
+    static final int GENERATION_OFFSET = 8;
+    static final int SEQUENCE_OFFSET = 16;
+    static final int CREATED_AT_OFFSET = 24;
+    static final int RECORD_COUNT_OFFSET = 32;
+    static final int SLOT_COUNT_OFFSET = 36;
+    static final int SLOTS_OFFSET_OFFSET = 40;
+    static final int HEAP_OFFSET_OFFSET = 48;
+    static final int HEAP_SIZE_OFFSET = 56;
+
+    // Record field offsets
+    static final int ID = 0;
+    static final int USERNAME = 8;
+    static final int EMAIL = 16;
+    static final int FIRST_NAME = 24;
+    static final int LAST_NAME = 32;
+    static final int FLAGS = 40;
+
+    public static final int FLAG_DELETED = 1;
+
+    public static final String FULL_SUFFIX = ".full";
+    public static final String DELTA_SUFFIX = ".delta";
+
+    private DirectorySnapshotFormat() {
+    }
+
+    /**
+     * directory-000000000042.full / directory-000000000042-000007.delta
+     */
+    public static String fileName(long generation, long sequence) {
+        return sequence == 0
+                ? String.format("directory-%012d%s", generation, FULL_SUFFIX)
+                : String.format("directory-%012d-%06d%s", generation, sequence, DELTA_SUFFIX);
+    }
+
+    /**
+     * At least twice the records, rounded up to a power of two
+     */
+    static int slotCount(int records) {
+        return Integer.highestOneBit(Math.max(2, records * 2 - 1)) << 1;
+    }
+
+    static int slotOf(long id, int slotCount) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & (slotCount - 1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.biddergod.user_service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.biddergod.user_service.snapshot.DirectorySnapshotFormat.*;
+
+/**
+ * Read-only view of one memory-mapped snapshot file
+ * Lookups probe the slot table and read fields straight from the mapping;
+ * only the strings a caller asks for are decoded. Safe for concurrent readers.
+ * Has no dependencies beyond the JDK so other services can copy the package.
+ */
+public class DirectorySnapshotReader {
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final short kind;
+    private final long generation;
+    private final long sequence;
+    private final long createdAt;
+    private final int recordCount;
+    private final int slotCount;
+    private final int slotsOffset;
+    private final int heapOffset;
+
+    private DirectorySnapshotReader(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException(file + " is not a user directory snapshot");
+        }
+        if (buffer.getShort(FORMAT_OFFSET) != FORMAT_VERSION) {
+            throw new IOException(file + " has unsupported format version " + buffer.getShort(FORMAT_OFFSET));
+        }
+        this.kind = buffer.getShort(KIND_OFFSET);
+        this.generation = buffer.getLong(GENERATION_OFFSET);
+        this.sequence = buffer.getLong(SEQUENCE_OFFSET);
+        this.createdAt = buffer.getLong(CREATED_AT_OFFSET);
+        this.recordCount = buffer.getInt(RECORD_COUNT_OFFSET);
+        this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        this.slotsOffset = (int) buffer.getLong(SLOTS_OFFSET_OFFSET);
+        this.heapOffset = (int) buffer.getLong(HEAP_OFFSET_OFFSET);
+        long heapSize = buffer.getLong(HEAP_SIZE_OFFSET);
+        if (heapOffset + heapSize != buffer.capacity() || Integer.bitCount(slotCount) != 1) {
+            throw new IOException(file + " is truncated or corrupt");
+        }
+    }
+
+    public static DirectorySnapshotReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DirectorySnapshotReader(file, mapped);
+        }
+    }
+
+    public Path file() { return file; }
+    public boolean isDelta() { return kind == KIND_DELTA; }
+    public long generation() { return generation; }
+    public long sequence() { return sequence; }
+    public long createdAt() { return createdAt; }
+    public int size() { return recordCount; }
+
+    /**
+     * @return the record index holding this user, or -1
+     */
+    public int indexOf(long id) {
+        int mask = slotCount - 1;
+        int slot = slotOf(id, slotCount);
+        while (true) {
+            int record = buffer.getInt(slotsOffset + slot * SLOT_SIZE);
+            if (record == 0) {
+                return -1;
+            }
+            if (buffer.getLong(recordOffset(record - 1) + ID) == id) {
+                return record - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public long id(int record) {
+        return buffer.getLong(recordOffset(record) + ID);
+    }
+
+    public boolean isDeleted(int record) {
+        return (buffer.getInt(recordOffset(record) + FLAGS) & FLAG_DELETED) != 0;
+    }
+
+    public String username(int record) {
+        return string(record, USERNAME);
+    }
+
+    public String email(int record) {
+        return string(record, EMAIL);
+    }
+
+    public String firstName(int record) {
+        return string(record, FIRST_NAME);
+    }
+
+    public String lastName(int record) {
+        return string(record, LAST_NAME);
+    }
+
+    /**
+     * Decode every field of one record
+     */
+    public DirectoryEntry entry(int record) {
+        return new DirectoryEntry(id(record), username(record), email(record),
+                firstName(record), lastName(record), isDeleted(record));
+    }
+
+    private int recordOffset(int record) {
+        if (record < 0 || record >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + recordCount);
+        }
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private String string(int record, int field) {
+        int offset = recordOffset(record) + field;
+        int length = buffer.getInt(offset + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heapOffset + buffer.getInt(offset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
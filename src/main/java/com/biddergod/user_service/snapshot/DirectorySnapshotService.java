@@ -0,0 +1,223 @@
+package com.biddergod.user_service.snapshot;
+
+import com.biddergod.user_service.config.DirectorySnapshotConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.invalidation.UserInvalidationListener;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Periodically writes the public user directory as memory-mappable snapshot files
+ * A full snapshot starts a new generation; in between, delta files carry the users
+ * changed locally or on other replicas (via invalidations) since the last file.
+ * See DirectorySnapshotFormat for the layout and DirectorySnapshotSet for readers.
+ */
+@Component
+@ConditionalOnProperty(name = "users.snapshot.enabled", havingValue = "true")
+public class DirectorySnapshotService implements UserInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectorySnapshotService.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("directory-(\\d+)(?:-\\d+)?\\.(full|delta)");
+
+    @Autowired
+    private DirectorySnapshotConfig config;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Users changed since the last file was written
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    private Path directory;
+    private long generation;
+    // -1 until this process has written a full snapshot to base deltas on
+    private long sequence = -1;
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(config.getDirectory());
+        Files.createDirectories(directory);
+        // Continue numbering after whatever a previous run left behind
+        for (long existing : generations()) {
+            generation = Math.max(generation, existing);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            changed.add(event.userId());
+        }
+    }
+
+    @Override
+    public void onUsersInvalidated(Set<Long> userIds) {
+        changed.addAll(userIds);
+    }
+
+    @Scheduled(fixedDelayString = "${users.snapshot.full-interval:PT1H}")
+    public void scheduledFull() {
+        try {
+            writeFull();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Full directory snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${users.snapshot.delta-interval:PT1M}")
+    public void scheduledDelta() {
+        try {
+            writeDelta();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Directory snapshot delta failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write every user as a new generation and drop generations beyond the retention
+     */
+    public synchronized Path writeFull() throws IOException {
+        long started = System.nanoTime();
+        long next = generation + 1;
+        Path target = directory.resolve(DirectorySnapshotFormat.fileName(next, 0));
+        // Writes from here on land in the first delta, possibly twice; that is harmless
+        changed.clear();
+
+        int users;
+        try (DirectorySnapshotWriter writer = DirectorySnapshotWriter.full(target, next)) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<UserSummary> summaries = userRepository.streamAllSummaries()) {
+                    summaries.forEach(user -> add(writer, new DirectoryEntry(user.id(), user.username(),
+                            user.email(), user.firstName(), user.lastName(), false)));
+                }
+            });
+            writer.commit();
+            users = writer.size();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generation = next;
+        sequence = 0;
+        prune();
+
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("users.snapshot.write").tag("kind", "full").register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Directory snapshot {} written with {} users in {} ms", target.getFileName(), users, elapsed / 1_000_000);
+        return target;
+    }
+
+    /**
+     * Write the users changed since the last file, if any
+     * @return the delta file, or null when there was nothing to write
+     */
+    public synchronized Path writeDelta() throws IOException {
+        if (sequence < 0 || changed.isEmpty()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        List<Long> ids = new ArrayList<>(changed.size());
+        for (Iterator<Long> iterator = changed.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+
+        long next = sequence + 1;
+        Path target = directory.resolve(DirectorySnapshotFormat.fileName(generation, next));
+        try (DirectorySnapshotWriter writer = DirectorySnapshotWriter.delta(target, generation, next)) {
+            for (int from = 0; from < ids.size(); from += config.getDeltaChunkSize()) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + config.getDeltaChunkSize()));
+                Set<Long> missing = new HashSet<>(chunk);
+                for (User user : userRepository.findAllById(chunk)) {
+                    writer.add(new DirectoryEntry(user.getId(), user.getUsername(), user.getEmail(),
+                            user.getFirstName(), user.getLastName(), false));
+                    missing.remove(user.getId());
+                }
+                for (Long id : missing) {
+                    writer.add(DirectoryEntry.deleted(id));
+                }
+            }
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            // Retry these users with the next delta
+            changed.addAll(ids);
+            throw e;
+        }
+        sequence = next;
+
+        Timer.builder("users.snapshot.write").tag("kind", "delta").register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return target;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    private static void add(DirectorySnapshotWriter writer, DirectoryEntry entry) {
+        try {
+            writer.add(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void prune() throws IOException {
+        long oldestKept = generation - config.getRetainGenerations() + 1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(1)) < oldestKept) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private List<Long> generations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> FILE_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.biddergod.user_service.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.biddergod.user_service.snapshot.DirectorySnapshotFormat.*;
+
+/**
+ * The newest full snapshot in a directory plus the deltas written after it
+ * Lookups check the deltas newest first, then the full snapshot
+ */
+public class DirectorySnapshotSet {
+
+    private final DirectorySnapshotReader full;
+    // Newest first
+    private final List<DirectorySnapshotReader> deltas;
+
+    public DirectorySnapshotSet(DirectorySnapshotReader full, List<DirectorySnapshotReader> deltas) {
+        this.full = full;
+        List<DirectorySnapshotReader> ordered = new ArrayList<>(deltas);
+        ordered.sort(Comparator.comparingLong(DirectorySnapshotReader::sequence).reversed());
+        this.deltas = Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Open the latest generation found in a snapshot directory
+     * @throws IOException if there is no full snapshot or a file can't be read
+     */
+    public static DirectorySnapshotSet openLatest(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.endsWith(FULL_SUFFIX) || name.endsWith(DELTA_SUFFIX);
+            }).sorted().toList();
+        }
+        Path latestFull = null;
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(FULL_SUFFIX)) {
+                latestFull = file;
+            }
+        }
+        if (latestFull == null) {
+            throw new IOException("No full snapshot in " + directory);
+        }
+
+        DirectorySnapshotReader full = DirectorySnapshotReader.open(latestFull);
+        List<DirectorySnapshotReader> deltas = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(DELTA_SUFFIX)) {
+                DirectorySnapshotReader delta = DirectorySnapshotReader.open(file);
+                if (delta.generation() == full.generation()) {
+                    deltas.add(delta);
+                }
+            }
+        }
+        return new DirectorySnapshotSet(full, deltas);
+    }
+
+    public long generation() {
+        return full.generation();
+    }
+
+    /**
+     * @return the latest sequence applied, 0 if only the full snapshot is present
+     */
+    public long sequence() {
+        return deltas.isEmpty() ? 0 : deltas.get(0).sequence();
+    }
+
+    /**
+     * @return the user's current entry, or null if unknown or deleted
+     */
+    public DirectoryEntry get(long id) {
+        for (DirectorySnapshotReader delta : deltas) {
+            int record = delta.indexOf(id);
+            if (record >= 0) {
+                return delta.isDeleted(record) ? null : delta.entry(record);
+            }
+        }
+        int record = full.indexOf(id);
+        return record >= 0 ? full.entry(record) : null;
+    }
+}
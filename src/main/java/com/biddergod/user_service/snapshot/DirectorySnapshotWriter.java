@@ -0,0 +1,205 @@
+package com.biddergod.user_service.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.biddergod.user_service.snapshot.DirectorySnapshotFormat.*;
+
+/**
+ * Streams entries into a snapshot file
+ * Records and strings are spooled to temporary files as they arrive, so memory
+ * stays at 8 bytes per user (for the slot table); commit() assembles the final
+ * file next to the target and moves it into place atomically.
+ */
+public class DirectorySnapshotWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path target;
+    private final short kind;
+    private final long generation;
+    private final long sequence;
+
+    private final Path recordsFile;
+    private final Path heapFile;
+    private final FileChannel records;
+    private final FileChannel heap;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+    private final ByteBuffer heapBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private long[] ids = new long[1024];
+    private int count;
+    private long heapSize;
+    private boolean committed;
+
+    private DirectorySnapshotWriter(Path target, short kind, long generation, long sequence) throws IOException {
+        this.target = target;
+        this.kind = kind;
+        this.generation = generation;
+        this.sequence = sequence;
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.recordsFile = Files.createTempFile(directory, "directory-", ".records");
+        this.heapFile = Files.createTempFile(directory, "directory-", ".heap");
+        this.records = FileChannel.open(recordsFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.heap = FileChannel.open(heapFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static DirectorySnapshotWriter full(Path target, long generation) throws IOException {
+        return new DirectorySnapshotWriter(target, KIND_FULL, generation, 0);
+    }
+
+    /**
+     * @param sequence 1 for the first delta after the full snapshot of this generation
+     */
+    public static DirectorySnapshotWriter delta(Path target, long generation, long sequence) throws IOException {
+        if (sequence < 1) {
+            throw new IllegalArgumentException("Delta sequence starts at 1");
+        }
+        return new DirectorySnapshotWriter(target, KIND_DELTA, generation, sequence);
+    }
+
+    public void add(DirectoryEntry entry) throws IOException {
+        if (entry.deleted() && kind == KIND_FULL) {
+            throw new IllegalArgumentException("Full snapshots hold no deleted entries");
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[count++] = entry.id();
+
+        if (recordBuffer.remaining() < RECORD_SIZE) {
+            drain(recordBuffer, records);
+        }
+        recordBuffer.putLong(entry.id());
+        putString(entry.username());
+        putString(entry.email());
+        putString(entry.firstName());
+        putString(entry.lastName());
+        recordBuffer.putInt(entry.deleted() ? FLAG_DELETED : 0);
+        recordBuffer.putInt(0);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Write the file and move it into place
+     */
+    public void commit() throws IOException {
+        drain(recordBuffer, records);
+        drain(heapBuffer, heap);
+
+        int slotCount = slotCount(count);
+        int[] slots = new int[slotCount];
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(ids[i], slotCount);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        long slotsOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+        long heapOffset = slotsOffset + (long) slotCount * SLOT_SIZE;
+        if (heapOffset + heapSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds 2 GiB");
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC_OFFSET, MAGIC)
+                    .putShort(FORMAT_OFFSET, FORMAT_VERSION)
+                    .putShort(KIND_OFFSET, kind)
+                    .putLong(GENERATION_OFFSET, generation)
+                    .putLong(SEQUENCE_OFFSET, sequence)
+                    .putLong(CREATED_AT_OFFSET, System.currentTimeMillis())
+                    .putInt(RECORD_COUNT_OFFSET, count)
+                    .putInt(SLOT_COUNT_OFFSET, slotCount)
+                    .putLong(SLOTS_OFFSET_OFFSET, slotsOffset)
+                    .putLong(HEAP_OFFSET_OFFSET, heapOffset)
+                    .putLong(HEAP_SIZE_OFFSET, heapSize);
+            writeFully(header, out);
+
+            transfer(records, out);
+
+            ByteBuffer slotBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (int slot : slots) {
+                if (!slotBuffer.hasRemaining()) {
+                    drain(slotBuffer, out);
+                }
+                slotBuffer.putInt(slot);
+            }
+            drain(slotBuffer, out);
+
+            transfer(heap, out);
+            out.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        heap.close();
+        Files.deleteIfExists(recordsFile);
+        Files.deleteIfExists(heapFile);
+        if (!committed) {
+            Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".tmp"));
+        }
+    }
+
+    private void putString(String value) throws IOException {
+        if (value == null) {
+            recordBuffer.putInt(0).putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (heapSize + bytes.length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot heap exceeds 2 GiB");
+        }
+        recordBuffer.putInt((int) heapSize).putInt(bytes.length);
+        heapSize += bytes.length;
+
+        if (bytes.length > heapBuffer.remaining()) {
+            drain(heapBuffer, heap);
+        }
+        if (bytes.length > heapBuffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes), heap);
+        } else {
+            heapBuffer.put(bytes);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        writeFully(buffer, channel);
+        buffer.clear();
+    }
+
+    private static void writeFully(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void transfer(FileChannel source, FileChannel target) throws IOException {
+        long size = source.size();
+        long position = 0;
+        while (position < size) {
+            position += source.transferTo(position, size - position, target);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.biddergod.user_service.warmup;
+
+import com.biddergod.user_service.config.CognitoConfig;
+import com.biddergod.user_service.config.WarmupConfig;
+import com.biddergod.user_service.dto.CurrentUserResponse;
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.dto.UsersByIdsResponse;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.security.CognitoJwtAuthenticationConverter;
+import com.biddergod.user_service.sharding.ShardContext;
+import com.biddergod.user_service.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Startup warm-up, run before the application reports readiness
+ * (Spring Boot moves readiness to ACCEPTING_TRAFFIC only after all runners return)
+ * - opens the pool's connections
+ * - fetches the Cognito key set by decoding a token no key matches
+ * - runs the hot repository queries so Hibernate caches their plans
+ * - runs token conversion and response serialization so the JIT sees them
+ * Steps stop at the users.warmup.budget deadline; readiness never waits longer.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "users.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String WARMUP_SUB = "warmup-00000000-0000-0000-0000-000000000000";
+
+    @Autowired
+    private WarmupConfig config;
+
+    @Autowired
+    private CognitoConfig cognitoConfig;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Present when the users table is sharded
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    /**
+     * One warm-up step; implementations return early once past the deadline
+     */
+    interface Step {
+        void run(long deadlineNanos) throws Exception;
+    }
+
+    record NamedStep(String name, Step step) {}
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp(List.of(
+            new NamedStep("pool", this::prefillPool),
+            new NamedStep("jwks", this::preloadKeySet),
+            new NamedStep("repository", this::exerciseRepository),
+            new NamedStep("security", this::exerciseTokenConversion),
+            new NamedStep("json", this::exerciseSerialization)
+        ));
+    }
+
+    /**
+     * Run the steps in order on a worker thread, giving up at the budget
+     * @return true if every step ran within the budget
+     */
+    boolean warmUp(List<NamedStep> steps) {
+        long budgetNanos = config.getBudget().toNanos();
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean completed = false;
+        try {
+            Future<?> future = worker.submit(() -> runSteps(steps, deadline));
+            try {
+                future.get(budgetNanos, TimeUnit.NANOSECONDS);
+                completed = System.nanoTime() <= deadline;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Warm-up exceeded its {} budget, reporting ready anyway", config.getBudget());
+            } catch (ExecutionException e) {
+                log.warn("Warm-up failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            worker.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        timer("total", completed ? "completed" : "budget_exceeded").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up {} in {} ms", completed ? "completed" : "stopped", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return completed;
+    }
+
+    private void runSteps(List<NamedStep> steps, long deadline) {
+        for (NamedStep step : steps) {
+            if (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+                timer(step.name(), "skipped").record(Duration.ZERO);
+                continue;
+            }
+            long stepStart = System.nanoTime();
+            String outcome = "completed";
+            try {
+                step.step().run(deadline);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcome = "interrupted";
+            } catch (Exception e) {
+                outcome = "failed";
+                log.warn("Warm-up step {} failed: {}", step.name(), e.getMessage());
+            }
+            long elapsed = System.nanoTime() - stepStart;
+            timer(step.name(), outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Warm-up step {} {} in {} ms", step.name(), outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private Timer timer(String step, String outcome) {
+        return Timer.builder("users.warmup.duration")
+                .description("Startup warm-up time before readiness")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void prefillPool(long deadline) throws SQLException {
+        if (shardRouter == null) {
+            openConnections(dataSource, deadline);
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.configuredShards(); shard++) {
+            int target = shard;
+            ShardContext.runOn(target, () -> {
+                try {
+                    openConnections(dataSource, deadline);
+                } catch (SQLException e) {
+                    log.warn("Warm-up could not open connections on shard {}: {}", target, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void openConnections(DataSource pool, long deadline) throws SQLException {
+        int count = config.getConnections() != null ? config.getConnections() : minimumIdle(pool);
+        List<Connection> held = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count && System.nanoTime() < deadline; i++) {
+                Connection connection = pool.getConnection();
+                held.add(connection);
+                // Forces a physical connection behind lazy proxies
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private static int minimumIdle(DataSource pool) throws SQLException {
+        if (pool.isWrapperFor(HikariDataSource.class)) {
+            return pool.unwrap(HikariDataSource.class).getMinimumIdle();
+        }
+        return 10;
+    }
+
+    private void preloadKeySet(long deadline) {
+        // Well-formed RS256 token with an unknown key id: the decoder fetches the issuer's
+        // JWKS to look for the key, caches it, then rejects the token
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"kid\":\"warmup\",\"typ\":\"JWT\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"iss\":\"" + cognitoConfig.getIssuerUri()
+                + "\",\"sub\":\"" + WARMUP_SUB + "\",\"exp\":" + (Instant.now().getEpochSecond() + 60) + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            jwtDecoder.decode(header + "." + payload + "." + encoder.encodeToString(new byte[256]));
+        } catch (JwtException e) {
+            log.debug("Warm-up token rejected as expected: {}", e.getMessage());
+        }
+    }
+
+    private void exerciseRepository(long deadline) {
+        List<Long> noIds = List.of(-1L, -2L);
+        for (int i = 0; i < config.getIterations() && System.nanoTime() < deadline; i++) {
+            userRepository.findByCognitoSub(WARMUP_SUB);
+            userRepository.findByEmail(WARMUP_SUB + "@cognito.local");
+            userRepository.existsByUsername(WARMUP_SUB);
+            userRepository.findAllById(noIds);
+        }
+    }
+
+    private void exerciseTokenConversion(long deadline) {
+        CognitoJwtAuthenticationConverter converter = new CognitoJwtAuthenticationConverter();
+        Jwt jwt = Jwt.withTokenValue("warmup")
+                .header("alg", "RS256")
+                .subject(WARMUP_SUB)
+                .claim("token_use", "access")
+                .claim("username", WARMUP_SUB)
+                .claim("scope", "openid email")
+                .claim("cognito:groups", List.of("warmup"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        for (int i = 0; i < config.getIterations() && System.nanoTime() < deadline; i++) {
+            converter.convert(jwt);
+        }
+    }
+
+    private void exerciseSerialization(long deadline) throws Exception {
+        User user = new User(WARMUP_SUB, "warmup@example.com");
+        user.setId(1L);
+        user.setFirstName("Warm");
+        user.setLastName("Up");
+        UserDetailsResponse details = new UserDetailsResponse(user);
+        UsersByIdsResponse batch = new UsersByIdsResponse(List.of(details, details), 2, 2);
+        CurrentUserResponse current = CurrentUserResponse.fromToken(WARMUP_SUB, WARMUP_SUB,
+                "warmup@example.com", List.of("warmup"));
+
+        for (int i = 0; i < config.getIterations() && System.nanoTime() < deadline; i++) {
+            objectMapper.writeValueAsBytes(details);
+            objectMapper.writeValueAsBytes(batch);
+            objectMapper.writeValueAsBytes(current);
+        }
+    }
+}
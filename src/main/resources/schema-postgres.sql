@@ -0,0 +1,18 @@
+-- Runs after Hibernate schema update (spring.jpa.defer-datasource-initialization=true)
+
+-- User search: prefix lookups on username/email and trigram matching on email/full name
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users
+    USING gin (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+-- Replica delta reloads: users updated since the previous reload
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- Optimistic locking: rows written before the version column existed start at 0
+UPDATE users SET version = 0 WHERE version IS NULL;
+ALTER TABLE users ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE users ALTER COLUMN version SET NOT NULL;
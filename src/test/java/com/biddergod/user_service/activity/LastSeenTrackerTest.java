@@ -0,0 +1,141 @@
+package com.biddergod.user_service.activity;
+
+import com.biddergod.user_service.config.LastSeenConfig;
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.service.UserIdCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LastSeenTrackerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private UserIdCache userIdCache;
+    private LastSeenTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        LastSeenConfig config = new LastSeenConfig();
+        config.setBatchSize(2);
+
+        userRepository = mock(UserRepository.class);
+        userIdCache = new UserIdCache();
+        ReflectionTestUtils.setField(userIdCache, "config", new TokenResolutionConfig());
+
+        tracker = new LastSeenTracker();
+        ReflectionTestUtils.setField(tracker, "userRepository", userRepository);
+        ReflectionTestUtils.setField(tracker, "userIdCache", userIdCache);
+        ReflectionTestUtils.setField(tracker, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(tracker, "config", config);
+        ReflectionTestUtils.setField(tracker, "meterRegistry", new SimpleMeterRegistry());
+        tracker.registerMetrics();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_RepeatedObservations_OneRowPerUserInBatches() {
+        for (int i = 0; i < 100; i++) {
+            tracker.record(1L);
+            tracker.record(2L);
+            tracker.record(3L);
+        }
+        assertEquals(3, tracker.pendingCount());
+        assertTrue(tracker.flushLagSeconds() >= 0.0);
+
+        tracker.flush();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+        assertEquals(3, batches.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(0, tracker.pendingCount());
+        assertEquals(0.0, tracker.flushLagSeconds());
+    }
+
+    @Test
+    void record_WithinGranularityOfLastWrite_Dropped() {
+        tracker.record(1L);
+        tracker.flush();
+
+        tracker.record(1L);
+
+        assertEquals(0, tracker.pendingCount());
+    }
+
+    @Test
+    void flush_DatabaseFailure_ObservationsRetried() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down"));
+        tracker.record(1L);
+
+        tracker.flush();
+
+        assertEquals(1, tracker.pendingCount());
+    }
+
+    @Test
+    void recordSub_CachedId_NoLookup() {
+        userIdCache.put("sub-1", 1L);
+
+        tracker.recordSub("sub-1");
+        tracker.flush();
+
+        assertEquals(0, tracker.pendingCount());
+        verifyNoInteractions(userRepository);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordSub_UncachedSub_ResolvedOnFlushAndCached() {
+        User active = user(1L, "sub-1", null);
+        User deactivated = user(2L, "sub-2", LocalDateTime.now());
+        when(userRepository.findByUsernameIn(anyList())).thenReturn(List.of(active, deactivated));
+
+        tracker.recordSub("sub-1");
+        tracker.recordSub("sub-2");
+        tracker.recordSub("sub-unknown");
+        assertEquals(3, tracker.pendingSubCount());
+
+        tracker.flush();
+
+        assertEquals(0, tracker.pendingSubCount());
+        assertEquals(1L, userIdCache.get("sub-1"));
+        assertNull(userIdCache.get("sub-2"));
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(1L, batch.getValue().get(0)[1]);
+    }
+
+    @Test
+    void recordSub_LookupFailure_SubsKeptForNextFlush() {
+        when(userRepository.findByUsernameIn(anyList())).thenThrow(new RuntimeException("db down"));
+
+        tracker.recordSub("sub-1");
+        tracker.flush();
+
+        assertEquals(1, tracker.pendingSubCount());
+        assertTrue(tracker.flushLagSeconds() >= 0.0);
+    }
+
+    private static User user(Long id, String sub, LocalDateTime deactivatedAt) {
+        User user = new User(sub, sub + "@example.com");
+        user.setId(id);
+        user.setDeactivatedAt(deactivatedAt);
+        return user;
+    }
+}
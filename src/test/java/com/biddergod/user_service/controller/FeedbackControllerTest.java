@@ -0,0 +1,80 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.UserServiceApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Feedback is only taken from internal callers, which vouch for the auction's parties
+ */
+class FeedbackControllerTest {
+
+    private static final String FEEDBACK =
+            "{\"auctionId\":1,\"raterId\":2,\"ratedUserId\":3,\"rating\":\"POSITIVE\"}";
+
+    private static ConfigurableApplicationContext context;
+    private static MockMvc mockMvc;
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:feedback-controller;DB_CLOSE_DELAY=-1",
+                        "--users.warmup.enabled=false");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static MockHttpServletRequestBuilder feedback(String body) {
+        return post("/api/internal/feedback").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    @Test
+    void usersCannotSubmitFeedbackDirectly() throws Exception {
+        int status = mockMvc.perform(feedback(FEEDBACK).with(jwt().jwt(jwt -> jwt.subject("sub-rater"))))
+                .andReturn().getResponse().getStatus();
+
+        assertEquals(403, status);
+    }
+
+    @Test
+    void internalCallersSubmitForTheAuctionsParties() throws Exception {
+        int status = mockMvc.perform(feedback(FEEDBACK)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_users/internal"))))
+                .andReturn().getResponse().getStatus();
+
+        assertEquals(202, status);
+    }
+
+    @Test
+    void feedbackForYourselfIsRejected() throws Exception {
+        int status = mockMvc.perform(feedback("{\"auctionId\":1,\"raterId\":3,\"ratedUserId\":3,\"rating\":\"POSITIVE\"}")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_users/internal"))))
+                .andReturn().getResponse().getStatus();
+
+        assertEquals(400, status);
+    }
+}
@@ -0,0 +1,231 @@
+package com.biddergod.user_service.controller;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.security.CognitoAuthenticationToken;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import com.biddergod.user_service.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * SQL statement and allocation budgets for every UserController endpoint
+ * Each endpoint is called once to warm caches, then measured over several runs:
+ * - statements: exact count of JDBC statements Hibernate prepared for the request
+ * - allocation: median bytes allocated on the request thread and the user-resolution
+ *   workers, which must stay within the budget
+ * Budgets are steady-state ceilings; lower them when an endpoint gets cheaper
+ */
+class UserControllerBudgetTest {
+
+    private static final String SUB = "sub-budget";
+    private static final int RUNS = 5;
+    private static final long KB = 1024;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static ConfigurableApplicationContext context;
+    private static MockMvc mockMvc;
+    private static Statistics statistics;
+    private static CognitoAuthenticationToken token;
+    private static String ids;
+
+    @BeforeAll
+    static void start() {
+        enableAllocationCounting();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:controller-budget;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--users.warmup.enabled=false");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        UserService userService = context.getBean(UserService.class);
+        User current = new User(SUB, "budget@example.com");
+        current.setLastName("Budgetson");
+        userService.save(current);
+        StringBuilder idList = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            User other = new User("sub-budget-" + i, "budget" + i + "@example.com");
+            other.setFirstName("Other" + i);
+            other.setLastName("Budgetson");
+            idList.append(idList.isEmpty() ? "" : ",").append(userService.save(other).getId());
+        }
+        ids = idList.toString();
+
+        // Stands in for a token the resource server has already verified
+        Jwt jwt = Jwt.withTokenValue("budget-token")
+                .header("alg", "RS256")
+                .subject(SUB)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("token_use", "access")
+                .claim("username", "budget-user")
+                .claim("client_id", "budget-client")
+                .claim("cognito:groups", List.of("USER"))
+                .build();
+        token = new CognitoAuthenticationToken(new CognitoUserDetails(jwt));
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void getCurrentUser() throws Exception {
+        assertBudget("GET /api/users/me", 0, 384 * KB, run -> get("/api/users/me"));
+    }
+
+    @Test
+    void postCurrentUser() throws Exception {
+        assertBudget("POST /api/users/me", 0, 384 * KB, run -> post("/api/users/me")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+    }
+
+    @Test
+    void getProfile() throws Exception {
+        assertBudget("GET /api/users/profile", 0, 384 * KB, run -> get("/api/users/profile"));
+    }
+
+    @Test
+    void putProfile() throws Exception {
+        // A different name each run so every request really writes
+        assertBudget("PUT /api/users/profile", 1, 512 * KB, run -> put("/api/users/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Put" + run + "\"}"));
+    }
+
+    @Test
+    void patchProfile() throws Exception {
+        assertBudget("PATCH /api/users/profile", 1, 512 * KB, run -> patch("/api/users/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Patch" + run + "\"}"));
+    }
+
+    @Test
+    void getGroups() throws Exception {
+        assertBudget("GET /api/users/groups", 0, 256 * KB, run -> get("/api/users/groups"));
+    }
+
+    @Test
+    void getTokenInfo() throws Exception {
+        assertBudget("GET /api/users/token-info", 0, 256 * KB, run -> get("/api/users/token-info"));
+    }
+
+    @Test
+    void getUsersByIds() throws Exception {
+        // One batch query however many IDs are asked for
+        assertBudget("GET /api/users?id=", 1, 768 * KB, run -> get("/api/users").param("id", ids));
+    }
+
+    @Test
+    void searchUsers() throws Exception {
+        assertBudget("GET /api/users/search", 1, 768 * KB, run -> get("/api/users/search")
+                .param("q", "budgetson")
+                .param("limit", "20"));
+    }
+
+    private static void assertBudget(String endpoint, long statements, long maxAllocatedBytes,
+                                     IntFunction<MockHttpServletRequestBuilder> request) throws Exception {
+        perform(endpoint, request.apply(-1));
+
+        long[] allocated = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            MockHttpServletRequestBuilder builder = request.apply(run).with(authentication(token));
+            long[] workers = workerThreadIds();
+            long[] workersBefore = THREADS.getThreadAllocatedBytes(workers);
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long self = Thread.currentThread().threadId();
+            long selfBefore = THREADS.getThreadAllocatedBytes(self);
+
+            MockHttpServletResponse response = mockMvc.perform(builder).andReturn().getResponse();
+
+            long selfAfter = THREADS.getThreadAllocatedBytes(self);
+            long issued = statistics.getPrepareStatementCount() - statementsBefore;
+            allocated[run] = selfAfter - selfBefore + workerAllocatedBytes(workers, workersBefore);
+
+            assertTrue(response.getStatus() < 300,
+                    endpoint + " returned " + response.getStatus() + ": " + response.getContentAsString());
+            assertEquals(statements, issued, endpoint + " issued " + issued + " statements in run " + run
+                    + ", budget is " + statements);
+        }
+
+        Arrays.sort(allocated);
+        long median = allocated[RUNS / 2];
+        assertTrue(median <= maxAllocatedBytes, endpoint + " allocated " + median / KB
+                + " KB per request, budget is " + maxAllocatedBytes / KB + " KB");
+    }
+
+    private static void perform(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request.with(authentication(token))).andReturn().getResponse();
+        assertTrue(response.getStatus() < 300,
+                endpoint + " returned " + response.getStatus() + ": " + response.getContentAsString());
+    }
+
+    /**
+     * Bytes the user-resolution workers allocated since the snapshot,
+     * including workers the pool started during the request
+     */
+    private static long workerAllocatedBytes(long[] workers, long[] before) {
+        Map<Long, Long> baseline = new HashMap<>();
+        for (int i = 0; i < workers.length; i++) {
+            baseline.put(workers[i], before[i]);
+        }
+        long[] current = workerThreadIds();
+        long[] after = THREADS.getThreadAllocatedBytes(current);
+        long total = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (after[i] >= 0) {
+                total += after[i] - baseline.getOrDefault(current[i], 0L);
+            }
+        }
+        return total;
+    }
+
+    private static long[] workerThreadIds() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("user-resolution-"))
+                .mapToLong(Thread::threadId)
+                .toArray();
+    }
+
+    private static void enableAllocationCounting() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(), "JVM does not support thread allocation counters");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+}
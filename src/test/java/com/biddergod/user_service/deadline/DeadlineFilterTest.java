@@ -0,0 +1,117 @@
+package com.biddergod.user_service.deadline;
+
+import com.biddergod.user_service.config.DeadlineConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DeadlineFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineConfig config = new DeadlineConfig();
+        config.setDefaultTimeout(Duration.ofSeconds(10));
+        config.setMaxTimeout(Duration.ofSeconds(30));
+        config.getEndpoints().put("/api/users/search", Duration.ofSeconds(2));
+        filter = new DeadlineFilter(config, meterRegistry);
+    }
+
+    @Test
+    void budgetComesFromHeaderThenEndpointThenDefault() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/search");
+        assertEquals(2000, filter.timeoutMillis(request));
+
+        request.addHeader("X-Request-Timeout", "750");
+        assertEquals(750, filter.timeoutMillis(request));
+
+        MockHttpServletRequest greedy = new MockHttpServletRequest("GET", "/api/users/me");
+        greedy.addHeader("X-Request-Timeout", "600000");
+        assertEquals(30_000, filter.timeoutMillis(greedy));
+
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/users/me");
+        malformed.addHeader("X-Request-Timeout", "soon");
+        assertEquals(10_000, filter.timeoutMillis(malformed));
+    }
+
+    @Test
+    void deadlineIsBoundForTheRequestOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("X-Request-Timeout", "5000");
+        AtomicLong remaining = new AtomicLong();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+            remaining.set(RequestDeadline.current().remainingMillis()));
+
+        assertTrue(remaining.get() > 4000 && remaining.get() <= 5000);
+        assertNull(RequestDeadline.current());
+        assertEquals("x", RequestDeadline.supplyWith(null, () -> "x"));
+    }
+
+    @Test
+    void spentBudgetIsRejectedWithoutCallingTheHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("X-Request-Timeout", "0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean called = new AtomicBoolean();
+
+        filter.doFilter(request, response, (req, res) -> called.set(true));
+
+        assertFalse(called.get());
+        assertEquals(504, response.getStatus());
+        assertEquals(1.0, meterRegistry.counter("users.deadline.exceeded", "endpoint", "GET unmatched").count());
+    }
+
+    @Test
+    void expiredRequestsAreCountedByEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/search");
+        request.addHeader("X-Request-Timeout", "20");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/search");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThrows(DeadlineExceededException.class, RequestDeadline::check);
+        });
+
+        assertEquals(1.0, meterRegistry.counter("users.deadline.exceeded", "endpoint", "GET /api/users/search").count());
+    }
+
+    @Test
+    void transactionTimeoutIsCappedByTheDeadline() {
+        DeadlineAwareJpaTransactionManager transactionManager =
+                new DeadlineAwareJpaTransactionManager(mock(EntityManagerFactory.class));
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+
+        assertEquals(TransactionDefinition.TIMEOUT_DEFAULT, transactionManager.determineTimeout(definition));
+
+        RequestDeadline.supplyWith(new RequestDeadline(2500), () -> {
+            // Rounded up: JDBC timeouts are whole seconds
+            assertEquals(3, transactionManager.determineTimeout(definition));
+            definition.setTimeout(1);
+            assertEquals(1, transactionManager.determineTimeout(definition));
+            return null;
+        });
+
+        assertThrows(DeadlineExceededException.class, () -> RequestDeadline.supplyWith(new RequestDeadline(0),
+                () -> transactionManager.determineTimeout(definition)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.biddergod.user_service.existence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("sub-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("sub-" + i), "false negative for sub-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_500, "false-positive rate too high: " + falsePositives / 1000.0 + "%");
+    }
+
+    @Test
+    void sizingIsAboutTenBitsPerKeyAtOnePercent() {
+        BloomFilter filter = new BloomFilter(10_000_000, 0.01);
+
+        double bitsPerKey = filter.bitCount() / 10_000_000.0;
+        assertEquals(9.6, bitsPerKey, 0.1);
+        assertEquals(7, filter.probes());
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    filter.add(thread + "-" + i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain(t + "-" + i));
+            }
+        }
+    }
+
+    @Test
+    void invalidFalsePositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1));
+    }
+}
@@ -0,0 +1,76 @@
+package com.biddergod.user_service.existence;
+
+import com.biddergod.user_service.config.ExistenceFilterConfig;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserExistenceFilterTest {
+
+    private UserExistenceFilter filter;
+    private ExistenceFilterConfig config;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        config = new ExistenceFilterConfig();
+        config.setExpectedUsers(1_000);
+        userRepository = mock(UserRepository.class);
+
+        filter = new UserExistenceFilter();
+        ReflectionTestUtils.setField(filter, "config", config);
+        ReflectionTestUtils.setField(filter, "userRepository", userRepository);
+        ReflectionTestUtils.setField(filter, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    private void table(String... subs) {
+        when(userRepository.streamAllSummaries()).thenAnswer(invocation -> Stream.of(subs)
+                .map(sub -> new UserSummary(null, sub, sub + "@example.com", null, null, null, null)));
+    }
+
+    @Test
+    void missedInvalidationsSendProbesToTheDatabaseUntilRebuilt() {
+        table("sub-a");
+        filter.rebuild();
+        assertFalse(filter.mightExistByUsername("sub-b"));
+
+        // sub-b was inserted on another replica while the bus was down
+        table("sub-a", "sub-b");
+        filter.onInvalidationsMissed();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightExistByUsername("sub-c"));
+
+        filter.rebuildIfNeeded();
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightExistByUsername("sub-b"));
+        assertTrue(filter.mightExistByEmail("SUB-B@example.com"));
+    }
+
+    @Test
+    void filtersAreRebuiltOnceTheyReachTheirMaxAge() {
+        table("sub-a");
+        filter.rebuild();
+        table("sub-a", "sub-b");
+
+        filter.rebuildIfNeeded();
+        assertFalse(filter.mightExistByUsername("sub-b"));
+
+        config.setMaxAge(Duration.ZERO);
+        filter.rebuildIfNeeded();
+        assertTrue(filter.mightExistByUsername("sub-b"));
+        verify(userRepository, times(2)).streamAllSummaries();
+    }
+}
@@ -0,0 +1,111 @@
+package com.biddergod.user_service.feedback;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.reputation.ReputationStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Auction-end burst on H2: producers submit as fast as the queue lets them,
+ * backing off on rejection like clients honouring the 503; every pair is sent twice
+ * Logs end-to-end throughput and checks nothing was lost or counted twice
+ */
+class FeedbackIngestionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackIngestionBenchmarkTest.class);
+
+    private static final int PRODUCERS = 8;
+    private static final int AUCTIONS_PER_PRODUCER = 5_000;
+    private static final int RATED_USERS = 100;
+
+    private ConfigurableApplicationContext context;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:feedback-burst;DB_CLOSE_DELAY=-1",
+                        "--users.warmup.enabled=false",
+                        "--users.feedback.queue-capacity=10000",
+                        "--users.reputation.flush-interval=PT1H");
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void burstIsWrittenOnceWithIdempotentResubmissions() throws Exception {
+        FeedbackIngestor ingestor = context.getBean(FeedbackIngestor.class);
+        ReputationStore reputation = context.getBean(ReputationStore.class);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        AtomicLong rejections = new AtomicLong();
+
+        long started = System.nanoTime();
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            long rater = 1_000 + p;
+            futures.add(producers.submit(() -> {
+                for (int round = 0; round < 2; round++) {
+                    for (long auction = 0; auction < AUCTIONS_PER_PRODUCER; auction++) {
+                        FeedbackSubmission submission = new FeedbackSubmission(auction, rater,
+                                auction % RATED_USERS, FeedbackRating.POSITIVE, "Smooth transaction", Instant.now());
+                        while (!ingestor.submit(submission)) {
+                            rejections.incrementAndGet();
+                            Thread.sleep(1);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        producers.shutdown();
+
+        long unique = (long) PRODUCERS * AUCTIONS_PER_PRODUCER;
+        await().atMost(Duration.ofSeconds(60)).until(() ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM feedback", Long.class) == unique
+                        && ingestor.queueSize() == 0);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Ingested {} submissions ({} unique rows) in {} s: {} submissions/s, {} rejections",
+                unique * 2, unique, String.format("%.2f", seconds), Math.round(unique * 2 / seconds), rejections.get());
+
+        // Points are committed with the rows and re-read right after each commit
+        long perUser = unique / RATED_USERS;
+        await().atMost(Duration.ofSeconds(5)).until(() -> LongStream.range(0, RATED_USERS)
+                .allMatch(user -> reputation.get(user).positiveCount() >= perUser));
+        assertEquals(unique, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM feedback", Long.class));
+        for (long user = 0; user < RATED_USERS; user++) {
+            assertEquals(perUser, reputation.get(user).positiveCount(), "positive feedback for user " + user);
+            assertEquals(perUser, reputation.get(user).score(), "score for user " + user);
+        }
+        // Durable without a flush (the flush interval is an hour)
+        assertEquals(unique, jdbcTemplate.queryForObject(
+                "SELECT SUM(positive_count) FROM user_reputation", Long.class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.biddergod.user_service.feedback;
+
+import com.biddergod.user_service.config.FeedbackConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackIngestorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FeedbackIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        FeedbackConfig config = new FeedbackConfig();
+        config.setQueueCapacity(3);
+        meterRegistry = new SimpleMeterRegistry();
+
+        // Writer not started: nothing drains the queue
+        ingestor = new FeedbackIngestor();
+        ReflectionTestUtils.setField(ingestor, "config", config);
+        ReflectionTestUtils.setField(ingestor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(ingestor, "init");
+    }
+
+    @Test
+    void submit_QueueFull_RejectedWithoutBlocking() {
+        for (long auction = 1; auction <= 3; auction++) {
+            assertTrue(ingestor.submit(feedback(auction)));
+        }
+
+        assertFalse(ingestor.submit(feedback(4)));
+        assertEquals(3, ingestor.queueSize());
+        assertEquals(3.0, meterRegistry.counter("users.feedback.accepted").count());
+        assertEquals(1.0, meterRegistry.counter("users.feedback.rejected").count());
+    }
+
+    private static FeedbackSubmission feedback(long auctionId) {
+        return new FeedbackSubmission(auctionId, 10L, 20L, FeedbackRating.POSITIVE, null, Instant.now());
+    }
+}
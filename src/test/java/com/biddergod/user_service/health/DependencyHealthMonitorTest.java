@@ -0,0 +1,110 @@
+package com.biddergod.user_service.health;
+
+import com.biddergod.user_service.config.CognitoConfig;
+import com.biddergod.user_service.config.HealthCheckConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class DependencyHealthMonitorTest {
+
+    private DependencyHealthMonitor monitor;
+    private DataSource dataSource;
+    private Connection connection;
+    private HealthCheckConfig config;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        config = new HealthCheckConfig();
+
+        monitor = new DependencyHealthMonitor();
+        ReflectionTestUtils.setField(monitor, "dataSource", dataSource);
+        ReflectionTestUtils.setField(monitor, "config", config);
+    }
+
+    private void refreshDatabase() {
+        ReflectionTestUtils.setField(monitor, "database", monitor.checkDatabase());
+        ReflectionTestUtils.setField(monitor, "refreshedAt", System.nanoTime());
+    }
+
+    @Test
+    void databaseUpWhenConnectionValidates() throws SQLException {
+        when(connection.isValid(anyInt())).thenReturn(true);
+
+        refreshDatabase();
+
+        assertEquals(Status.UP, monitor.database().getStatus());
+    }
+
+    @Test
+    void databaseDownWhenConnectionCannotBeObtained() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        refreshDatabase();
+
+        assertEquals(Status.DOWN, monitor.database().getStatus());
+    }
+
+    @Test
+    void probesReadTheCachedResultWithoutTouchingTheDatabase() throws SQLException {
+        when(connection.isValid(anyInt())).thenReturn(true);
+        refreshDatabase();
+        clearInvocations(dataSource, connection);
+
+        for (int i = 0; i < 1_000; i++) {
+            monitor.database();
+        }
+
+        verifyNoInteractions(dataSource, connection);
+    }
+
+    @Test
+    void staleSnapshotIsReportedDown() throws SQLException {
+        when(connection.isValid(anyInt())).thenReturn(true);
+        refreshDatabase();
+        config.setStaleAfter(Duration.ofMillis(1));
+        ReflectionTestUtils.setField(monitor, "refreshedAt", System.nanoTime() - Duration.ofSeconds(1).toNanos());
+
+        assertEquals(Status.DOWN, monitor.database().getStatus());
+    }
+
+    @Test
+    void poolIsUnknownForNonHikariDataSources() {
+        assertEquals(Status.UNKNOWN, monitor.checkConnectionPool().getStatus());
+    }
+
+    @Test
+    void refreshRunsOnItsOwnThread() throws SQLException {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(connection.isValid(anyInt())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return true;
+        });
+        ReflectionTestUtils.setField(monitor, "cognitoConfig", new CognitoConfig());
+        config.setRefreshInterval(Duration.ofMillis(50));
+
+        ReflectionTestUtils.invokeMethod(monitor, "init");
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> monitor.database().getStatus() == Status.UP);
+        } finally {
+            ReflectionTestUtils.invokeMethod(monitor, "shutdown");
+        }
+        assertEquals(Set.of("health-refresh"), threads);
+    }
+}
@@ -0,0 +1,147 @@
+package com.biddergod.user_service.id;
+
+import com.biddergod.user_service.config.IdGeneratorConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdAllocatorTest {
+
+    private static final Instant EPOCH = SnowflakeIdAllocator.DEFAULT_EPOCH;
+
+    @Test
+    void idsAreUniqueAcrossThreadsAndNodes() throws Exception {
+        int nodes = 4;
+        int threadsPerNode = 8;
+        int idsPerThread = 50_000;
+
+        List<SnowflakeIdAllocator> allocators = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            allocators.add(new SnowflakeIdAllocator(node * 63, EPOCH, Duration.ofSeconds(5)));
+        }
+
+        Set<Long> seen = ConcurrentHashMap.newKeySet(nodes * threadsPerNode * idsPerThread);
+        ExecutorService pool = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (SnowflakeIdAllocator allocator : allocators) {
+                for (int t = 0; t < threadsPerNode; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        long last = -1;
+                        for (int i = 0; i < idsPerThread; i++) {
+                            long id = allocator.nextId();
+                            assertTrue(id > last, "ids from one thread must increase");
+                            assertEquals(allocator.getNodeId(), SnowflakeIdAllocator.nodeOf(id));
+                            assertTrue(seen.add(id), "duplicate id " + id);
+                            last = id;
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(nodes * threadsPerNode * idsPerThread, seen.size());
+    }
+
+    @Test
+    void idsAreTimeOrdered() {
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 10_000);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(3, EPOCH, Duration.ofSeconds(1), clock::get);
+
+        long first = allocator.nextId();
+        clock.addAndGet(5);
+        long second = allocator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(clock.get(), SnowflakeIdAllocator.timestampOf(second, EPOCH));
+        assertTrue(allocator.nextId() > second);
+    }
+
+    @Test
+    void sequenceExhaustionBorrowsTheNextMillisecond() {
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 10_000);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, EPOCH, Duration.ofSeconds(1), clock::get);
+
+        long last = 0;
+        for (int i = 0; i < (1 << SnowflakeIdAllocator.SEQUENCE_BITS) * 3; i++) {
+            long id = allocator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        // Frozen clock: the allocator ran two milliseconds ahead on its logical clock
+        assertEquals(clock.get() + 2, SnowflakeIdAllocator.timestampOf(last, EPOCH));
+    }
+
+    @Test
+    void smallClockStepBackIsAbsorbed() {
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 10_000);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, EPOCH, Duration.ofSeconds(1), clock::get);
+
+        long before = allocator.nextId();
+        clock.addAndGet(-500);
+        long after = allocator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void largeClockStepBackFails() {
+        AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli() + 10_000);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, EPOCH, Duration.ofSeconds(1), clock::get);
+
+        allocator.nextId();
+        clock.addAndGet(-5_000);
+
+        assertThrows(IllegalStateException.class, allocator::nextId);
+    }
+
+    @Test
+    void bucketIsCarriedInTheId() {
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(255, EPOCH, Duration.ofSeconds(1));
+
+        for (int bucket = 0; bucket <= SnowflakeIdAllocator.MAX_BUCKET; bucket++) {
+            long id = allocator.nextId(bucket);
+            assertEquals(bucket, SnowflakeIdAllocator.bucketOf(id));
+            assertEquals(255, SnowflakeIdAllocator.nodeOf(id));
+        }
+        assertThrows(IllegalArgumentException.class, () -> allocator.nextId(SnowflakeIdAllocator.MAX_BUCKET + 1));
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideEightBits() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(256, EPOCH, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(-1, EPOCH, Duration.ZERO));
+    }
+
+    @Test
+    void startupFailsWithoutANodeId() {
+        SnowflakeIdInitializer initializer = new SnowflakeIdInitializer();
+        ReflectionTestUtils.setField(initializer, "config", new IdGeneratorConfig());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, initializer::install);
+        assertTrue(e.getMessage().contains("users.id.node-id"));
+    }
+}
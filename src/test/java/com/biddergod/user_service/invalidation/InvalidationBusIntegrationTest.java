@@ -0,0 +1,79 @@
+package com.biddergod.user_service.invalidation;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.search.UserSearchIndex;
+import com.biddergod.user_service.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts ("replicas") sharing one database and the in-memory bus
+ * A write on one replica must refresh the other replica's in-process search index
+ */
+class InvalidationBusIntegrationTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--users.warmup.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:invalidation-e2e;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--users.search.engine=memory",
+                        "--users.invalidation.bus=memory",
+                        "--users.invalidation.channel=invalidation_e2e",
+                        "--users.invalidation.node-id=" + nodeId,
+                        "--users.invalidation.batch-window=PT0.05S");
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void writeOnOneNode_InvalidatesOtherNode() {
+        UserService usersOnA = nodeA.getBean(UserService.class);
+        UserSearchIndex searchOnB = nodeB.getBean(UserSearchIndex.class);
+
+        User user = new User("sub-e2e", "casey.lee@example.com");
+        user.setFirstName("Casey");
+        user.setLastName("Lee");
+        User saved = usersOnA.save(user);
+        Long id = saved.getId();
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> searchOnB.search("casey", 10).contains(id));
+
+        saved.setLastName("Morgan");
+        usersOnA.save(saved);
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> searchOnB.search("morgan", 10).contains(id));
+        assertTrue(searchOnB.search("casey.lee", 10).contains(id));
+
+        usersOnA.deleteById(id);
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> !searchOnB.search("casey", 10).contains(id));
+    }
+}
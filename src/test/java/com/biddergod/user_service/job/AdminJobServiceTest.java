@@ -0,0 +1,142 @@
+package com.biddergod.user_service.job;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.config.AdminJobConfig;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jobs run against H2 in small chunks so every test crosses several chunk boundaries
+ */
+class AdminJobServiceTest {
+
+    private ConfigurableApplicationContext context;
+    private AdminJobService jobs;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--users.warmup.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:jobs-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--users.jobs.chunk-size=7",
+                        "--users.jobs.max-rows-per-second=100000");
+        jobs = context.getBean(AdminJobService.class);
+        userRepository = context.getBean(UserRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void purgeDeletesOnlyStalePlaceholderUsers() {
+        List<Long> stale = createUsers("stale", 30, true, 60);
+        List<Long> recent = createUsers("recent", 5, true, 1);
+        List<Long> seen = createUsers("seen", 5, true, 60);
+        List<Long> real = createUsers("real", 10, false, 60);
+        // Placeholder email but still signing in
+        seen.forEach(id -> jdbcTemplate.update("UPDATE users SET last_seen_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)), id));
+        stale.forEach(id -> assertTrue(userRepository.findById(id).isPresent()));
+
+        AdminJobStatus job = awaitFinished(jobs.startPlaceholderPurge(Duration.ofDays(30), "admin-sub").id());
+
+        assertEquals(AdminJobState.COMPLETED, job.state());
+        assertEquals(30L, job.total());
+        assertEquals(30, job.affected());
+        assertNotNull(job.finishedAt());
+        // Cached rows were evicted along with the deletes
+        stale.forEach(id -> assertTrue(userRepository.findById(id).isEmpty()));
+        for (List<Long> kept : List.of(recent, seen, real)) {
+            kept.forEach(id -> assertTrue(userRepository.findById(id).isPresent()));
+        }
+    }
+
+    @Test
+    void deactivationSkipsUnknownAndRepeatedIds() {
+        List<Long> targets = createUsers("target", 20, false, 0);
+        List<Long> bystanders = createUsers("bystander", 3, false, 0);
+        long versionBefore = userRepository.findById(targets.get(0)).orElseThrow().getVersion();
+
+        List<Long> ids = new ArrayList<>(targets);
+        ids.add(targets.get(0));
+        ids.add(-1L);
+        AdminJobStatus job = awaitFinished(jobs.startDeactivation(ids, "admin-sub").id());
+
+        assertEquals(AdminJobState.COMPLETED, job.state());
+        assertEquals(21L, job.total());
+        assertEquals(21, job.processed());
+        assertEquals(20, job.affected());
+        User deactivated = userRepository.findById(targets.get(0)).orElseThrow();
+        assertNotNull(deactivated.getDeactivatedAt());
+        assertEquals(versionBefore + 1, deactivated.getVersion());
+        bystanders.forEach(id -> assertNull(userRepository.findById(id).orElseThrow().getDeactivatedAt()));
+
+        // Running it again changes nothing
+        AdminJobStatus again = awaitFinished(jobs.startDeactivation(targets, "admin-sub").id());
+        assertEquals(0, again.affected());
+    }
+
+    @Test
+    void cancelledJobStopsBeforeItsNextChunk() {
+        List<Long> targets = createUsers("slow", 70, false, 0);
+        // 7 users per chunk at 14 per second: about 5 seconds for the whole list
+        context.getBean(AdminJobConfig.class).setMaxRowsPerSecond(14);
+
+        long jobId = jobs.startDeactivation(targets, "admin-sub").id();
+        await().atMost(Duration.ofSeconds(5)).until(() -> jobs.get(jobId).orElseThrow().processed() > 0);
+        assertEquals(AdminJobState.CANCELLED, jobs.cancel(jobId).orElseThrow().state());
+
+        // The chunk under way finishes, then the worker stops
+        await().atMost(Duration.ofSeconds(5)).until(() -> !jobs.isRunningHere(jobId));
+        long deactivated = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE deactivated_at IS NOT NULL", Long.class);
+
+        AdminJobStatus after = jobs.get(jobId).orElseThrow();
+        assertEquals(AdminJobState.CANCELLED, after.state());
+        assertTrue(after.processed() < targets.size());
+        assertEquals(after.affected(), deactivated);
+        assertThrows(IllegalStateException.class, () -> jobs.resume(jobId));
+    }
+
+    private List<Long> createUsers(String prefix, int count, boolean placeholder, int ageDays) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String sub = prefix + "-" + i;
+            User user = userRepository.save(new User(sub, placeholder ? sub + "@cognito.local" : sub + "@example.com"));
+            ids.add(user.getId());
+        }
+        if (ageDays > 0) {
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(ageDays));
+            ids.forEach(id -> jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", createdAt, id));
+        }
+        return ids;
+    }
+
+    private AdminJobStatus awaitFinished(long jobId) {
+        await().atMost(Duration.ofSeconds(30)).until(() -> jobs.get(jobId).orElseThrow().state() != AdminJobState.RUNNING);
+        return jobs.get(jobId).orElseThrow();
+    }
+}
@@ -0,0 +1,84 @@
+package com.biddergod.user_service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedScoresTest {
+
+    @Test
+    void ordersByScoreThenUserId() {
+        RankedScores scores = new RankedScores();
+        scores.put(3, 10);
+        scores.put(1, 10);
+        scores.put(2, 50);
+        scores.put(4, -5);
+
+        assertEquals(List.of(
+                new RankedScores.Entry(0, 2, 50),
+                new RankedScores.Entry(1, 1, 10),
+                new RankedScores.Entry(2, 3, 10),
+                new RankedScores.Entry(3, 4, -5)), scores.range(0, 10));
+        assertEquals(new RankedScores.Entry(2, 3, 10), scores.get(3));
+        assertNull(scores.get(99));
+    }
+
+    @Test
+    void movesUsersWhenTheirScoreChanges() {
+        RankedScores scores = new RankedScores();
+        scores.put(1, 5);
+        scores.put(2, 7);
+
+        scores.put(1, 9);
+        assertEquals(0, scores.get(1).rank());
+        assertEquals(2, scores.size());
+
+        scores.remove(1);
+        assertEquals(0, scores.get(2).rank());
+        assertEquals(1, scores.size());
+    }
+
+    @Test
+    void pagesAndRanksMatchAFullSort() {
+        RankedScores scores = new RankedScores();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextInt(2_000);
+            if (random.nextInt(10) == 0) {
+                scores.remove(userId);
+                expected.remove(userId);
+            } else {
+                long score = random.nextInt(200) - 50;
+                scores.put(userId, score);
+                expected.put(userId, score);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparingLong(Map.Entry::getKey));
+        assertEquals(sorted.size(), scores.size());
+
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            Map.Entry<Long, Long> entry = sorted.get(rank);
+            assertEquals(new RankedScores.Entry(rank, entry.getKey(), entry.getValue()), scores.get(entry.getKey()));
+        }
+        for (int offset = 0; offset < sorted.size(); offset += 37) {
+            List<RankedScores.Entry> page = scores.range(offset, 25);
+            assertEquals(Math.min(25, sorted.size() - offset), page.size());
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals(sorted.get(offset + i).getKey(), page.get(i).userId());
+                assertEquals(offset + i, page.get(i).rank());
+            }
+        }
+        assertTrue(scores.range(sorted.size(), 10).isEmpty());
+    }
+}
@@ -0,0 +1,225 @@
+package com.biddergod.user_service.observability;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.security.CognitoAuthenticationToken;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import com.biddergod.user_service.service.UserService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Custom JFR events end to end: emitted on the request path, kept by the continuous
+ * recording and downloadable from GET /api/admin/jfr
+ * Also measures the recording's overhead on the hot endpoints against the 1% target
+ */
+class FlightRecorderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderTest.class);
+
+    private static final String SUB = "sub-jfr";
+    private static final int ROUNDS = 7;
+    private static final int REQUESTS_PER_ROUND = 200;
+
+    private static ConfigurableApplicationContext context;
+    private static MockMvc mockMvc;
+    private static CognitoAuthenticationToken user;
+    private static CognitoAuthenticationToken admin;
+    private static String ids;
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:flight-recorder;DB_CLOSE_DELAY=-1",
+                        "--users.warmup.enabled=false",
+                        "--users.jfr.enabled=true");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+
+        UserService userService = context.getBean(UserService.class);
+        userService.save(new User(SUB, "jfr@example.com"));
+        StringBuilder idList = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            idList.append(idList.isEmpty() ? "" : ",")
+                    .append(userService.save(new User("sub-jfr-" + i, "jfr" + i + "@example.com")).getId());
+        }
+        ids = idList.toString();
+
+        user = token(SUB, List.of("USER"));
+        admin = token("sub-jfr-admin", List.of("ADMIN"));
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static CognitoAuthenticationToken token(String sub, List<String> groups) {
+        Jwt jwt = jwt(sub, groups);
+        return new CognitoAuthenticationToken(new CognitoUserDetails(jwt));
+    }
+
+    private static Jwt jwt(String sub, List<String> groups) {
+        return Jwt.withTokenValue("jfr-token-" + sub)
+                .header("alg", "RS256")
+                .subject(sub)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("token_use", "access")
+                .claim("cognito:groups", groups)
+                .build();
+    }
+
+    @Test
+    void customEventsAreRecordedWithTheirFields() throws Exception {
+        FlightRecorderService recorder = context.getBean(FlightRecorderService.class);
+        assertTrue(recorder.isRecording());
+
+        // The resource server's decoder needs the issuer; decorate a local one instead
+        new TimedJwtDecoder(token -> jwt(SUB, List.of("USER"))).decode("jfr-token");
+        assertEquals(200, perform(get("/api/users/me")).getStatus());
+        assertEquals(200, perform(get("/api/users").param("id", ids + ",999999")).getStatus());
+        assertEquals(200, perform(put("/api/users/profile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Recorded\"}")).getStatus());
+
+        List<RecordedEvent> events = download();
+        Map<String, List<RecordedEvent>> byName = events.stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.biddergod.users."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        RecordedEvent decode = last(byName, "com.biddergod.users.TokenDecode");
+        assertEquals("access", decode.getString("tokenUse"));
+        assertTrue(decode.getBoolean("success"));
+
+        RecordedEvent resolution = last(byName, "com.biddergod.users.UserResolution");
+        assertEquals(UserResolutionEvent.BY_SUB, resolution.getString("strategy"));
+        assertTrue(resolution.getLong("userId") > 0);
+
+        RecordedEvent lookup = last(byName, "com.biddergod.users.BatchLookup");
+        assertEquals(11, lookup.getInt("requested"));
+        assertEquals(10, lookup.getInt("found"));
+        assertFalse(lookup.getDuration().isNegative());
+
+        assertNotNull(last(byName, "com.biddergod.users.ProfileUpdate"));
+    }
+
+    @Test
+    void dumpIsOnlyAvailableToAdmins() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/admin/jfr").with(authentication(user)))
+                .andReturn().getResponse();
+
+        assertEquals(403, response.getStatus());
+    }
+
+    /**
+     * Alternates rounds with and without the continuous recording and compares median
+     * round times. Logged against the 1% target; the assertion only catches gross
+     * regressions because wall-clock timings on shared CI hosts are too noisy for 1%.
+     */
+    @Test
+    void recordingOverheadOnHotEndpoints() throws Exception {
+        FlightRecorderService recorder = context.getBean(FlightRecorderService.class);
+        runRound();
+        runRound();
+
+        long[] recording = new long[ROUNDS];
+        long[] idle = new long[ROUNDS];
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                recorder.stop();
+                idle[round] = runRound();
+                recorder.start();
+                recording[round] = runRound();
+            }
+        } finally {
+            if (!recorder.isRecording()) {
+                recorder.start();
+            }
+        }
+
+        Arrays.sort(recording);
+        Arrays.sort(idle);
+        double overhead = (double) (recording[ROUNDS / 2] - idle[ROUNDS / 2]) / idle[ROUNDS / 2];
+        log.info("JFR overhead on GET /api/users/me + GET /api/users?id=: {}% ({} vs {} us per request, target < 1%)",
+                String.format("%.2f", overhead * 100),
+                recording[ROUNDS / 2] / REQUESTS_PER_ROUND / 1_000,
+                idle[ROUNDS / 2] / REQUESTS_PER_ROUND / 1_000);
+        assertTrue(overhead < 0.05, "JFR overhead " + overhead * 100 + "%");
+    }
+
+    private static long runRound() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS_PER_ROUND / 2; i++) {
+            perform(get("/api/users/me"));
+            perform(get("/api/users").param("id", ids));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(authentication(user))).andReturn().getResponse();
+    }
+
+    private static List<RecordedEvent> download() throws Exception {
+        long dumpsBefore = temporaryDumps();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/admin/jfr").with(authentication(admin)))
+                .andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").endsWith(".jfr\""));
+        assertEquals(dumpsBefore, temporaryDumps(), "temporary dump left behind");
+
+        Path file = Files.createTempFile("flight-recorder-test-", ".jfr");
+        try {
+            Files.write(file, response.getContentAsByteArray());
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long temporaryDumps() throws Exception {
+        try (var files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().matches("users-service-.*\\.jfr")).count();
+        }
+    }
+
+    private static RecordedEvent last(Map<String, List<RecordedEvent>> byName, String name) {
+        List<RecordedEvent> events = byName.get(name);
+        assertNotNull(events, name + " was not recorded");
+        return events.get(events.size() - 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.biddergod.user_service.observability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @Test
+    void writesPhasesBeforeTheBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), response, (req, res) -> {
+            RequestTimings timings = RequestTimings.current();
+            timings.add(RequestTimings.Phase.AUTH, 1_204_000);
+            timings.add(RequestTimings.Phase.DB, 2_915_500);
+            timings.countQuery();
+            timings.countQuery();
+            res.getOutputStream().write("{}".getBytes());
+            // Recorded after the body started: too late for the header
+            timings.add(RequestTimings.Phase.SER, 50_000);
+        });
+
+        assertEquals("auth;dur=1.204, db;dur=2.915;desc=\"2 queries\"", response.getHeader(RequestTimings.HEADER));
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void writesHeaderForBodilessResponses() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/users/1"), response, (req, res) ->
+            RequestTimings.current().add(RequestTimings.Phase.RESOLVE, 7_000));
+
+        assertEquals("resolve;dur=0.007", response.getHeader(RequestTimings.HEADER));
+    }
+
+    @Test
+    void omitsHeaderWhenNothingWasRecorded() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/health"), response, (req, res) ->
+            res.getWriter().write("ok"));
+
+        assertNull(response.getHeader(RequestTimings.HEADER));
+    }
+
+    @Test
+    void recordsNothingOutsideARequest() {
+        assertNull(RequestTimings.current());
+        assertEquals("x", RequestTimings.supplyWith(null, () -> "x"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.biddergod.user_service.replica;
+
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.repository.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedUserTableTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+
+    private static UserSummary user(long id, String firstName) {
+        return new UserSummary(id, "sub-" + id, "user" + id + "@example.com", firstName, "Nguyễn",
+                CREATED, CREATED.plusSeconds(id));
+    }
+
+    @Test
+    void putGetAndRemove() {
+        PackedUserTable table = new PackedUserTable(16);
+        table.put(user(7, "Ann"));
+        table.put(user(0, null));
+
+        UserDetailsResponse ann = table.get(7);
+        assertEquals(7L, ann.getId());
+        assertEquals("sub-7", ann.getUsername());
+        assertEquals("user7@example.com", ann.getEmail());
+        assertEquals("Ann", ann.getFirstName());
+        assertEquals("Nguyễn", ann.getLastName());
+        assertEquals(CREATED, ann.getCreatedAt());
+        assertEquals(CREATED.plusSeconds(7), ann.getUpdatedAt());
+        assertNull(table.get(0).getFirstName());
+
+        assertTrue(table.remove(7));
+        assertNull(table.get(7));
+        assertFalse(table.remove(7));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void updatesReuseRowsAndCompactionKeepsLiveValues() {
+        PackedUserTable table = new PackedUserTable(16);
+        for (long id = 1; id <= 1_000; id++) {
+            table.put(user(id, "First"));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 1_000; id++) {
+                table.put(user(id, "Renamed" + round));
+            }
+        }
+        assertTrue(table.garbageRatio() > 0.5);
+
+        table.compact();
+
+        assertEquals(0, table.garbageRatio());
+        assertEquals(1_000, table.size());
+        for (long id = 1; id <= 1_000; id++) {
+            assertEquals("Renamed4", table.get(id).getFirstName());
+        }
+    }
+
+    @Test
+    void randomOperationsMatchAHashMap() {
+        PackedUserTable table = new PackedUserTable(16);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long id = random.nextInt(5_000) - 100;
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id) != null, table.remove(id));
+            } else {
+                String name = "n" + i;
+                table.put(user(id, name));
+                expected.put(id, name);
+            }
+        }
+        assertEquals(expected.size(), table.size());
+        for (long id = -100; id < 4_900; id++) {
+            UserDetailsResponse user = table.get(id);
+            assertEquals(expected.get(id), user == null ? null : user.getFirstName());
+        }
+    }
+
+    @Test
+    void footprintIsWellUnderEntityObjects() {
+        PackedUserTable table = new PackedUserTable(100_000);
+        for (long id = 1; id <= 100_000; id++) {
+            table.put(user(1_700_000_000_000L + id, "First"));
+        }
+
+        // 56 bytes of columns, ~30 of index, ~60 of UTF-8 plus growth slack in the heap;
+        // a managed User entity with its strings is several times that
+        double bytesPerUser = (double) table.bytes() / table.size();
+        assertTrue(bytesPerUser < 256, "bytes per user: " + bytesPerUser);
+    }
+}
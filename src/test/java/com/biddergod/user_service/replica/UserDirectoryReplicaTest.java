@@ -0,0 +1,75 @@
+package com.biddergod.user_service.replica;
+
+import com.biddergod.user_service.config.UserReplicaConfig;
+import com.biddergod.user_service.dto.UserDetailsResponse;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryReplicaTest {
+
+    private UserDirectoryReplica replica;
+    private UserReplicaConfig config;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        config = new UserReplicaConfig();
+        config.setExpectedUsers(16);
+        userRepository = mock(UserRepository.class);
+
+        replica = new UserDirectoryReplica();
+        ReflectionTestUtils.setField(replica, "config", config);
+        ReflectionTestUtils.setField(replica, "userRepository", userRepository);
+        ReflectionTestUtils.setField(replica, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(replica, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(replica, "init");
+    }
+
+    private static UserSummary summary(long id, String firstName) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserSummary(id, "sub-" + id, "user" + id + "@example.com", firstName, null, now, now);
+    }
+
+    @Test
+    void deltaReloadPicksUpChangesWhoseInvalidationWasLost() {
+        when(userRepository.streamAllSummaries()).thenAnswer(invocation -> Stream.of(summary(1L, "Old")));
+        LocalDateTime beforeLoad = LocalDateTime.now();
+        replica.load();
+
+        // Renamed on another replica; the invalidation never arrived
+        when(userRepository.streamSummariesUpdatedSince(any()))
+                .thenAnswer(invocation -> Stream.of(summary(1L, "New"), summary(2L, "Added")));
+        replica.reloadChanged();
+
+        List<UserDetailsResponse> users = replica.findByIds(List.of(1L, 2L));
+        assertEquals(2, users.size());
+        assertEquals("New", users.get(0).getFirstName());
+        assertEquals("Added", users.get(1).getFirstName());
+        // Looks back the overlap before the load started
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository).streamSummariesUpdatedSince(since.capture());
+        assertFalse(since.getValue().isBefore(beforeLoad.minus(config.getDeltaOverlap())));
+        assertTrue(since.getValue().isBefore(beforeLoad));
+    }
+
+    @Test
+    void deltaReloadWaitsForTheInitialLoad() {
+        replica.reloadChanged();
+
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,117 @@
+package com.biddergod.user_service.reputation;
+
+import com.biddergod.user_service.UserServiceApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two replicas sharing one database; flushes and refreshes are driven by the test
+ */
+class ReputationStoreTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    private static ConfigurableApplicationContext startNode(String database) {
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--users.warmup.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--users.reputation.flush-interval=PT1H",
+                        "--users.reputation.refresh-interval=PT1H");
+    }
+
+    @BeforeEach
+    void startNodes() {
+        // Fresh database per test: both nodes load whatever rows exist at startup
+        String database = "reputation-" + UUID.randomUUID();
+        nodeA = startNode(database);
+        nodeB = startNode(database);
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void concurrentIncrementsAreNeitherLostNorDoubleCounted() throws Exception {
+        ReputationStore store = nodeA.getBean(ReputationStore.class);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    store.record(1L, i % 10 == 0 ? -2 : 1);
+                    if (i % 1_000 == 0) {
+                        store.flush();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Reputation expected = new Reputation(1L, 8 * (9_000 - 2_000), 8 * 9_000, 8 * 1_000);
+        assertEquals(expected, store.get(1L));
+
+        store.flush();
+        assertEquals(0, store.pendingCount());
+        assertEquals(expected, store.get(1L));
+
+        Map<String, Object> row = new JdbcTemplate(nodeA.getBean(DataSource.class))
+                .queryForMap("SELECT score, positive_count, negative_count FROM user_reputation WHERE user_id = 1");
+        assertEquals(expected.score(), ((Number) row.get("score")).longValue());
+        assertEquals(expected.positiveCount(), ((Number) row.get("positive_count")).longValue());
+        assertEquals(expected.negativeCount(), ((Number) row.get("negative_count")).longValue());
+    }
+
+    @Test
+    void otherReplicasSeeFlushedIncrementsAfterRefresh() {
+        ReputationStore storeA = nodeA.getBean(ReputationStore.class);
+        ReputationStore storeB = nodeB.getBean(ReputationStore.class);
+
+        storeA.record(7L, 5);
+        storeB.record(7L, -1);
+        assertEquals(new Reputation(7L, 5, 1, 0), storeA.get(7L));
+        assertEquals(new Reputation(7L, -1, 0, 1), storeB.get(7L));
+
+        storeA.flush();
+        storeB.flush();
+        storeA.refresh();
+        storeB.refresh();
+
+        Reputation expected = new Reputation(7L, 4, 1, 1);
+        assertEquals(expected, storeA.get(7L));
+        assertEquals(expected, storeB.get(7L));
+        assertTrue(storeA.isFresh());
+    }
+
+    @Test
+    void unknownUsersScoreZero() {
+        ReputationStore store = nodeA.getBean(ReputationStore.class);
+
+        assertEquals(Reputation.none(42L), store.get(42L));
+        assertNotNull(store.syncedAt());
+    }
+}
@@ -0,0 +1,140 @@
+package com.biddergod.user_service.resilience;
+
+import com.biddergod.user_service.config.UserResolutionConfig;
+import com.biddergod.user_service.observability.RequestTimings;
+import com.biddergod.user_service.observability.ServerTimingFilter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fault injection: a "database" that stalls for 2s must not hold callers
+ * much longer than the timeout, and once the circuit opens calls fail fast
+ */
+class UserResolutionGuardTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+    private static final long SLACK_MS = 150;
+
+    private UserResolutionGuard guard;
+
+    private final Supplier<String> stalledDatabase = () -> {
+        try {
+            Thread.sleep(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "user";
+    };
+
+    @BeforeEach
+    void setUp() {
+        UserResolutionConfig config = new UserResolutionConfig();
+        config.setTimeout(TIMEOUT);
+        config.setMaxConcurrentCalls(4);
+        config.setQueueCapacity(0);
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setWaitDurationInOpenState(Duration.ofSeconds(30));
+
+        guard = new UserResolutionGuard();
+        ReflectionTestUtils.setField(guard, "config", config);
+        ReflectionTestUtils.setField(guard, "meterRegistry", new SimpleMeterRegistry());
+        guard.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    @Test
+    void execute_StalledDatabase_LatencyBoundedAndCircuitOpens() {
+        long worstMs = 0;
+        for (int i = 0; i < 50; i++) {
+            long start = System.nanoTime();
+            assertThrows(UserResolutionUnavailableException.class, () -> guard.execute(stalledDatabase));
+            worstMs = Math.max(worstMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        assertTrue(worstMs <= TIMEOUT.toMillis() + SLACK_MS, "worst latency " + worstMs + " ms");
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+        assertFalse(guard.isCallPermitted());
+    }
+
+    @Test
+    void execute_CircuitOpen_FailsFastWithoutCallingDatabase() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UserResolutionUnavailableException.class, () -> guard.execute(stalledDatabase));
+        }
+
+        long start = System.nanoTime();
+        assertThrows(UserResolutionUnavailableException.class,
+                () -> guard.execute(() -> fail("database must not be called while open")));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 50);
+    }
+
+    @Test
+    void execute_DatabaseError_Degrades() {
+        assertThrows(UserResolutionUnavailableException.class, () -> guard.execute(() -> {
+            throw new DataAccessResourceFailureException("connection refused");
+        }));
+    }
+
+    @Test
+    void execute_OtherErrors_Propagate() {
+        assertThrows(IllegalArgumentException.class, () -> guard.execute(() -> {
+            throw new IllegalArgumentException("bad input");
+        }));
+    }
+
+    @Test
+    void execute_HealthyDatabase_ReturnsResult() {
+        assertEquals("user", guard.execute(() -> "user"));
+        assertTrue(guard.isCallPermitted());
+    }
+
+    @Test
+    void execute_WorkerTimings_MergedOnlyAfterSuccess() throws Exception {
+        CountDownLatch abandonedWorkerDone = new CountDownLatch(1);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter().doFilter(new MockHttpServletRequest(), response, (request, servletResponse) -> {
+            RequestTimings timings = RequestTimings.current();
+            guard.execute(() -> {
+                RequestTimings.current().add(RequestTimings.Phase.DB, 2_000_000);
+                return "user";
+            });
+            assertEquals(2_000_000, timings.nanos(RequestTimings.Phase.DB));
+
+            // Keeps recording after the request gave up on it
+            assertThrows(UserResolutionUnavailableException.class, () -> guard.execute(() -> {
+                String user = stalledDatabase.get();
+                RequestTimings.current().add(RequestTimings.Phase.DB, 5_000_000);
+                abandonedWorkerDone.countDown();
+                return user;
+            }));
+            try {
+                assertTrue(abandonedWorkerDone.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            assertEquals(2_000_000, timings.nanos(RequestTimings.Phase.DB));
+        });
+
+        assertEquals("db;dur=2.000", response.getHeader(RequestTimings.HEADER));
+    }
+}
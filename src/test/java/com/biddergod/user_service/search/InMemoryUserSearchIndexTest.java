@@ -0,0 +1,64 @@
+package com.biddergod.user_service.search;
+
+import com.biddergod.user_service.event.UserChangedEvent;
+import com.biddergod.user_service.repository.UserSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryUserSearchIndexTest {
+
+    private InMemoryUserSearchIndex index;
+
+    private static UserSummary user(long id, String username, String email, String firstName, String lastName) {
+        return new UserSummary(id, username, email, firstName, lastName, null, null);
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryUserSearchIndex();
+        index.index(user(1L, "sub-aaa", "john.doe@example.com", "John", "Doe"));
+        index.index(user(2L, "sub-bbb", "jane.smith@example.com", "Jane", "Smith"));
+        index.index(user(3L, "sub-ccc", "bob@johnson.io", "Bob", "Johnson"));
+    }
+
+    @Test
+    void search_UsernamePrefix_Matches() {
+        assertEquals(List.of(2L), index.search("sub-b", 10));
+    }
+
+    @Test
+    void search_PrefixRanksAboveTrigramMatch() {
+        List<Long> results = index.search("john", 10);
+
+        assertEquals(1L, results.get(0));
+        assertTrue(results.contains(3L));
+    }
+
+    @Test
+    void search_PartialSurname_TrigramMatch() {
+        assertEquals(List.of(2L), index.search("smit", 10));
+    }
+
+    @Test
+    void search_ResultsCappedAtLimit() {
+        assertEquals(1, index.search("sub-", 1).size());
+    }
+
+    @Test
+    void onUserChanged_SavedAndDeleted_IndexUpdated() {
+        index.onUserChanged(new UserChangedEvent(UserChangedEvent.Kind.SAVED, 2L,
+                user(2L, "sub-bbb", "jane.brown@example.com", "Jane", "Brown")));
+
+        assertTrue(index.search("smith", 10).isEmpty());
+        assertEquals(List.of(2L), index.search("brown", 10));
+
+        index.onUserChanged(UserChangedEvent.deleted(2L));
+
+        assertTrue(index.search("brown", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,67 @@
+package com.biddergod.user_service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoJwtAuthenticationConverterTest {
+
+    private final CognitoJwtAuthenticationConverter converter = new CognitoJwtAuthenticationConverter();
+
+    private Jwt.Builder accessToken() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("test-cognito-sub")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("token_use", "access")
+                .claim("username", "testuser")
+                .claim("scope", "aws.cognito.signin.user.admin");
+    }
+
+    @Test
+    void convert_GroupsAndScopes_MappedToAuthorities() {
+        Jwt jwt = accessToken().claim("cognito:groups", List.of("ADMIN", "SELLER")).build();
+
+        AbstractAuthenticationToken authentication = converter.convert(jwt);
+
+        CognitoAuthenticationToken token = assertInstanceOf(CognitoAuthenticationToken.class, authentication);
+        assertTrue(token.isAuthenticated());
+        assertEquals("test-cognito-sub", token.getName());
+        assertSame(token.getUserDetails(), token.getPrincipal());
+
+        List<String> authorities = token.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        assertTrue(authorities.containsAll(List.of(
+                "ROLE_ADMIN", "ROLE_SELLER", "SCOPE_aws.cognito.signin.user.admin")));
+    }
+
+    @Test
+    void convert_ClaimsExtractedOnce_ImmutableGroups() {
+        Jwt jwt = accessToken().claim("cognito:groups", List.of("USER")).build();
+
+        CognitoUserDetails details = ((CognitoAuthenticationToken) converter.convert(jwt)).getUserDetails();
+
+        assertEquals("test-cognito-sub", details.getCognitoSub());
+        assertEquals("testuser", details.getCognitoUsername());
+        assertEquals(List.of("USER"), details.getGroups());
+        assertTrue(details.isInGroup("USER"));
+        assertThrows(UnsupportedOperationException.class, () -> details.getGroups().add("ADMIN"));
+    }
+
+    @Test
+    void convert_NoGroupsClaim_EmptyGroups() {
+        CognitoUserDetails details = ((CognitoAuthenticationToken) converter.convert(accessToken().build()))
+                .getUserDetails();
+
+        assertTrue(details.getGroups().isEmpty());
+        assertFalse(details.isInGroup("ADMIN"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.invalidation.SecondLevelCacheEvictor;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repeat lookups by sub and by id are served without SQL
+ */
+class SecondLevelCacheTest {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private CognitoUserService cognitoUserService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--users.warmup.enabled=false");
+        userService = context.getBean(UserService.class);
+        cognitoUserService = context.getBean(CognitoUserService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void repeatLookupsBySubAndIdIssueNoSql() {
+        User user = userService.save(new User("sub-l2", "l2@example.com"));
+        userService.findByUsername("sub-l2");
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(user.getId(), userService.findByUsername("sub-l2").orElseThrow().getId());
+            assertEquals("sub-l2", userService.findById(user.getId()).orElseThrow().getUsername());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(10, statistics.getNaturalIdCacheHitCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 20);
+    }
+
+    @Test
+    void updatesAreVisibleThroughTheCache() {
+        User user = userService.save(new User("sub-l2-update", "before@example.com"));
+        userService.findByUsername("sub-l2-update");
+
+        user.setEmail("after@example.com");
+        userService.save(user);
+
+        assertEquals("after@example.com", userService.findByUsername("sub-l2-update").orElseThrow().getEmail());
+    }
+
+    @Test
+    void reKeyedSubIsNotResolvedToTheOldRow() {
+        User legacy = userService.save(new User("legacy-username", "rekey@example.com"));
+        userService.findByUsername("legacy-username");
+
+        // Another replica re-keys the row to its Cognito sub behind this cache's back
+        new JdbcTemplate(context.getBean(DataSource.class))
+                .update("UPDATE users SET username = 'sub-rekeyed' WHERE id = ?", legacy.getId());
+        context.getBean(SecondLevelCacheEvictor.class).onUsersInvalidated(Set.of(legacy.getId()));
+
+        assertTrue(userService.findByUsername("legacy-username").isEmpty());
+        assertEquals(legacy.getId(), userService.findByUsername("sub-rekeyed").orElseThrow().getId());
+    }
+
+    @Test
+    void reKeyEvictsOnlyTheStaleNaturalId() {
+        User legacy = userService.save(new User("legacy-only", "rekey-only@example.com"));
+        User other = userService.save(new User("sub-l2-other", "other@example.com"));
+        userService.findByUsername("legacy-only");
+        userService.findByUsername("sub-l2-other");
+
+        new JdbcTemplate(context.getBean(DataSource.class))
+                .update("UPDATE users SET username = 'sub-rekeyed-only' WHERE id = ?", legacy.getId());
+        context.getBean(SecondLevelCacheEvictor.class).onUsersInvalidated(Set.of(legacy.getId()));
+        assertTrue(userService.findByUsername("legacy-only").isEmpty());
+        statistics.clear();
+
+        assertEquals(other.getId(), userService.findByUsername("sub-l2-other").orElseThrow().getId());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertTrue(userService.findByUsername("legacy-only").isEmpty());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void findOrCreateUserHitsTheCacheForKnownSubs() {
+        User user = userService.save(new User("sub-l2-login", "login@example.com"));
+        userService.findByUsername("sub-l2-login");
+        statistics.clear();
+
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("sub-l2-login")
+                .claim("token_use", "access")
+                .build();
+        User resolved = cognitoUserService.findOrCreateUser(new CognitoUserDetails(jwt));
+
+        assertEquals(user.getId(), resolved.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,232 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import com.biddergod.user_service.dto.TokenResolutionRequest;
+import com.biddergod.user_service.dto.TokenResolutionResponse;
+import com.biddergod.user_service.dto.TokenResolutionResponse.Status;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.resilience.UserResolutionGuard;
+import com.biddergod.user_service.security.CognitoUserDetails;
+import com.biddergod.user_service.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TokenResolutionServiceTest {
+
+    private TokenResolutionService service;
+    private TokenResolutionConfig config;
+    private JwtDecoder jwtDecoder;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UserIdCache userIdCache;
+    private UserRepository userRepository;
+    private CognitoUserService cognitoUserService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new TokenResolutionConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtDecoder = mock(JwtDecoder.class);
+        userRepository = mock(UserRepository.class);
+        cognitoUserService = mock(CognitoUserService.class);
+
+        UserResolutionGuard guard = mock(UserResolutionGuard.class);
+        when(guard.execute(any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(0)).get());
+
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "config", config);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(verifiedTokenCache, "registerMetrics");
+
+        userIdCache = new UserIdCache();
+        ReflectionTestUtils.setField(userIdCache, "config", config);
+
+        service = new TokenResolutionService();
+        ReflectionTestUtils.setField(service, "config", config);
+        ReflectionTestUtils.setField(service, "jwtDecoder", jwtDecoder);
+        ReflectionTestUtils.setField(service, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(service, "userIdCache", userIdCache);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "cognitoUserService", cognitoUserService);
+        ReflectionTestUtils.setField(service, "userResolutionGuard", guard);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    private static Jwt jwt(String token, String sub, List<String> groups) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject(sub)
+                .claim("token_use", "access")
+                .claim(CognitoUserDetails.GROUPS_CLAIM, groups)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+
+    private static User user(Long id, String sub) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(sub);
+        return user;
+    }
+
+    @Test
+    void resolvesTokensAndSubsWithOneBatchedQuery() {
+        when(jwtDecoder.decode("token-a")).thenReturn(jwt("token-a", "sub-a", List.of("bidders")));
+        when(jwtDecoder.decode("token-b")).thenReturn(jwt("token-b", "sub-b", List.of()));
+        when(userRepository.findByUsernameIn(anyCollection()))
+                .thenReturn(List.of(user(1L, "sub-a"), user(2L, "sub-b"), user(3L, "sub-c")));
+
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(List.of("token-a", "token-b"), List.of("sub-c", "sub-x")));
+
+        assertEquals(4, response.requested());
+        assertEquals(3, response.resolved());
+        assertEquals(1L, response.results().get(0).userId());
+        assertEquals(List.of("bidders"), response.results().get(0).groups());
+        assertNotNull(response.results().get(0).expiresAt());
+        assertEquals(2L, response.results().get(1).userId());
+        assertEquals(3L, response.results().get(2).userId());
+        assertEquals(Status.UNKNOWN_USER, response.results().get(3).status());
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+        verifyNoInteractions(cognitoUserService);
+    }
+
+    @Test
+    void repeatedTokensAreServedFromTheCaches() {
+        Jwt jwt = jwt("token-a", "sub-a", List.of());
+        when(jwtDecoder.decode("token-a")).thenAnswer(invocation -> {
+            verifiedTokenCache.put("token-a", jwt);
+            return jwt;
+        });
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(user(1L, "sub-a")));
+
+        service.resolve(new TokenResolutionRequest(List.of("token-a"), null));
+        TokenResolutionResponse response = service.resolve(new TokenResolutionRequest(List.of("token-a"), null));
+
+        assertEquals(Status.RESOLVED, response.results().get(0).status());
+        verify(jwtDecoder, times(1)).decode("token-a");
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+    }
+
+    @Test
+    void invalidTokensFailIndividually() {
+        when(jwtDecoder.decode("good")).thenReturn(jwt("good", "sub-a", List.of()));
+        when(jwtDecoder.decode("forged")).thenThrow(new BadJwtException("Signed JWT rejected"));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(user(1L, "sub-a")));
+
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(List.of("good", "forged"), null));
+
+        assertEquals(Status.RESOLVED, response.results().get(0).status());
+        assertEquals(Status.INVALID_TOKEN, response.results().get(1).status());
+        assertNull(response.results().get(1).userId());
+    }
+
+    @Test
+    void verifiedTokensOfNewUsersAreProvisioned() {
+        when(jwtDecoder.decode("token-new")).thenReturn(jwt("token-new", "sub-new", List.of()));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of());
+        when(cognitoUserService.findOrCreateUser(any())).thenReturn(user(9L, "sub-new"));
+
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(List.of("token-new"), List.of("sub-unknown")));
+
+        assertEquals(9L, response.results().get(0).userId());
+        assertEquals(Status.UNKNOWN_USER, response.results().get(1).status());
+        verify(cognitoUserService, times(1)).findOrCreateUser(any());
+    }
+
+    @Test
+    void deactivatedUsersAreReportedAndNeverCachedOrProvisioned() {
+        User deactivated = user(4L, "sub-gone");
+        deactivated.setDeactivatedAt(LocalDateTime.now());
+        when(jwtDecoder.decode("token-gone")).thenReturn(jwt("token-gone", "sub-gone", List.of()));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(deactivated));
+
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(List.of("token-gone"), List.of("sub-gone")));
+
+        assertEquals(0, response.resolved());
+        assertEquals(Status.DEACTIVATED, response.results().get(0).status());
+        assertNull(response.results().get(0).userId());
+        assertEquals(Status.DEACTIVATED, response.results().get(1).status());
+        assertNull(userIdCache.get("sub-gone"));
+        verifyNoInteractions(cognitoUserService);
+    }
+
+    @Test
+    void cachedUsersAreCheckedForDeactivationAgainstTheTable() {
+        userIdCache.put("sub-a", 1L);
+        userIdCache.put("sub-b", 2L);
+        // The deactivation of user 2 never reached this replica's caches
+        when(userRepository.findDeactivatedIds(anyCollection())).thenReturn(List.of(2L));
+
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(null, List.of("sub-a", "sub-b")));
+
+        assertEquals(Status.RESOLVED, response.results().get(0).status());
+        assertEquals(Status.DEACTIVATED, response.results().get(1).status());
+        assertNull(userIdCache.get("sub-b"));
+        verify(userRepository, never()).findByUsernameIn(anyCollection());
+    }
+
+    @Test
+    void slowVerificationTimesOutAndIsCancelled() {
+        config.setVerifyTimeout(Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(jwtDecoder.decode("token-a")).thenReturn(jwt("token-a", "sub-a", List.of()));
+        when(jwtDecoder.decode("token-slow")).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(user(1L, "sub-a")));
+
+        long start = System.nanoTime();
+        TokenResolutionResponse response = service.resolve(
+                new TokenResolutionRequest(List.of("token-a", "token-slow"), null));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(Status.UNAVAILABLE, response.results().get(1).status());
+        assertDoesNotThrow(() -> assertTrue(interrupted.await(5, TimeUnit.SECONDS), "verification not cancelled"));
+    }
+
+    @Test
+    void oversizedBatchIsRejected() {
+        config.setMaxBatchSize(2);
+
+        assertThrows(IllegalArgumentException.class, () -> service.resolve(
+                new TokenResolutionRequest(List.of("a", "b"), List.of("c"))));
+        verifyNoInteractions(jwtDecoder, userRepository);
+    }
+}
@@ -0,0 +1,66 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.config.TokenResolutionConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdCacheTest {
+
+    private UserIdCache cache;
+    private TokenResolutionConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new TokenResolutionConfig();
+        config.setUserIdCacheMaxEntries(3);
+        cache = new UserIdCache();
+        ReflectionTestUtils.setField(cache, "config", config);
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsed() {
+        cache.put("sub-1", 1L);
+        cache.put("sub-2", 2L);
+        cache.put("sub-3", 3L);
+        cache.get("sub-1");
+
+        cache.put("sub-4", 4L);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("sub-2"));
+        assertEquals(1L, cache.get("sub-1"));
+        assertEquals(4L, cache.get("sub-4"));
+        // The reverse mapping went with it
+        cache.evict(2L);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void entriesExpire() {
+        config.setUserIdCacheTtl(Duration.ZERO);
+
+        cache.put("sub-1", 1L);
+
+        assertNull(cache.get("sub-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rekeyedSubReplacesTheOldMapping() {
+        cache.put("sub-old", 1L);
+        cache.put("sub-new", 1L);
+
+        assertNull(cache.get("sub-old"));
+        assertEquals(1L, cache.get("sub-new"));
+
+        cache.onUsersInvalidated(Set.of(1L));
+        assertNull(cache.get("sub-new"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,155 @@
+package com.biddergod.user_service.service;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.dto.UserProfilePatchRequest;
+import com.biddergod.user_service.entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columns written per profile edit, and what happens when edits race
+ */
+class UserProfilePatchTest {
+
+    /**
+     * Records every statement Hibernate prepares
+     */
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @BeforeEach
+    void start() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:profile-patch;DB_CLOSE_DELAY=-1",
+                        "--users.warmup.enabled=false",
+                        "--users.server-timing.enabled=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + RecordingInspector.class.getName());
+        userService = context.getBean(UserService.class);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    private User createUser() {
+        User user = new User("sub-patch", "patch@example.com");
+        user.setFirstName("Ann");
+        user.setLastName("Lee");
+        return userService.save(user);
+    }
+
+    private static List<String> updates() {
+        return RecordingInspector.STATEMENTS.stream().filter(sql -> sql.startsWith("update users")).toList();
+    }
+
+    @Test
+    void patchWritesOnlyTheChangedColumnUnderAVersionCheck() {
+        User user = createUser();
+        RecordingInspector.STATEMENTS.clear();
+
+        User patched = userService.patchProfile(user.getId(), user.getVersion(),
+                new UserProfilePatchRequest("Anna", null)).orElseThrow();
+
+        assertEquals("Anna", patched.getFirstName());
+        assertEquals("Lee", patched.getLastName());
+        assertEquals(user.getVersion() + 1, patched.getVersion());
+
+        List<String> updates = updates();
+        assertEquals(1, updates.size());
+        String update = updates.get(0);
+        assertTrue(update.contains("first_name"));
+        assertTrue(update.contains("version=?") && update.contains("where id=? and version=?"), update);
+        for (String untouched : List.of("last_name", "email", "username", "created_at", "last_seen_at")) {
+            assertFalse(update.contains(untouched), untouched + " written by " + update);
+        }
+    }
+
+    @Test
+    void patchWithoutChangesWritesNothing() {
+        User user = createUser();
+        RecordingInspector.STATEMENTS.clear();
+
+        User patched = userService.patchProfile(user.getId(), user.getVersion(),
+                new UserProfilePatchRequest("Ann", null)).orElseThrow();
+
+        assertEquals(user.getVersion(), patched.getVersion());
+        assertTrue(updates().isEmpty());
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        User user = createUser();
+        userService.patchProfile(user.getId(), user.getVersion(), new UserProfilePatchRequest("Anna", null));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.patchProfile(
+                user.getId(), user.getVersion(), new UserProfilePatchRequest(null, "Li")));
+        assertEquals("Lee", userService.findById(user.getId()).orElseThrow().getLastName());
+    }
+
+    @Test
+    void concurrentEditsFromTheSameVersionConflictInsteadOfLosingWrites() throws Exception {
+        User user = createUser();
+        int editors = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(editors);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < editors; i++) {
+            String lastName = "Editor" + i;
+            results.add(executor.submit(() -> {
+                go.await();
+                try {
+                    userService.patchProfile(user.getId(), user.getVersion(), new UserProfilePatchRequest(null, lastName));
+                    return true;
+                } catch (OptimisticLockingFailureException e) {
+                    return false;
+                }
+            }));
+        }
+        go.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        User stored = userService.findById(user.getId()).orElseThrow();
+        assertEquals(1, succeeded);
+        assertEquals(user.getVersion() + 1, stored.getVersion());
+        assertTrue(stored.getLastName().startsWith("Editor"));
+    }
+}
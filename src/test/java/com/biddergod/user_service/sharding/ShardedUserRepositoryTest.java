@@ -0,0 +1,240 @@
+package com.biddergod.user_service.sharding;
+
+import com.biddergod.user_service.UserServiceApplication;
+import com.biddergod.user_service.entity.User;
+import com.biddergod.user_service.job.AdminJobService;
+import com.biddergod.user_service.repository.UserRepository;
+import com.biddergod.user_service.repository.UserSummary;
+import com.biddergod.user_service.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three local H2 databases as shards, two of them active unless a test reshards
+ */
+class ShardedUserRepositoryTest {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void start() {
+        start("--users.sharding.active-shards=2");
+    }
+
+    /**
+     * (Re)start on the same shard databases; they outlive the context
+     */
+    private void start(String... layout) {
+        if (context != null) {
+            context.close();
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--users.warmup.enabled=false",
+                "--users.sharding.enabled=true",
+                // Restarts keep the rows: create-drop would empty shard 0
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--users.sharding.shards[0].url=jdbc:h2:mem:users-shard-0;DB_CLOSE_DELAY=-1",
+                "--users.sharding.shards[0].username=sa",
+                "--users.sharding.shards[1].url=jdbc:h2:mem:users-shard-1;DB_CLOSE_DELAY=-1",
+                "--users.sharding.shards[1].username=sa",
+                "--users.sharding.shards[2].url=jdbc:h2:mem:users-shard-2;DB_CLOSE_DELAY=-1",
+                "--users.sharding.shards[2].username=sa",
+                "--users.sharding.reshard-chunk-size=7",
+                "--users.search.engine=memory",
+                "--users.invalidation.channel=sharding_test"));
+        args.addAll(List.of(layout));
+        context = new SpringApplicationBuilder(UserServiceApplication.class).run(args.toArray(String[]::new));
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    @AfterEach
+    void stop() {
+        for (int shard = 0; shard < 3; shard++) {
+            ShardContext.runOn(shard, () -> jdbcTemplate.execute("DELETE FROM users"));
+        }
+        context.close();
+        context = null;
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userService.save(new User("sub-" + i, "user" + i + "@example.com")));
+        }
+        return users;
+    }
+
+    private boolean existsOn(int shard, Long id) {
+        Long rows = ShardContext.callOn(shard, () ->
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, id));
+        return rows != null && rows == 1;
+    }
+
+    @Test
+    void usersLandOnTheShardOfTheirSub() {
+        ShardRouter router = context.getBean(ShardRouter.class);
+        Set<Integer> used = new HashSet<>();
+        for (User user : createUsers(30)) {
+            int owner = ShardRouter.shardForSub(user.getUsername(), 2);
+            used.add(owner);
+            // The ID alone names the owner
+            assertEquals(owner, router.homeShardOfId(user.getId()));
+            assertTrue(existsOn(owner, user.getId()), "user " + user.getUsername() + " on shard " + owner);
+            assertFalse(existsOn(1 - owner, user.getId()));
+        }
+        assertEquals(Set.of(0, 1), used);
+    }
+
+    @Test
+    void keyedLookupsAndFanOutQueriesSeeEveryShard() {
+        List<User> users = createUsers(20);
+        User sample = users.get(13);
+
+        assertEquals(sample.getId(), userRepository.findByUsername("sub-13").orElseThrow().getId());
+        assertEquals("sub-13", userRepository.findById(sample.getId()).orElseThrow().getUsername());
+        assertEquals(sample.getId(), userRepository.findByEmail("user13@example.com").orElseThrow().getId());
+        assertTrue(userRepository.existsByEmail("user7@example.com"));
+        assertFalse(userRepository.existsByUsername("sub-missing"));
+        assertEquals(20, userRepository.count());
+        assertEquals(20, userRepository.findAll().size());
+
+        List<Long> requested = new ArrayList<>();
+        for (int i = users.size() - 1; i >= 0; i--) {
+            requested.add(users.get(i).getId());
+        }
+        requested.add(1, 999_999L);
+        List<User> found = userService.findByIds(requested);
+        assertEquals(20, found.size());
+        assertEquals(users.get(19).getId(), found.get(0).getId());
+        assertEquals(users.get(0).getId(), found.get(19).getId());
+    }
+
+    @Test
+    void updatesStayOnTheShardHoldingTheRow() {
+        User user = createUsers(1).get(0);
+        user.setFirstName("Robin");
+        userService.save(user);
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("Robin", reloaded.getFirstName());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void saveAllAndStreamsRouteEveryRow() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            users.add(new User("sub-batch-" + i, "batch" + i + "@example.com"));
+        }
+        List<User> saved = userRepository.saveAll(users);
+
+        assertEquals(12, saved.size());
+        for (User user : saved) {
+            assertTrue(existsOn(ShardRouter.shardForSub(user.getUsername(), 2), user.getId()));
+        }
+        try (Stream<UserSummary> summaries = userRepository.streamAllSummaries()) {
+            assertEquals(12, summaries.count());
+        }
+        // Closing a stream midway stops the shard readers
+        try (Stream<UserSummary> summaries = userRepository.streamAllSummaries()) {
+            assertEquals(3, summaries.limit(3).count());
+        }
+    }
+
+    @Test
+    void rekeyedUserMovesToItsNewOwner() {
+        User user = createUsers(1).get(0);
+        int from = ShardRouter.shardForSub(user.getUsername(), 2);
+        String sub = "sub-rekeyed-0";
+        for (int i = 1; ShardRouter.shardForSub(sub, 2) == from; i++) {
+            sub = "sub-rekeyed-" + i;
+        }
+
+        user.setUsername(sub);
+        userService.save(user);
+
+        assertTrue(existsOn(1 - from, user.getId()));
+        assertFalse(existsOn(from, user.getId()));
+        assertEquals(user.getId(), userRepository.findByUsername(sub).orElseThrow().getId());
+    }
+
+    @Test
+    void reshardingMirrorsWritesAndCopiesTheRest() {
+        List<User> users = createUsers(25);
+        assertThrows(IllegalStateException.class, () -> context.getBean(ReshardingService.class).copy(3, null));
+
+        // 1. Mirror writes to the 3-shard layout
+        start("--users.sharding.active-shards=2", "--users.sharding.mirror-shards=3");
+        ReshardingService resharding = context.getBean(ReshardingService.class);
+        User updated = userRepository.findByUsername("sub-3").orElseThrow();
+        updated.setFirstName("Mirrored");
+        userService.save(updated);
+        User created = userService.save(new User("sub-25", "user25@example.com"));
+        assertTrue(existsOn(ShardRouter.shardForSub("sub-25", 3), created.getId()));
+        assertTrue(existsOn(ShardRouter.shardForSub("sub-3", 3), updated.getId()));
+        assertThrows(IllegalStateException.class, () -> context.getBean(AdminJobService.class)
+                .startPlaceholderPurge(Duration.ofDays(1), "test"));
+
+        // 2. Copy the rows written before
+        ReshardReport report = resharding.copy(3, null);
+        assertEquals(26, report.scanned());
+        assertTrue(report.changed() > 0);
+        users.add(created);
+        for (User user : users) {
+            int owner = ShardRouter.shardForSub(user.getUsername(), 3);
+            assertTrue(existsOn(owner, user.getId()), "user " + user.getUsername() + " copied to shard " + owner);
+        }
+        // Copying again is an idempotent upsert
+        assertEquals(report.changed(), resharding.copy(3, null).changed());
+
+        // Deletes reach the copies; reads never return them
+        User deleted = users.remove(7);
+        userRepository.deleteById(deleted.getId());
+        for (int shard = 0; shard < 3; shard++) {
+            assertFalse(existsOn(shard, deleted.getId()));
+        }
+        assertEquals(25, userRepository.findAll().size());
+        assertEquals(25, userService.findByIds(users.stream().map(User::getId).toList()).size());
+        try (Stream<UserSummary> summaries = userRepository.streamAllSummaries()) {
+            assertEquals(25, summaries.count());
+        }
+        assertThrows(IllegalStateException.class, () -> resharding.prune(3));
+
+        // 3. Cut over, still mirroring to the old layout
+        start("--users.sharding.active-shards=3", "--users.sharding.mirror-shards=2");
+        assertEquals("Mirrored", userRepository.findByUsername("sub-3").orElseThrow().getFirstName());
+        assertEquals(25, userRepository.findAll().size());
+        assertThrows(IllegalStateException.class, () -> context.getBean(ReshardingService.class).prune(3));
+
+        // 4. Drop the mirror and prune the old copies
+        start("--users.sharding.active-shards=3");
+        assertTrue(context.getBean(ReshardingService.class).prune(3).changed() > 0);
+        for (User user : users) {
+            int owner = ShardRouter.shardForSub(user.getUsername(), 3);
+            for (int shard = 0; shard < 3; shard++) {
+                assertEquals(shard == owner, existsOn(shard, user.getId()));
+            }
+        }
+        assertEquals(25, userRepository.count());
+    }
+}
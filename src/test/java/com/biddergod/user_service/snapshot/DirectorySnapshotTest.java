@@ -0,0 +1,116 @@
+package com.biddergod.user_service.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectorySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private static DirectoryEntry user(long id) {
+        return new DirectoryEntry(id, "sub-" + id, "user" + id + "@example.com",
+                id % 3 == 0 ? null : "First" + id, "Lást" + id, false);
+    }
+
+    private Path writeFull(long generation, int users) throws IOException {
+        Path target = directory.resolve(DirectorySnapshotFormat.fileName(generation, 0));
+        try (DirectorySnapshotWriter writer = DirectorySnapshotWriter.full(target, generation)) {
+            for (long id = 1; id <= users; id++) {
+                writer.add(user(id * 7919));
+            }
+            writer.commit();
+        }
+        return target;
+    }
+
+    @Test
+    void fullSnapshotRoundTrips() throws IOException {
+        Path file = writeFull(1, 10_000);
+
+        DirectorySnapshotReader reader = DirectorySnapshotReader.open(file);
+        assertFalse(reader.isDelta());
+        assertEquals(1, reader.generation());
+        assertEquals(10_000, reader.size());
+        for (long id = 1; id <= 10_000; id++) {
+            int record = reader.indexOf(id * 7919);
+            assertTrue(record >= 0, "missing " + id);
+            assertEquals(user(id * 7919), reader.entry(record));
+        }
+        assertEquals(-1, reader.indexOf(42));
+        assertEquals(-1, reader.indexOf(-7919));
+    }
+
+    @Test
+    void fileIsCompact() throws IOException {
+        Path file = writeFull(1, 10_000);
+
+        // 48-byte record + at most four 4-byte slots + about 60 bytes of strings
+        long perUser = Files.size(file) / 10_000;
+        assertTrue(perUser <= 48 + 16 + 64, "bytes per user: " + perUser);
+    }
+
+    @Test
+    void emptySnapshotIsReadable() throws IOException {
+        Path file = writeFull(1, 0);
+
+        DirectorySnapshotReader reader = DirectorySnapshotReader.open(file);
+        assertEquals(0, reader.size());
+        assertEquals(-1, reader.indexOf(1));
+    }
+
+    @Test
+    void deltasOverrideTheFullSnapshotNewestFirst() throws IOException {
+        writeFull(3, 100);
+        long changedId = 5 * 7919;
+        long deletedId = 6 * 7919;
+        long addedId = 1_000_000;
+
+        try (DirectorySnapshotWriter delta = DirectorySnapshotWriter.delta(
+                directory.resolve(DirectorySnapshotFormat.fileName(3, 1)), 3, 1)) {
+            delta.add(new DirectoryEntry(changedId, "sub-5", "old@example.com", "Old", null, false));
+            delta.add(DirectoryEntry.deleted(deletedId));
+            delta.commit();
+        }
+        try (DirectorySnapshotWriter delta = DirectorySnapshotWriter.delta(
+                directory.resolve(DirectorySnapshotFormat.fileName(3, 2)), 3, 2)) {
+            delta.add(new DirectoryEntry(changedId, "sub-5", "new@example.com", "New", null, false));
+            delta.add(new DirectoryEntry(addedId, "sub-new", "added@example.com", null, null, false));
+            delta.commit();
+        }
+        // A stale generation must be ignored
+        writeFull(2, 1);
+
+        DirectorySnapshotSet snapshot = DirectorySnapshotSet.openLatest(directory);
+
+        assertEquals(3, snapshot.generation());
+        assertEquals(2, snapshot.sequence());
+        assertEquals("new@example.com", snapshot.get(changedId).email());
+        assertNull(snapshot.get(deletedId));
+        assertEquals("sub-new", snapshot.get(addedId).username());
+        assertEquals(user(7 * 7919), snapshot.get(7 * 7919));
+    }
+
+    @Test
+    void foreignFilesAreRejected() throws IOException {
+        Path file = directory.resolve("garbage.full");
+        Files.write(file, new byte[128]);
+
+        assertThrows(IOException.class, () -> DirectorySnapshotReader.open(file));
+    }
+
+    @Test
+    void noTemporaryFilesAreLeftBehind() throws IOException {
+        writeFull(1, 100);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.biddergod.user_service.warmup;
+
+import com.biddergod.user_service.config.WarmupConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupRunnerTest {
+
+    private WarmupRunner runner;
+    private WarmupConfig config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new WarmupConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        runner = new WarmupRunner();
+        ReflectionTestUtils.setField(runner, "config", config);
+        ReflectionTestUtils.setField(runner, "meterRegistry", meterRegistry);
+    }
+
+    private long count(String step, String outcome) {
+        var timer = meterRegistry.find("users.warmup.duration").tag("step", step).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    void runsAllStepsInOrder() {
+        List<String> ran = new ArrayList<>();
+
+        boolean completed = runner.warmUp(List.of(
+            new WarmupRunner.NamedStep("a", deadline -> ran.add("a")),
+            new WarmupRunner.NamedStep("b", deadline -> ran.add("b"))
+        ));
+
+        assertTrue(completed);
+        assertEquals(List.of("a", "b"), ran);
+        assertEquals(1, count("a", "completed"));
+        assertEquals(1, count("total", "completed"));
+    }
+
+    @Test
+    void failingStepDoesNotStopTheOthers() {
+        List<String> ran = new ArrayList<>();
+
+        runner.warmUp(List.of(
+            new WarmupRunner.NamedStep("broken", deadline -> { throw new IllegalStateException("JWKS unreachable"); }),
+            new WarmupRunner.NamedStep("after", deadline -> ran.add("after"))
+        ));
+
+        assertEquals(List.of("after"), ran);
+        assertEquals(1, count("broken", "failed"));
+    }
+
+    @Test
+    void readinessIsNotHeldPastTheBudget() {
+        config.setBudget(Duration.ofMillis(200));
+        List<String> ran = new ArrayList<>();
+
+        long start = System.nanoTime();
+        boolean completed = runner.warmUp(List.of(
+            new WarmupRunner.NamedStep("slow", deadline -> Thread.sleep(10_000)),
+            new WarmupRunner.NamedStep("never", deadline -> ran.add("never"))
+        ));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(completed);
+        assertTrue(elapsedMs < 2_000, "warm-up returned after " + elapsedMs + " ms");
+        assertTrue(ran.isEmpty());
+        assertEquals(1, count("total", "budget_exceeded"));
+    }
+}